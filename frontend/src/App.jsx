@@ -265,22 +265,15 @@ function App() {
 
     setBusy(true)
     try {
-      const preview = await apiRequest(`/modules/${moduleId}/preview`, { token })
-      setPreviewData(preview)
-
-      const evaluationPeriods = [
-        ...new Set((preview.uts || []).map((ut) => Number(ut.evaluationPeriod)).filter(Number.isFinite)),
-      ].sort((a, b) => a - b)
-
       try {
-        const evaluationReports = await Promise.all(
-          evaluationPeriods.map((period) => apiRequest(`/modules/${moduleId}/reports/evaluation/${period}`, { token })),
-        )
-        const finalReport = await apiRequest(`/modules/${moduleId}/reports/final`, { token })
-        setPreviewEvaluationReports(evaluationReports)
-        setPreviewFinalReport(finalReport)
+        const dashboard = await apiRequest(`/modules/${moduleId}/dashboard?includePreview=true`, { token })
+        setPreviewData(dashboard.preview)
+        setPreviewEvaluationReports(dashboard.evaluationReports || [])
+        setPreviewFinalReport(dashboard.finalReport)
         pushLog(`Vista previa cargada para modulo #${moduleId}.`)
       } catch (reportError) {
+        const preview = await apiRequest(`/modules/${moduleId}/preview`, { token })
+        setPreviewData(preview)
         setPreviewEvaluationReports([])
         setPreviewFinalReport(null)
         pushLog(
@@ -0,0 +1,92 @@
+package com.sara.tfgdam.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Per-student engine costs on a 10 RA x 20 UT x 300 instrument module.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalculationBenchmark {
+
+    @Param({"300"})
+    int instrumentCount;
+
+    private SyntheticModule module;
+    private CalculationService calculationService;
+    private StudentBatchExecutor executor;
+    private CalculationService.ModuleContext context;
+    private List<Map<Long, BigDecimal>> studentGrades;
+    private BigDecimal[] numericGrades;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        module = new SyntheticModule(10, 20, instrumentCount, 64, 17);
+        executor = new StudentBatchExecutor(1, 1, 1);
+        calculationService = module.createService(executor);
+        context = module.createContext();
+        studentGrades = module.students.stream()
+                .map(student -> module.gradesByStudentId.get(student.getId()))
+                .toList();
+
+        Random random = new Random(17);
+        numericGrades = new BigDecimal[1024];
+        for (int i = 0; i < numericGrades.length; i++) {
+            numericGrades[i] = BigDecimal.valueOf(random.nextInt(100001), 4);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public CalculationService.StudentComputation computeForStudent() {
+        return calculationService.computeForStudent(context, nextGrades());
+    }
+
+    @Benchmark
+    public CalculationService.StudentComputation computeForStudentDecimal() {
+        return calculationService.computeForStudentDecimal(context, nextGrades());
+    }
+
+    @Benchmark
+    public void calculateSuggestedBulletinGrade(Blackhole blackhole) {
+        for (int i = 0; i < numericGrades.length; i++) {
+            blackhole.consume(calculationService.calculateSuggestedBulletinGrade(numericGrades[i], (i & 3) != 0));
+        }
+    }
+
+    @Benchmark
+    public CalculationService.ModuleContext createContext() {
+        return module.createContext();
+    }
+
+    private Map<Long, BigDecimal> nextGrades() {
+        next = (next + 1) % studentGrades.size();
+        return studentGrades.get(next);
+    }
+}
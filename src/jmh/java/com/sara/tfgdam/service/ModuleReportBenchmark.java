@@ -0,0 +1,61 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.dto.ModuleEvaluationReportResponse;
+import com.sara.tfgdam.dto.ModuleFinalReportResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Whole-module reports through CalculationService, with repositories answered from memory.
+// parallelism=1 measures the engine alone; 0 uses the executor sized to the machine.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModuleReportBenchmark {
+
+    @Param({"30", "300", "2000"})
+    int studentCount;
+
+    @Param({"1"})
+    int parallelism;
+
+    private CalculationService calculationService;
+    private StudentBatchExecutor executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticModule module = new SyntheticModule(10, 20, 300, studentCount, 17);
+        executor = new StudentBatchExecutor(parallelism, 4, 32);
+        calculationService = module.createService(executor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public ModuleFinalReportResponse moduleFinalReport() {
+        return calculationService.getModuleFinalReport(SyntheticModule.MODULE_ID);
+    }
+
+    @Benchmark
+    public ModuleEvaluationReportResponse moduleEvaluationReport() {
+        return calculationService.getModuleEvaluationReport(SyntheticModule.MODULE_ID, 1);
+    }
+}
@@ -0,0 +1,211 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.domain.entity.Activity;
+import com.sara.tfgdam.domain.entity.CourseModule;
+import com.sara.tfgdam.domain.entity.Instrument;
+import com.sara.tfgdam.domain.entity.InstrumentRA;
+import com.sara.tfgdam.domain.entity.LearningOutcomeRA;
+import com.sara.tfgdam.domain.entity.Student;
+import com.sara.tfgdam.domain.entity.TeachingUnitUT;
+import com.sara.tfgdam.domain.entity.UTRALink;
+import com.sara.tfgdam.repository.ActivityRepository;
+import com.sara.tfgdam.repository.CourseModuleRepository;
+import com.sara.tfgdam.repository.GradeRepository;
+import com.sara.tfgdam.repository.GradeValue;
+import com.sara.tfgdam.repository.InstrumentRARepository;
+import com.sara.tfgdam.repository.InstrumentRepository;
+import com.sara.tfgdam.repository.LearningOutcomeRARepository;
+import com.sara.tfgdam.repository.StudentEvaluationOverrideRepository;
+import com.sara.tfgdam.repository.StudentRepository;
+import com.sara.tfgdam.repository.TeachingUnitUTRepository;
+import com.sara.tfgdam.repository.UTRALinkRepository;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+// A module shaped like the large ones seen in production: RAs weighted evenly, every UT linked to three
+// RAs, instruments spread evenly over the UTs and linked to one or two of their RAs, grades for ~90%
+// of the instruments. Repositories are in-memory proxies answering only what the report path calls.
+final class SyntheticModule {
+
+    static final Long MODULE_ID = 1L;
+    static final int EVALUATION_PERIODS = 3;
+
+    final CourseModule module = CourseModule.builder().id(MODULE_ID).name("Benchmark").build();
+    final List<LearningOutcomeRA> ras = new ArrayList<>();
+    final List<TeachingUnitUT> uts = new ArrayList<>();
+    final List<UTRALink> utRaLinks = new ArrayList<>();
+    final List<Activity> activities = new ArrayList<>();
+    final List<Instrument> instruments = new ArrayList<>();
+    final List<InstrumentRA> instrumentRAs = new ArrayList<>();
+    final List<Student> students = new ArrayList<>();
+    final Map<Long, List<GradeValue>> gradeValuesByStudentId = new HashMap<>();
+    final Map<Long, Map<Long, BigDecimal>> gradesByStudentId = new HashMap<>();
+
+    private long nextId = 1;
+
+    SyntheticModule(int raCount, int utCount, int instrumentCount, int studentCount, long seed) {
+        Random random = new Random(seed);
+
+        for (int i = 0; i < raCount; i++) {
+            ras.add(LearningOutcomeRA.builder()
+                    .id(nextId++)
+                    .module(module)
+                    .code(String.format("RA%02d", i + 1))
+                    .name("RA " + (i + 1))
+                    .weightPercent(split(100, raCount, i))
+                    .build());
+        }
+
+        Map<Long, List<TeachingUnitUT>> utsByRaId = new HashMap<>();
+        Map<Long, List<LearningOutcomeRA>> rasByUtId = new HashMap<>();
+        for (int i = 0; i < utCount; i++) {
+            TeachingUnitUT ut = TeachingUnitUT.builder()
+                    .id(nextId++)
+                    .module(module)
+                    .name("UT" + (i + 1))
+                    .evaluationPeriod(1 + i * EVALUATION_PERIODS / utCount)
+                    .build();
+            uts.add(ut);
+            activities.add(Activity.builder().id(nextId++).module(module).teachingUnit(ut).name(ut.getName()).build());
+
+            for (int offset : new int[]{0, 3, 7}) {
+                LearningOutcomeRA ra = ras.get((i + offset) % raCount);
+                if (!rasByUtId.computeIfAbsent(ut.getId(), k -> new ArrayList<>()).contains(ra)) {
+                    rasByUtId.get(ut.getId()).add(ra);
+                    utsByRaId.computeIfAbsent(ra.getId(), k -> new ArrayList<>()).add(ut);
+                }
+            }
+        }
+
+        for (LearningOutcomeRA ra : ras) {
+            List<TeachingUnitUT> linkedUts = utsByRaId.getOrDefault(ra.getId(), List.of());
+            for (int i = 0; i < linkedUts.size(); i++) {
+                utRaLinks.add(UTRALink.builder()
+                        .id(nextId++)
+                        .teachingUnit(linkedUts.get(i))
+                        .learningOutcome(ra)
+                        .percent(split(100, linkedUts.size(), i))
+                        .build());
+            }
+        }
+
+        for (int i = 0; i < instrumentCount; i++) {
+            int utIndex = i % utCount;
+            int perUt = instrumentCount / utCount + (utIndex < instrumentCount % utCount ? 1 : 0);
+            Instrument instrument = Instrument.builder()
+                    .id(nextId++)
+                    .activity(activities.get(utIndex))
+                    .name("I" + (i + 1))
+                    .weightPercent(split(100, perUt, i / utCount))
+                    .build();
+            instruments.add(instrument);
+
+            List<LearningOutcomeRA> utRas = rasByUtId.get(uts.get(utIndex).getId());
+            instrumentRAs.add(InstrumentRA.builder().id(nextId++).instrument(instrument).learningOutcome(utRas.get(i % utRas.size())).build());
+            if (random.nextBoolean()) {
+                instrumentRAs.add(InstrumentRA.builder().id(nextId++).instrument(instrument)
+                        .learningOutcome(utRas.get((i + 1) % utRas.size())).build());
+            }
+        }
+
+        for (int i = 0; i < studentCount; i++) {
+            Student student = Student.builder()
+                    .id(nextId++)
+                    .module(module)
+                    .studentCode(String.format("S%05d", i + 1))
+                    .fullName("Student " + (i + 1))
+                    .build();
+            students.add(student);
+
+            List<GradeValue> values = new ArrayList<>();
+            Map<Long, BigDecimal> grades = new HashMap<>();
+            for (Instrument instrument : instruments) {
+                if (random.nextInt(10) > 0) {
+                    BigDecimal grade = BigDecimal.valueOf(random.nextInt(1001), 2);
+                    values.add(new GradeValue(student.getId(), instrument.getId(), grade));
+                    grades.put(instrument.getId(), grade);
+                }
+            }
+            gradeValuesByStudentId.put(student.getId(), values);
+            gradesByStudentId.put(student.getId(), grades);
+        }
+    }
+
+    CalculationService.ModuleContext createContext() {
+        return CalculationService.createContext(module, ras, uts, utRaLinks, activities, instruments, instrumentRAs);
+    }
+
+    // The context cache is seeded, so structure repositories and the readiness check are never reached.
+    CalculationService createService(StudentBatchExecutor executor) {
+        ModuleVersionTracker versionTracker = new ModuleVersionTracker();
+        ModuleContextCache contextCache = new ModuleContextCache(16);
+        contextCache.put(MODULE_ID, versionTracker.structureVersion(MODULE_ID), createContext());
+
+        StudentRepository studentRepository = fake(StudentRepository.class, Map.of(
+                "findByModuleId", args -> students
+        ));
+        GradeRepository gradeRepository = fake(GradeRepository.class, Map.of(
+                "findValuesByStudentIdIn", args -> {
+                    List<GradeValue> values = new ArrayList<>();
+                    for (Object studentId : (Collection<?>) args[0]) {
+                        values.addAll(gradeValuesByStudentId.getOrDefault(studentId, List.of()));
+                    }
+                    return values;
+                }
+        ));
+        StudentEvaluationOverrideRepository overrideRepository = fake(StudentEvaluationOverrideRepository.class, Map.of(
+                "findByStudent_Module_IdAndEvaluationPeriod", args -> List.of()
+        ));
+
+        return new CalculationService(
+                fake(CourseModuleRepository.class, Map.of()),
+                fake(LearningOutcomeRARepository.class, Map.of()),
+                fake(TeachingUnitUTRepository.class, Map.of()),
+                fake(UTRALinkRepository.class, Map.of()),
+                fake(ActivityRepository.class, Map.of()),
+                fake(InstrumentRepository.class, Map.of()),
+                fake(InstrumentRARepository.class, Map.of()),
+                studentRepository,
+                overrideRepository,
+                gradeRepository,
+                (ModuleReadinessService) null,
+                versionTracker,
+                contextCache,
+                executor
+        );
+    }
+
+    private static <T> T fake(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> type.getSimpleName() + " fake";
+                };
+            }
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+            return answer.apply(args);
+        }));
+    }
+
+    private static BigDecimal split(int total, int parts, int index) {
+        BigDecimal share = BigDecimal.valueOf(total).divide(BigDecimal.valueOf(parts), 2, RoundingMode.DOWN);
+        if (index < parts - 1) {
+            return share;
+        }
+        return BigDecimal.valueOf(total).subtract(share.multiply(BigDecimal.valueOf(parts - 1))).setScale(2, RoundingMode.HALF_UP);
+    }
+}
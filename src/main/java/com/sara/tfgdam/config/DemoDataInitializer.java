@@ -3,6 +3,7 @@ package com.sara.tfgdam.config;
 import com.sara.tfgdam.domain.entity.Activity;
 import com.sara.tfgdam.domain.entity.CourseModule;
 import com.sara.tfgdam.domain.entity.Grade;
+import com.sara.tfgdam.domain.entity.GradeChangeCounter;
 import com.sara.tfgdam.domain.entity.Instrument;
 import com.sara.tfgdam.domain.entity.InstrumentRA;
 import com.sara.tfgdam.domain.entity.LearningOutcomeRA;
@@ -12,6 +13,7 @@ import com.sara.tfgdam.domain.entity.TeachingUnitUT;
 import com.sara.tfgdam.domain.entity.UTRALink;
 import com.sara.tfgdam.repository.ActivityRepository;
 import com.sara.tfgdam.repository.CourseModuleRepository;
+import com.sara.tfgdam.repository.GradeChangeCounterRepository;
 import com.sara.tfgdam.repository.GradeRepository;
 import com.sara.tfgdam.repository.InstrumentRARepository;
 import com.sara.tfgdam.repository.InstrumentRepository;
@@ -41,6 +43,7 @@ public class DemoDataInitializer {
     private final InstrumentRARepository instrumentRARepository;
     private final StudentRepository studentRepository;
     private final GradeRepository gradeRepository;
+    private final GradeChangeCounterRepository gradeChangeCounterRepository;
 
     @Bean
     CommandLineRunner seedDemoData() {
@@ -55,6 +58,7 @@ public class DemoDataInitializer {
                     .academicYear("2025-2026")
                     .teacher(teacher)
                     .build());
+            gradeChangeCounterRepository.save(GradeChangeCounter.builder().moduleId(module.getId()).lastSequence(0).build());
 
             LearningOutcomeRA ra1 = learningOutcomeRARepository.save(LearningOutcomeRA.builder()
                     .module(module)
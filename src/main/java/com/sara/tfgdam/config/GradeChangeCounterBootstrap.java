@@ -0,0 +1,19 @@
+package com.sara.tfgdam.config;
+
+import com.sara.tfgdam.service.GradeChangeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@RequiredArgsConstructor
+public class GradeChangeCounterBootstrap {
+
+    private final GradeChangeService gradeChangeService;
+
+    @Bean
+    CommandLineRunner createMissingGradeChangeCounters() {
+        return args -> gradeChangeService.createMissingCounters();
+    }
+}
@@ -1,19 +1,31 @@
 package com.sara.tfgdam.controller;
 
 import com.sara.tfgdam.dto.GradeBatchRequest;
+import com.sara.tfgdam.dto.GradeIngestionMetricsResponse;
+import com.sara.tfgdam.dto.GradeIngestionTicketResponse;
 import com.sara.tfgdam.dto.GradeResponse;
 import com.sara.tfgdam.mapper.DtoMapper;
+import com.sara.tfgdam.service.GradeBulkUploadService;
+import com.sara.tfgdam.service.GradeIngestionQueue;
 import com.sara.tfgdam.service.GradeService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -23,6 +35,8 @@ import java.util.List;
 public class GradeController {
 
     private final GradeService gradeService;
+    private final GradeIngestionQueue gradeIngestionQueue;
+    private final GradeBulkUploadService gradeBulkUploadService;
     private final DtoMapper mapper;
 
     @PostMapping
@@ -32,4 +46,28 @@ public class GradeController {
                 .map(mapper::toGradeResponse)
                 .toList();
     }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> bulkUpload(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(gradeBulkUploadService.upload(request.getInputStream()));
+    }
+
+    @PostMapping("/async")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public GradeIngestionTicketResponse enqueueGrades(@Valid @RequestBody GradeBatchRequest request) {
+        return gradeIngestionQueue.submit(request);
+    }
+
+    @GetMapping("/async/metrics")
+    public GradeIngestionMetricsResponse ingestionMetrics() {
+        return gradeIngestionQueue.getMetrics();
+    }
+
+    @GetMapping("/async/{token}")
+    public GradeIngestionTicketResponse ingestionStatus(@PathVariable String token,
+                                                       @RequestParam(defaultValue = "0") long waitMs) {
+        return gradeIngestionQueue.getTicket(token, waitMs);
+    }
 }
@@ -3,10 +3,21 @@ package com.sara.tfgdam.controller;
 import com.sara.tfgdam.dto.CreateModuleRequest;
 import com.sara.tfgdam.dto.CreateRARequest;
 import com.sara.tfgdam.dto.CreateUTRequest;
+import com.sara.tfgdam.dto.EvaluationClosureResponse;
 import com.sara.tfgdam.dto.ImportRAsConfirmRequest;
+import com.sara.tfgdam.dto.GradeSimulationRequest;
+import com.sara.tfgdam.dto.GradeSimulationResponse;
+import com.sara.tfgdam.dto.ModuleDashboardResponse;
 import com.sara.tfgdam.dto.ModuleEvaluationReportResponse;
 import com.sara.tfgdam.dto.ModuleFinalReportResponse;
+import com.sara.tfgdam.dto.ModuleGradeChangesResponse;
+import com.sara.tfgdam.dto.ModuleMinimumGradesResponse;
 import com.sara.tfgdam.dto.ModulePreviewResponse;
+import com.sara.tfgdam.dto.ModuleReadinessResponse;
+import com.sara.tfgdam.dto.ModuleSensitivityResponse;
+import com.sara.tfgdam.dto.ModuleStatisticsResponse;
+import com.sara.tfgdam.dto.ModuleViolationsResponse;
+import com.sara.tfgdam.dto.ModuleStudentReportsResponse;
 import com.sara.tfgdam.dto.ModuleResponse;
 import com.sara.tfgdam.dto.PatchUTRALinkRequest;
 import com.sara.tfgdam.dto.RAResponse;
@@ -16,11 +27,21 @@ import com.sara.tfgdam.dto.UpdateUTRALinkRequest;
 import com.sara.tfgdam.dto.UpsertUTRALinkRequest;
 import com.sara.tfgdam.mapper.DtoMapper;
 import com.sara.tfgdam.service.CalculationService;
+import com.sara.tfgdam.service.EvaluationClosureService;
+import com.sara.tfgdam.service.GradeChangeService;
+import com.sara.tfgdam.service.GradeSensitivityService;
+import com.sara.tfgdam.service.MinimumGradeService;
 import com.sara.tfgdam.service.ModuleSetupService;
 import com.sara.tfgdam.service.ModulePreviewService;
+import com.sara.tfgdam.service.ModuleReadinessService;
+import com.sara.tfgdam.service.ModuleStatisticsService;
+import com.sara.tfgdam.service.ReportStreamService;
+import com.sara.tfgdam.service.StudentResultService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -30,8 +51,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -43,7 +67,16 @@ public class ModuleController {
 
     private final ModuleSetupService moduleSetupService;
     private final ModulePreviewService modulePreviewService;
+    private final ModuleReadinessService moduleReadinessService;
+    private final StudentResultService studentResultService;
     private final CalculationService calculationService;
+    private final MinimumGradeService minimumGradeService;
+    private final EvaluationClosureService evaluationClosureService;
+    private final GradeSensitivityService gradeSensitivityService;
+    private final ModuleStatisticsService moduleStatisticsService;
+    private final GradeChangeService gradeChangeService;
+    private final ModuleETagSupport moduleETagSupport;
+    private final ReportStreamService reportStreamService;
     private final DtoMapper mapper;
 
     @PostMapping
@@ -113,17 +146,121 @@ public class ModuleController {
     }
 
     @GetMapping("/{id}/reports/evaluation/{n}")
-    public ModuleEvaluationReportResponse moduleEvaluationReport(@PathVariable Long id, @PathVariable Integer n) {
-        return calculationService.getModuleEvaluationReport(id, n);
+    public ResponseEntity<ModuleEvaluationReportResponse> moduleEvaluationReport(@PathVariable Long id,
+                                                                                 @PathVariable Integer n,
+                                                                                 WebRequest request) {
+        return moduleETagSupport.conditional(id, request, () -> studentResultService.getModuleEvaluationReport(id, n));
+    }
+
+    @GetMapping("/{id}/evaluations/closures")
+    public List<EvaluationClosureResponse> evaluationClosures(@PathVariable Long id) {
+        return evaluationClosureService.getClosures(id).stream()
+                .map(mapper::toEvaluationClosureResponse)
+                .toList();
+    }
+
+    @PostMapping("/{id}/evaluations/{n}/close")
+    @ResponseStatus(HttpStatus.CREATED)
+    public EvaluationClosureResponse closeEvaluation(@PathVariable Long id, @PathVariable Integer n) {
+        return mapper.toEvaluationClosureResponse(evaluationClosureService.closePeriod(id, n));
+    }
+
+    @DeleteMapping("/{id}/evaluations/{n}/close")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PreAuthorize("hasAnyRole('DIRECTOR','SUPERADMIN')")
+    public void reopenEvaluation(@PathVariable Long id, @PathVariable Integer n) {
+        evaluationClosureService.reopenPeriod(id, n);
     }
 
     @GetMapping("/{id}/reports/final")
-    public ModuleFinalReportResponse moduleFinalReport(@PathVariable Long id) {
-        return calculationService.getModuleFinalReport(id);
+    public ResponseEntity<ModuleFinalReportResponse> moduleFinalReport(@PathVariable Long id, WebRequest request) {
+        return moduleETagSupport.conditional(id, request, () -> studentResultService.getModuleFinalReport(id));
+    }
+
+    @GetMapping("/{id}/reports/evaluation/{n}/stream")
+    public ResponseEntity<StreamingResponseBody> streamModuleEvaluationReport(@PathVariable Long id, @PathVariable Integer n) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(reportStreamService.streamModuleEvaluationReport(id, n));
+    }
+
+    @GetMapping("/{id}/reports/final/stream")
+    public ResponseEntity<StreamingResponseBody> streamModuleFinalReport(@PathVariable Long id) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(reportStreamService.streamModuleFinalReport(id));
+    }
+
+    @GetMapping("/{id}/reports/students")
+    public ResponseEntity<ModuleStudentReportsResponse> studentReports(@PathVariable Long id,
+                                                                       @RequestParam(required = false) List<Long> studentIds,
+                                                                       WebRequest request) {
+        studentResultService.checkStudentsBelongToModule(id, studentIds);
+        return moduleETagSupport.conditional(id, request, () -> studentResultService.getStudentReports(id, studentIds));
+    }
+
+    @GetMapping("/{id}/reports/students/stream")
+    public ResponseEntity<StreamingResponseBody> streamStudentReports(@PathVariable Long id,
+                                                                      @RequestParam(required = false) List<Long> studentIds) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(reportStreamService.streamStudentReports(id, studentIds));
+    }
+
+    @PostMapping("/{id}/simulations")
+    public GradeSimulationResponse simulateGrades(@PathVariable Long id,
+                                                  @Valid @RequestBody GradeSimulationRequest request) {
+        return calculationService.simulateGrades(id, request);
+    }
+
+    @GetMapping("/{id}/reports/final/estimate")
+    public ModuleFinalReportResponse estimateFinalReport(@PathVariable Long id) {
+        return gradeSensitivityService.estimateModuleFinalReport(id);
+    }
+
+    @GetMapping("/{id}/statistics")
+    public ResponseEntity<ModuleStatisticsResponse> getStatistics(@PathVariable Long id, WebRequest request) {
+        return moduleETagSupport.conditional(id, request, () -> moduleStatisticsService.getStatistics(id));
+    }
+
+    @GetMapping("/{id}/sensitivity")
+    public ModuleSensitivityResponse getSensitivity(@PathVariable Long id) {
+        return gradeSensitivityService.getSensitivity(id);
+    }
+
+    @GetMapping("/{id}/minimum-grades")
+    public ModuleMinimumGradesResponse getMinimumGrades(@PathVariable Long id,
+                                                        @RequestParam(required = false) Long studentId) {
+        return minimumGradeService.getMinimumGrades(id, studentId);
+    }
+
+    @GetMapping("/{id}/dashboard")
+    public ResponseEntity<ModuleDashboardResponse> moduleDashboard(@PathVariable Long id,
+                                                                   @RequestParam(defaultValue = "false") boolean includePreview,
+                                                                   WebRequest request) {
+        return moduleETagSupport.conditional(id, request, () -> studentResultService.getModuleDashboard(id, includePreview));
+    }
+
+    @GetMapping("/{id}/readiness")
+    public ModuleReadinessResponse moduleReadiness(@PathVariable Long id) {
+        return moduleReadinessService.getReadiness(id);
+    }
+
+    @GetMapping("/{id}/violations")
+    public ModuleViolationsResponse moduleViolations(@PathVariable Long id) {
+        return moduleReadinessService.getViolations(id);
     }
 
     @GetMapping("/{id}/preview")
-    public ModulePreviewResponse modulePreview(@PathVariable Long id) {
-        return modulePreviewService.getPreview(id);
+    public ResponseEntity<ModulePreviewResponse> modulePreview(@PathVariable Long id, WebRequest request) {
+        return moduleETagSupport.conditional(id, request, () -> modulePreviewService.getPreview(id));
+    }
+
+    @GetMapping("/{id}/grades/changes")
+    public ResponseEntity<ModuleGradeChangesResponse> gradeChanges(@PathVariable Long id,
+                                                                   @RequestParam(defaultValue = "0") long since,
+                                                                   @RequestParam(defaultValue = "1000") int limit,
+                                                                   WebRequest request) {
+        return moduleETagSupport.conditional(id, request, () -> gradeChangeService.getChanges(id, since, limit));
     }
 }
@@ -0,0 +1,29 @@
+package com.sara.tfgdam.controller;
+
+import com.sara.tfgdam.service.ModuleVersionTracker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+@Component
+@RequiredArgsConstructor
+public class ModuleETagSupport {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final ModuleVersionTracker moduleVersionTracker;
+
+    // The tag is taken before the body is built, so a body is never older than the tag sent with it.
+    // checkNotModified also writes the ETag header on both outcomes.
+    public <T> ResponseEntity<T> conditional(Long moduleId, WebRequest request, Supplier<T> body) {
+        if (request.checkNotModified(moduleVersionTracker.moduleETag(moduleId))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(body.get());
+    }
+}
@@ -0,0 +1,25 @@
+package com.sara.tfgdam.controller;
+
+import com.sara.tfgdam.dto.ModuleBatchReportResponse;
+import com.sara.tfgdam.service.ModuleBatchReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/reports")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('TEACHER','DIRECTOR','SUPERADMIN')")
+public class ReportController {
+
+    private final ModuleBatchReportService moduleBatchReportService;
+
+    @GetMapping("/final")
+    public ModuleBatchReportResponse finalReports(@RequestParam(required = false) String academicYear,
+                                                  @RequestParam(required = false) Long teacherId) {
+        return moduleBatchReportService.getFinalReports(academicYear, teacherId);
+    }
+}
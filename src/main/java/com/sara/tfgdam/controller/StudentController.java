@@ -4,12 +4,13 @@ import com.sara.tfgdam.dto.CreateStudentRequest;
 import com.sara.tfgdam.dto.StudentReportResponse;
 import com.sara.tfgdam.dto.StudentResponse;
 import com.sara.tfgdam.mapper.DtoMapper;
-import com.sara.tfgdam.service.CalculationService;
 import com.sara.tfgdam.service.ModuleSetupService;
+import com.sara.tfgdam.service.StudentResultService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,6 +21,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/students")
@@ -29,8 +33,9 @@ import org.springframework.web.bind.annotation.RestController;
 public class StudentController {
 
     private final ModuleSetupService moduleSetupService;
-    private final CalculationService calculationService;
+    private final StudentResultService studentResultService;
     private final DtoMapper mapper;
+    private final ModuleETagSupport moduleETagSupport;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -39,8 +44,10 @@ public class StudentController {
     }
 
     @GetMapping("/{id}/report")
-    public StudentReportResponse getStudentReport(@PathVariable Long id,
-                                                  @RequestParam @NotNull Long moduleId) {
-        return calculationService.getStudentReport(id, moduleId);
+    public ResponseEntity<StudentReportResponse> getStudentReport(@PathVariable Long id,
+                                                                  @RequestParam @NotNull Long moduleId,
+                                                                  WebRequest request) {
+        studentResultService.checkStudentsBelongToModule(moduleId, List.of(id));
+        return moduleETagSupport.conditional(moduleId, request, () -> studentResultService.getStudentReport(id, moduleId));
     }
 }
@@ -0,0 +1,51 @@
+package com.sara.tfgdam.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+
+@Entity
+@Table(
+        name = "evaluation_period_closures",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_closure_module_period", columnNames = {"module_id", "evaluation_period"})
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EvaluationPeriodClosure {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "module_id", nullable = false)
+    private CourseModule module;
+
+    @Column(name = "evaluation_period", nullable = false)
+    private Integer evaluationPeriod;
+
+    @Column(name = "closed_at", nullable = false)
+    private OffsetDateTime closedAt;
+
+    @Column(name = "closed_by")
+    private String closedBy;
+}
@@ -0,0 +1,55 @@
+package com.sara.tfgdam.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Entity
+@Table(
+        name = "evaluation_period_snapshots",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_snapshot_closure_student", columnNames = {"closure_id", "student_id"})
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EvaluationPeriodSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "closure_id", nullable = false)
+    private EvaluationPeriodClosure closure;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    private Student student;
+
+    @Column(name = "numeric_grade", nullable = false, precision = 6, scale = 4)
+    private BigDecimal numericGrade;
+
+    @Column(name = "suggested_bulletin_grade", nullable = false)
+    private Integer suggestedBulletinGrade;
+
+    @Column(name = "all_ras_passed", nullable = false)
+    private Boolean allRAsPassed;
+}
@@ -0,0 +1,62 @@
+package com.sara.tfgdam.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+// Append-only; plain ids so the log outlives deleted students and instruments.
+@Entity
+@Table(
+        name = "grade_changes",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_grade_change_module_sequence", columnNames = {"module_id", "change_sequence"})
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradeChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "module_id", nullable = false)
+    private Long moduleId;
+
+    // Per module, gap-free and in commit order. The column name avoids the SQL keyword SEQUENCE.
+    @Column(name = "change_sequence", nullable = false)
+    private Long sequence;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "instrument_id", nullable = false)
+    private Long instrumentId;
+
+    @Column(name = "old_value", precision = 4, scale = 2)
+    private BigDecimal oldValue;
+
+    @Column(name = "new_value", nullable = false, precision = 4, scale = 2)
+    private BigDecimal newValue;
+
+    @Column(name = "changed_by", nullable = false)
+    private String changedBy;
+
+    @Column(name = "changed_at", nullable = false)
+    private OffsetDateTime changedAt;
+}
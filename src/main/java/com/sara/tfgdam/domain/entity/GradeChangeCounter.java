@@ -0,0 +1,30 @@
+package com.sara.tfgdam.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// One row per module, locked by every grade write of the module; a plain id like GradeChange, so
+// the lock never touches course_modules and structure edits are not held back by grade writes.
+@Entity
+@Table(name = "grade_change_counters")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GradeChangeCounter {
+
+    @Id
+    @Column(name = "module_id")
+    private Long moduleId;
+
+    @Column(name = "last_sequence", nullable = false)
+    private long lastSequence;
+}
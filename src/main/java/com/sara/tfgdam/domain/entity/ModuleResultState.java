@@ -0,0 +1,36 @@
+package com.sara.tfgdam.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+
+@Entity
+@Table(name = "module_result_states")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ModuleResultState {
+
+    @Id
+    @Column(name = "module_id")
+    private Long moduleId;
+
+    @Column(nullable = false)
+    private boolean stale;
+
+    @Column(name = "stale_since")
+    private OffsetDateTime staleSince;
+
+    @Column(name = "refreshed_at")
+    private OffsetDateTime refreshedAt;
+}
@@ -0,0 +1,63 @@
+package com.sara.tfgdam.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+@Entity
+@Table(
+        name = "student_module_results",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_student_result", columnNames = {"student_id", "result_type", "reference_id"})
+        },
+        indexes = {
+                @Index(name = "idx_student_result_module_type", columnList = "module_id, result_type, reference_id")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StudentModuleResult {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "module_id", nullable = false)
+    private Long moduleId;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "result_type", nullable = false, length = 20)
+    private StudentResultType resultType;
+
+    // Activity id, UT-RA link id, RA id or evaluation period depending on resultType; 0 for FINAL.
+    @Column(name = "reference_id", nullable = false)
+    private Long referenceId;
+
+    @Column(nullable = false, precision = 6, scale = 4)
+    private BigDecimal grade;
+
+    @Column(name = "suggested_bulletin_grade")
+    private Integer suggestedBulletinGrade;
+
+    @Column(name = "all_ras_passed")
+    private Boolean allRAsPassed;
+}
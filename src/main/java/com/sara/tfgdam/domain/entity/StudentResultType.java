@@ -0,0 +1,9 @@
+package com.sara.tfgdam.domain.entity;
+
+public enum StudentResultType {
+    ACTIVITY,
+    UT_RA,
+    RA,
+    EVALUATION,
+    FINAL
+}
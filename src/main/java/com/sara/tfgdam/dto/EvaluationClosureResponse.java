@@ -0,0 +1,15 @@
+package com.sara.tfgdam.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.OffsetDateTime;
+
+@Value
+@Builder
+public class EvaluationClosureResponse {
+    Long moduleId;
+    Integer evaluationPeriod;
+    OffsetDateTime closedAt;
+    String closedBy;
+}
@@ -0,0 +1,15 @@
+package com.sara.tfgdam.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class GradeBulkRowResult {
+    long line;
+    String status;
+    Long studentId;
+    Long instrumentId;
+    String code;
+    String message;
+}
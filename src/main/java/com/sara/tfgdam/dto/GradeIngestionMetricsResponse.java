@@ -0,0 +1,22 @@
+package com.sara.tfgdam.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+@Value
+@Builder
+public class GradeIngestionMetricsResponse {
+    long queueDepth;
+    int pendingModules;
+    long submittedEntries;
+    long flushedEntries;
+    long writtenEntries;
+    BigDecimal coalescingRatio;
+    long flushCount;
+    long failedFlushes;
+    long lastFlushLatencyMs;
+    long averageFlushLatencyMs;
+    long maxFlushLatencyMs;
+}
@@ -0,0 +1,19 @@
+package com.sara.tfgdam.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Value
+@Builder
+public class GradeIngestionTicketResponse {
+    String token;
+    String status;
+    int entryCount;
+    List<Long> moduleIds;
+    OffsetDateTime submittedAt;
+    OffsetDateTime completedAt;
+    String error;
+}
@@ -0,0 +1,24 @@
+package com.sara.tfgdam.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+public class GradeSimulationRequest {
+
+    private List<Long> studentIds;
+
+    @NotNull(message = "grades is required")
+    private Map<Long,
+            @NotNull(message = "gradeValue is required")
+            @DecimalMin(value = "0.00", message = "gradeValue must be >= 0")
+            @DecimalMax(value = "10.00", message = "gradeValue must be <= 10") BigDecimal> grades;
+}
@@ -0,0 +1,20 @@
+package com.sara.tfgdam.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Value
+@Builder
+public class GradeStatisticsDto {
+    long count;
+    BigDecimal mean;
+    BigDecimal median;
+    BigDecimal standardDeviation;
+    BigDecimal min;
+    BigDecimal max;
+    BigDecimal passPercent;
+    List<Long> histogram;
+}
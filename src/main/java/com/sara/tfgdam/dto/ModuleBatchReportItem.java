@@ -0,0 +1,16 @@
+package com.sara.tfgdam.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+public class ModuleBatchReportItem {
+    Long moduleId;
+    String moduleName;
+    String academicYear;
+    List<StudentFinalReportRow> students;
+    String error;
+}
@@ -0,0 +1,14 @@
+package com.sara.tfgdam.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+
+@Value
+@Builder
+public class ModuleBatchReportResponse {
+    String academicYear;
+    Long teacherId;
+    Map<Long, ModuleBatchReportItem> modules;
+}
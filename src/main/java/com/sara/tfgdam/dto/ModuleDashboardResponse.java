@@ -0,0 +1,16 @@
+package com.sara.tfgdam.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+public class ModuleDashboardResponse {
+    Long moduleId;
+    List<ModuleEvaluationReportResponse> evaluationReports;
+    ModuleFinalReportResponse finalReport;
+    ModulePreviewResponse preview;
+    ReportFreshnessDto freshness;
+}
@@ -11,4 +11,5 @@ public class ModuleEvaluationReportResponse {
     Long moduleId;
     Integer evaluationPeriod;
     List<StudentEvaluationReportRow> students;
+    ReportFreshnessDto freshness;
 }
@@ -10,4 +10,5 @@ import java.util.List;
 public class ModuleFinalReportResponse {
     Long moduleId;
     List<StudentFinalReportRow> students;
+    ReportFreshnessDto freshness;
 }
@@ -0,0 +1,30 @@
+package com.sara.tfgdam.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Value
+@Builder
+public class ModuleGradeChangesResponse {
+    Long moduleId;
+    long since;
+    long nextSince;
+    boolean hasMore;
+    List<ChangeItem> changes;
+
+    @Value
+    @Builder
+    public static class ChangeItem {
+        long sequence;
+        Long studentId;
+        Long instrumentId;
+        BigDecimal oldValue;
+        BigDecimal newValue;
+        String changedBy;
+        OffsetDateTime changedAt;
+    }
+}
@@ -0,0 +1,44 @@
+package com.sara.tfgdam.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Value
+@Builder
+public class ModuleMinimumGradesResponse {
+    Long moduleId;
+    BigDecimal passGrade;
+    List<StudentItem> students;
+
+    @Value
+    @Builder
+    public static class StudentItem {
+        Long studentId;
+        String studentCode;
+        String studentName;
+        int pendingInstruments;
+        List<RAItem> ras;
+        List<EvaluationItem> evaluations;
+    }
+
+    @Value
+    @Builder
+    public static class RAItem {
+        Long raId;
+        String raCode;
+        String status;
+        BigDecimal requiredGrade;
+    }
+
+    @Value
+    @Builder
+    public static class EvaluationItem {
+        Integer evaluationPeriod;
+        String status;
+        BigDecimal requiredGrade;
+        List<RAItem> ras;
+    }
+}
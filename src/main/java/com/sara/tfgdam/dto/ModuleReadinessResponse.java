@@ -0,0 +1,16 @@
+package com.sara.tfgdam.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Value
+@Builder
+public class ModuleReadinessResponse {
+    Long moduleId;
+    boolean ready;
+    List<String> violations;
+    OffsetDateTime checkedAt;
+}
@@ -0,0 +1,27 @@
+package com.sara.tfgdam.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Value
+@Builder
+public class ModuleSensitivityResponse {
+    Long moduleId;
+    List<InstrumentItem> instruments;
+
+    @Value
+    @Builder
+    public static class InstrumentItem {
+        Long instrumentId;
+        String instrumentName;
+        Long activityId;
+        String activityName;
+        Integer evaluationPeriod;
+        BigDecimal weightPercent;
+        BigDecimal finalCoefficient;
+        BigDecimal evaluationCoefficient;
+    }
+}
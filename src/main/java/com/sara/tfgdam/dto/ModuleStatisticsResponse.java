@@ -0,0 +1,42 @@
+package com.sara.tfgdam.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+public class ModuleStatisticsResponse {
+    Long moduleId;
+    int studentCount;
+    GradeStatisticsDto finalGrade;
+    List<EvaluationItem> evaluations;
+    List<RAItem> ras;
+    List<InstrumentItem> instruments;
+
+    @Value
+    @Builder
+    public static class EvaluationItem {
+        Integer evaluationPeriod;
+        GradeStatisticsDto statistics;
+    }
+
+    @Value
+    @Builder
+    public static class RAItem {
+        Long raId;
+        String raCode;
+        String raName;
+        GradeStatisticsDto statistics;
+    }
+
+    @Value
+    @Builder
+    public static class InstrumentItem {
+        Long instrumentId;
+        String instrumentName;
+        Long activityId;
+        GradeStatisticsDto statistics;
+    }
+}
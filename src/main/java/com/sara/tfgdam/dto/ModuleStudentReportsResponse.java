@@ -0,0 +1,13 @@
+package com.sara.tfgdam.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+public class ModuleStudentReportsResponse {
+    Long moduleId;
+    List<StudentReportResponse> students;
+}
@@ -0,0 +1,26 @@
+package com.sara.tfgdam.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Value
+@Builder
+public class ModuleViolationsResponse {
+    Long moduleId;
+    boolean ready;
+    List<ViolationItem> violations;
+
+    @Value
+    @Builder
+    public static class ViolationItem {
+        String code;
+        boolean blocking;
+        String referenceType;
+        Long referenceId;
+        BigDecimal current;
+        String message;
+    }
+}
@@ -0,0 +1,15 @@
+package com.sara.tfgdam.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.OffsetDateTime;
+
+@Value
+@Builder
+public class ReportFreshnessDto {
+    String source;
+    boolean stale;
+    OffsetDateTime staleSince;
+    OffsetDateTime refreshedAt;
+}
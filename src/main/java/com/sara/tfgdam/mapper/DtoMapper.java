@@ -1,6 +1,7 @@
 package com.sara.tfgdam.mapper;
 
 import com.sara.tfgdam.domain.entity.CourseModule;
+import com.sara.tfgdam.domain.entity.EvaluationPeriodClosure;
 import com.sara.tfgdam.domain.entity.Grade;
 import com.sara.tfgdam.domain.entity.ImportJob;
 import com.sara.tfgdam.domain.entity.Instrument;
@@ -10,6 +11,7 @@ import com.sara.tfgdam.domain.entity.Teacher;
 import com.sara.tfgdam.domain.entity.TeachingUnitUT;
 import com.sara.tfgdam.domain.entity.UTRALink;
 import com.sara.tfgdam.domain.entity.UserAccount;
+import com.sara.tfgdam.dto.EvaluationClosureResponse;
 import com.sara.tfgdam.dto.GradeResponse;
 import com.sara.tfgdam.dto.ImportJobResponse;
 import com.sara.tfgdam.dto.InstrumentResponse;
@@ -99,6 +101,15 @@ public class DtoMapper {
                 .build();
     }
 
+    public EvaluationClosureResponse toEvaluationClosureResponse(EvaluationPeriodClosure closure) {
+        return EvaluationClosureResponse.builder()
+                .moduleId(closure.getModule().getId())
+                .evaluationPeriod(closure.getEvaluationPeriod())
+                .closedAt(closure.getClosedAt())
+                .closedBy(closure.getClosedBy())
+                .build();
+    }
+
     public ImportJobResponse toImportJobResponse(ImportJob job) {
         return ImportJobResponse.builder()
                 .id(job.getId())
@@ -11,4 +11,6 @@ public interface ActivityRepository extends JpaRepository<Activity, Long> {
     Optional<Activity> findByTeachingUnitId(Long teachingUnitId);
 
     List<Activity> findByModuleId(Long moduleId);
+
+    List<Activity> findByModuleIdIn(List<Long> moduleIds);
 }
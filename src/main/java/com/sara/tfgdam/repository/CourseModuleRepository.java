@@ -3,5 +3,13 @@ package com.sara.tfgdam.repository;
 import com.sara.tfgdam.domain.entity.CourseModule;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 public interface CourseModuleRepository extends JpaRepository<CourseModule, Long> {
+
+    List<CourseModule> findByAcademicYear(String academicYear);
+
+    List<CourseModule> findByTeacherId(Long teacherId);
+
+    List<CourseModule> findByAcademicYearAndTeacherId(String academicYear, Long teacherId);
 }
@@ -0,0 +1,16 @@
+package com.sara.tfgdam.repository;
+
+import com.sara.tfgdam.domain.entity.EvaluationPeriodClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface EvaluationPeriodClosureRepository extends JpaRepository<EvaluationPeriodClosure, Long> {
+
+    Optional<EvaluationPeriodClosure> findByModuleIdAndEvaluationPeriod(Long moduleId, Integer evaluationPeriod);
+
+    List<EvaluationPeriodClosure> findByModuleIdOrderByEvaluationPeriod(Long moduleId);
+
+    void deleteByModuleId(Long moduleId);
+}
@@ -0,0 +1,43 @@
+package com.sara.tfgdam.repository;
+
+import com.sara.tfgdam.domain.entity.EvaluationPeriodSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface EvaluationPeriodSnapshotRepository extends JpaRepository<EvaluationPeriodSnapshot, Long> {
+
+    @Query("""
+            select s from EvaluationPeriodSnapshot s
+            join fetch s.student st
+            where s.closure.id = :closureId
+            order by st.studentCode
+            """)
+    List<EvaluationPeriodSnapshot> findByClosureIdWithStudent(@Param("closureId") Long closureId);
+
+    @Query("""
+            select s from EvaluationPeriodSnapshot s
+            join fetch s.closure c
+            where c.module.id = :moduleId
+            """)
+    List<EvaluationPeriodSnapshot> findByModuleIdWithClosure(@Param("moduleId") Long moduleId);
+
+    @Query("""
+            select s from EvaluationPeriodSnapshot s
+            join fetch s.closure c
+            where c.module.id = :moduleId and s.student.id = :studentId
+            """)
+    List<EvaluationPeriodSnapshot> findByModuleIdAndStudentId(@Param("moduleId") Long moduleId,
+                                                             @Param("studentId") Long studentId);
+
+    @Modifying
+    @Query("delete from EvaluationPeriodSnapshot s where s.closure.id = :closureId")
+    void deleteByClosureId(@Param("closureId") Long closureId);
+
+    @Modifying
+    @Query("delete from EvaluationPeriodSnapshot s where s.closure.id in (select c.id from EvaluationPeriodClosure c where c.module.id = :moduleId)")
+    void deleteByModuleId(@Param("moduleId") Long moduleId);
+}
@@ -0,0 +1,12 @@
+package com.sara.tfgdam.repository;
+
+import com.sara.tfgdam.domain.entity.GradeChange;
+
+import java.util.Collection;
+
+public interface GradeBulkRepository {
+
+    int upsertGradeValues(Collection<GradeValue> grades);
+
+    int insertGradeChanges(Collection<GradeChange> changes);
+}
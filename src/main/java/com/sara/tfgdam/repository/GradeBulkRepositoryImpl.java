@@ -0,0 +1,92 @@
+package com.sara.tfgdam.repository;
+
+import com.sara.tfgdam.domain.entity.GradeChange;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+// Multi-row upsert on uk_student_instrument, so a batch needs no read-before-write and is not
+// held back by IDENTITY ids. MySQL (8.0.19+, row alias form) gets ON DUPLICATE KEY UPDATE;
+// other databases, H2 in the tests, get MERGE ... KEY.
+class GradeBulkRepositoryImpl implements GradeBulkRepository {
+
+    private static final String MYSQL_UPSERT =
+            "insert into grades (student_id, instrument_id, grade_value) values %s as new"
+                    + " on duplicate key update grade_value = new.grade_value";
+    private static final String MERGE_UPSERT =
+            "merge into grades (student_id, instrument_id, grade_value) key (student_id, instrument_id) values %s";
+    private static final String INSERT_CHANGES =
+            "insert into grade_changes (module_id, change_sequence, student_id, instrument_id, old_value, new_value, changed_by, changed_at)"
+                    + " values %s";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int chunkSize;
+    private volatile String upsertTemplate;
+
+    GradeBulkRepositoryImpl(@Value("${sara.grades.upsert-chunk-size:500}") int chunkSize) {
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    @Override
+    public int upsertGradeValues(Collection<GradeValue> grades) {
+        return executeChunked(upsertTemplate(), 3, grades, row -> new Object[]{
+                row.studentId(),
+                row.instrumentId(),
+                row.gradeValue()
+        });
+    }
+
+    // The change log is append-only, so a plain multi-row insert works on every database.
+    @Override
+    public int insertGradeChanges(Collection<GradeChange> changes) {
+        return executeChunked(INSERT_CHANGES, 8, changes, change -> new Object[]{
+                change.getModuleId(),
+                change.getSequence(),
+                change.getStudentId(),
+                change.getInstrumentId(),
+                change.getOldValue(),
+                change.getNewValue(),
+                change.getChangedBy(),
+                change.getChangedAt()
+        });
+    }
+
+    private <T> int executeChunked(String template, int columnCount, Collection<T> rows, Function<T, Object[]> columns) {
+        List<T> pending = new ArrayList<>(rows);
+        String placeholders = "(" + String.join(", ", Collections.nCopies(columnCount, "?")) + ")";
+        int affected = 0;
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<T> chunk = pending.subList(from, Math.min(pending.size(), from + chunkSize));
+
+            Query query = entityManager.createNativeQuery(
+                    template.formatted(String.join(", ", Collections.nCopies(chunk.size(), placeholders))));
+            int position = 1;
+            for (T row : chunk) {
+                for (Object value : columns.apply(row)) {
+                    query.setParameter(position++, value);
+                }
+            }
+            affected += query.executeUpdate();
+        }
+        return affected;
+    }
+
+    private String upsertTemplate() {
+        if (upsertTemplate == null) {
+            String product = entityManager.unwrap(Session.class)
+                    .doReturningWork(connection -> connection.getMetaData().getDatabaseProductName());
+            upsertTemplate = "MySQL".equalsIgnoreCase(product) ? MYSQL_UPSERT : MERGE_UPSERT;
+        }
+        return upsertTemplate;
+    }
+}
@@ -0,0 +1,51 @@
+package com.sara.tfgdam.repository;
+
+import com.sara.tfgdam.domain.entity.GradeChangeCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface GradeChangeCounterRepository extends JpaRepository<GradeChangeCounter, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select c
+            from GradeChangeCounter c
+            where c.moduleId in (select s.module.id from Student s where s.id in :studentIds)
+            order by c.moduleId
+            """)
+    List<GradeChangeCounter> findAllForUpdateByStudentIdIn(@Param("studentIds") Collection<Long> studentIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from GradeChangeCounter c where c.moduleId = :moduleId")
+    Optional<GradeChangeCounter> findForUpdate(@Param("moduleId") Long moduleId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select c
+            from GradeChangeCounter c
+            where c.moduleId in (select i.activity.module.id from Instrument i where i.id = :instrumentId)
+            """)
+    Optional<GradeChangeCounter> findForUpdateByInstrumentId(@Param("instrumentId") Long instrumentId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select c
+            from GradeChangeCounter c
+            where c.moduleId in (select u.module.id from TeachingUnitUT u where u.id = :utId)
+            """)
+    Optional<GradeChangeCounter> findForUpdateByUtId(@Param("utId") Long utId);
+
+    @Query("""
+            select m.id
+            from CourseModule m
+            where not exists (select c from GradeChangeCounter c where c.moduleId = m.id)
+            """)
+    List<Long> findModuleIdsWithoutCounter();
+}
@@ -0,0 +1,22 @@
+package com.sara.tfgdam.repository;
+
+import com.sara.tfgdam.domain.entity.GradeChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface GradeChangeRepository extends JpaRepository<GradeChange, Long> {
+
+    @Query("select coalesce(max(c.sequence), 0) from GradeChange c where c.moduleId = :moduleId")
+    long findLastSequence(@Param("moduleId") Long moduleId);
+
+    List<GradeChange> findByModuleIdAndSequenceGreaterThanOrderBySequence(Long moduleId, Long sequence, Limit limit);
+
+    @Modifying
+    @Query("delete from GradeChange c where c.moduleId = :moduleId")
+    void deleteByModuleId(@Param("moduleId") Long moduleId);
+}
@@ -2,17 +2,42 @@ package com.sara.tfgdam.repository;
 
 import com.sara.tfgdam.domain.entity.Grade;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
-public interface GradeRepository extends JpaRepository<Grade, Long> {
+public interface GradeRepository extends JpaRepository<Grade, Long>, GradeBulkRepository {
 
     List<Grade> findByStudentId(Long studentId);
 
     List<Grade> findByStudentIdIn(List<Long> studentIds);
 
-    Optional<Grade> findByStudentIdAndInstrumentId(Long studentId, Long instrumentId);
+    @Query("""
+            select new com.sara.tfgdam.repository.GradeValue(g.student.id, g.instrument.id, g.gradeValue)
+            from Grade g
+            where g.student.id in :studentIds
+            """)
+    List<GradeValue> findValuesByStudentIdIn(@Param("studentIds") Collection<Long> studentIds);
+
+    @Query("""
+            select new com.sara.tfgdam.repository.GradeValue(g.student.id, g.instrument.id, g.gradeValue)
+            from Grade g
+            where g.student.id in :studentIds
+              and g.instrument.id in :instrumentIds
+            """)
+    List<GradeValue> findValuesByStudentIdInAndInstrumentIdIn(@Param("studentIds") Collection<Long> studentIds,
+                                                              @Param("instrumentIds") Collection<Long> instrumentIds);
+
+    @Query("""
+            select g
+            from Grade g
+            where g.student.id in :studentIds
+              and g.instrument.id in :instrumentIds
+            """)
+    List<Grade> findByStudentIdInAndInstrumentIdIn(@Param("studentIds") Collection<Long> studentIds,
+                                                   @Param("instrumentIds") Collection<Long> instrumentIds);
 
     void deleteByInstrumentId(Long instrumentId);
 
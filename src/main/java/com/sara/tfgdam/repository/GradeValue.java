@@ -0,0 +1,6 @@
+package com.sara.tfgdam.repository;
+
+import java.math.BigDecimal;
+
+public record GradeValue(Long studentId, Long instrumentId, BigDecimal gradeValue) {
+}
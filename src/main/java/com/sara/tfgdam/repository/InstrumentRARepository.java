@@ -2,7 +2,10 @@ package com.sara.tfgdam.repository;
 
 import com.sara.tfgdam.domain.entity.InstrumentRA;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +15,11 @@ public interface InstrumentRARepository extends JpaRepository<InstrumentRA, Long
 
     List<InstrumentRA> findByInstrumentIdIn(List<Long> instrumentIds);
 
+    List<InstrumentRA> findByInstrumentActivityModuleId(Long moduleId);
+
+    @Query("select distinct ir.instrument.id from InstrumentRA ir where ir.instrument.id in :instrumentIds")
+    List<Long> findLinkedInstrumentIds(@Param("instrumentIds") Collection<Long> instrumentIds);
+
     Optional<InstrumentRA> findByInstrumentIdAndLearningOutcomeId(Long instrumentId, Long learningOutcomeId);
 
     void deleteByInstrumentId(Long instrumentId);
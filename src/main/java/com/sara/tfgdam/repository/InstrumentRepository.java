@@ -5,6 +5,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +16,8 @@ public interface InstrumentRepository extends JpaRepository<Instrument, Long> {
 
     List<Instrument> findByActivityIdIn(List<Long> activityIds);
 
+    List<Instrument> findByActivityModuleId(Long moduleId);
+
     @Query("""
             select i
             from Instrument i
@@ -22,4 +26,26 @@ public interface InstrumentRepository extends JpaRepository<Instrument, Long> {
             where i.id = :id
             """)
     Optional<Instrument> findDetailedById(@Param("id") Long id);
+
+    @Query("""
+            select i
+            from Instrument i
+            join fetch i.activity a
+            join fetch a.teachingUnit
+            where i.id in :ids
+            """)
+    List<Instrument> findDetailedByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select sum(i.weightPercent) from Instrument i where i.activity.id = :activityId")
+    BigDecimal sumWeightPercentByActivityId(@Param("activityId") Long activityId);
+
+    @Query("""
+            select new com.sara.tfgdam.repository.WeightTotal(a.id, count(i), sum(i.weightPercent))
+            from Activity a
+            left join Instrument i on i.activity = a
+            where a.module.id = :moduleId
+            group by a.id
+            order by a.id
+            """)
+    List<WeightTotal> findWeightTotalsByModuleId(@Param("moduleId") Long moduleId);
 }
@@ -2,10 +2,28 @@ package com.sara.tfgdam.repository;
 
 import com.sara.tfgdam.domain.entity.LearningOutcomeRA;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 public interface LearningOutcomeRARepository extends JpaRepository<LearningOutcomeRA, Long> {
 
     List<LearningOutcomeRA> findByModuleId(Long moduleId);
+
+    List<LearningOutcomeRA> findByModuleIdIn(List<Long> moduleIds);
+
+    @Query("select sum(r.weightPercent) from LearningOutcomeRA r where r.module.id = :moduleId")
+    BigDecimal sumWeightPercentByModuleId(@Param("moduleId") Long moduleId);
+
+    @Query("""
+            select new com.sara.tfgdam.repository.WeightTotal(m.id, count(r), sum(r.weightPercent))
+            from CourseModule m
+            left join LearningOutcomeRA r on r.module = m
+            where m.id = :moduleId
+            group by m.id
+            """)
+    Optional<WeightTotal> findWeightTotalByModuleId(@Param("moduleId") Long moduleId);
 }
@@ -0,0 +1,17 @@
+package com.sara.tfgdam.repository;
+
+import com.sara.tfgdam.domain.entity.ModuleResultState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ModuleResultStateRepository extends JpaRepository<ModuleResultState, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ModuleResultState s where s.moduleId = :moduleId")
+    Optional<ModuleResultState> findForUpdate(@Param("moduleId") Long moduleId);
+}
@@ -9,5 +9,7 @@ public interface StudentEvaluationOverrideRepository extends JpaRepository<Stude
 
     List<StudentEvaluationOverride> findByStudent_Module_IdAndEvaluationPeriod(Long moduleId, Integer evaluationPeriod);
 
+    List<StudentEvaluationOverride> findByStudent_Module_Id(Long moduleId);
+
     void deleteByStudent_Module_Id(Long moduleId);
 }
@@ -0,0 +1,28 @@
+package com.sara.tfgdam.repository;
+
+import com.sara.tfgdam.domain.entity.StudentModuleResult;
+import com.sara.tfgdam.domain.entity.StudentResultType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface StudentModuleResultRepository extends JpaRepository<StudentModuleResult, Long> {
+
+    List<StudentModuleResult> findByModuleIdAndResultTypeAndReferenceId(Long moduleId,
+                                                                       StudentResultType resultType,
+                                                                       Long referenceId);
+
+    List<StudentModuleResult> findByModuleId(Long moduleId);
+
+    List<StudentModuleResult> findByModuleIdAndResultTypeIn(Long moduleId, Collection<StudentResultType> resultTypes);
+
+    List<StudentModuleResult> findByModuleIdAndStudentIdIn(Long moduleId, Collection<Long> studentIds);
+
+    @Modifying
+    @Query("delete from StudentModuleResult r where r.moduleId = :moduleId")
+    void deleteByModuleId(@Param("moduleId") Long moduleId);
+}
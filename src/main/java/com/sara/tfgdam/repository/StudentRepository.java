@@ -10,5 +10,7 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
 
     List<Student> findByModuleId(Long moduleId);
 
+    List<Student> findByModuleIdIn(List<Long> moduleIds);
+
     Optional<Student> findByModuleIdAndStudentCode(Long moduleId, String studentCode);
 }
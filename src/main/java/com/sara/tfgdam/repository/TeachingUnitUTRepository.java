@@ -9,5 +9,7 @@ public interface TeachingUnitUTRepository extends JpaRepository<TeachingUnitUT,
 
     List<TeachingUnitUT> findByModuleId(Long moduleId);
 
+    List<TeachingUnitUT> findByModuleIdIn(List<Long> moduleIds);
+
     List<TeachingUnitUT> findByModuleIdAndEvaluationPeriod(Long moduleId, Integer evaluationPeriod);
 }
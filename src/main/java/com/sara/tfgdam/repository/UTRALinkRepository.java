@@ -2,7 +2,10 @@ package com.sara.tfgdam.repository;
 
 import com.sara.tfgdam.domain.entity.UTRALink;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,9 +17,24 @@ public interface UTRALinkRepository extends JpaRepository<UTRALink, Long> {
 
     List<UTRALink> findByTeachingUnitIdIn(List<Long> teachingUnitIds);
 
+    List<UTRALink> findByTeachingUnitModuleId(Long moduleId);
+
     Optional<UTRALink> findByTeachingUnitIdAndLearningOutcomeId(Long teachingUnitId, Long learningOutcomeId);
 
     void deleteByLearningOutcomeId(Long learningOutcomeId);
 
     void deleteByTeachingUnitId(Long teachingUnitId);
+
+    @Query("select sum(l.percent) from UTRALink l where l.learningOutcome.id = :learningOutcomeId")
+    BigDecimal sumPercentByLearningOutcomeId(@Param("learningOutcomeId") Long learningOutcomeId);
+
+    @Query("""
+            select new com.sara.tfgdam.repository.RADistributionTotal(r.id, r.code, sum(l.percent))
+            from LearningOutcomeRA r
+            left join UTRALink l on l.learningOutcome = r
+            where r.module.id = :moduleId
+            group by r.id, r.code
+            order by r.id
+            """)
+    List<RADistributionTotal> findDistributionTotalsByModuleId(@Param("moduleId") Long moduleId);
 }
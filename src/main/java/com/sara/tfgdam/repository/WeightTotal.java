@@ -0,0 +1,6 @@
+package com.sara.tfgdam.repository;
+
+import java.math.BigDecimal;
+
+public record WeightTotal(Long id, Long count, BigDecimal total) {
+}
@@ -15,12 +15,16 @@ public class AuthenticatedUserResolver {
     private final UserAccountRepository userAccountRepository;
 
     public UserAccount getCurrentUser() {
+        return userAccountRepository.findByEmailIgnoreCase(getCurrentUsername())
+                .orElseThrow(() -> new ResourceNotFoundException("Authenticated user not found"));
+    }
+
+    // The login email from the token, without loading the account.
+    public String getCurrentUsername() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || authentication.getName() == null) {
             throw new ResourceNotFoundException("Authenticated user not found");
         }
-
-        return userAccountRepository.findByEmailIgnoreCase(authentication.getName())
-                .orElseThrow(() -> new ResourceNotFoundException("Authenticated user not found"));
+        return authentication.getName();
     }
 }
@@ -12,6 +12,9 @@ import com.sara.tfgdam.domain.entity.TeachingUnitUT;
 import com.sara.tfgdam.domain.entity.UTRALink;
 import com.sara.tfgdam.dto.ActivityGradeDto;
 import com.sara.tfgdam.dto.EvaluationGradeDto;
+import com.sara.tfgdam.dto.GradeSimulationRequest;
+import com.sara.tfgdam.dto.GradeSimulationResponse;
+import com.sara.tfgdam.dto.ModuleDashboardResponse;
 import com.sara.tfgdam.dto.ModuleEvaluationReportResponse;
 import com.sara.tfgdam.dto.ModuleFinalReportResponse;
 import com.sara.tfgdam.dto.RAGradeDto;
@@ -23,6 +26,7 @@ import com.sara.tfgdam.exception.ResourceNotFoundException;
 import com.sara.tfgdam.repository.ActivityRepository;
 import com.sara.tfgdam.repository.CourseModuleRepository;
 import com.sara.tfgdam.repository.GradeRepository;
+import com.sara.tfgdam.repository.GradeValue;
 import com.sara.tfgdam.repository.InstrumentRARepository;
 import com.sara.tfgdam.repository.InstrumentRepository;
 import com.sara.tfgdam.repository.LearningOutcomeRARepository;
@@ -30,7 +34,6 @@ import com.sara.tfgdam.repository.StudentRepository;
 import com.sara.tfgdam.repository.StudentEvaluationOverrideRepository;
 import com.sara.tfgdam.repository.TeachingUnitUTRepository;
 import com.sara.tfgdam.repository.UTRALinkRepository;
-import com.sara.tfgdam.validation.ConfigurationValidator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -38,6 +41,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -68,7 +72,10 @@ public class CalculationService {
     private final StudentRepository studentRepository;
     private final StudentEvaluationOverrideRepository studentEvaluationOverrideRepository;
     private final GradeRepository gradeRepository;
-    private final ConfigurationValidator configurationValidator;
+    private final ModuleReadinessService moduleReadinessService;
+    private final ModuleVersionTracker moduleVersionTracker;
+    private final ModuleContextCache moduleContextCache;
+    private final StudentBatchExecutor studentBatchExecutor;
 
     @Transactional(readOnly = true)
     public StudentReportResponse getStudentReport(Long studentId, Long moduleId) {
@@ -84,15 +91,42 @@ public class CalculationService {
         Map<Long, BigDecimal> gradeByInstrumentId = gradeRepository.findByStudentId(studentId).stream()
                 .collect(Collectors.toMap(g -> g.getInstrument().getId(), Grade::getGradeValue));
 
-        StudentComputation computation = computeForStudent(context, gradeByInstrumentId);
+        return toStudentReport(student, moduleId, context, computeForStudent(context, gradeByInstrumentId));
+    }
 
-        return StudentReportResponse.builder()
-                .studentId(student.getId())
+    @Transactional(readOnly = true)
+    public List<StudentReportResponse> getStudentReports(Long moduleId, List<Long> studentIds) {
+        ModuleContext context = buildContext(moduleId);
+        return buildStudentReports(context, moduleId, findModuleStudents(moduleId, studentIds));
+    }
+
+    @Transactional(readOnly = true)
+    public GradeSimulationResponse simulateGrades(Long moduleId, GradeSimulationRequest request) {
+        ModuleContext context = buildContext(moduleId);
+
+        Map<Long, BigDecimal> hypotheticalGrades = request.getGrades();
+        for (Long instrumentId : hypotheticalGrades.keySet()) {
+            if (!context.instrumentById.containsKey(instrumentId)) {
+                throw new BusinessValidationException("Instrument " + instrumentId + " does not belong to moduleId=" + moduleId);
+            }
+        }
+
+        List<Student> students = findModuleStudents(moduleId, request.getStudentIds());
+        Map<Long, Map<Long, BigDecimal>> gradesByStudent = buildGradesByStudent(students);
+
+        List<StudentReportResponse> reports = studentBatchExecutor.map(students, chunk -> {
+            List<StudentReportResponse> chunkReports = new ArrayList<>(chunk.size());
+            for (Student student : chunk) {
+                Map<Long, BigDecimal> gradeByInstrumentId = new HashMap<>(gradesByStudent.getOrDefault(student.getId(), Map.of()));
+                gradeByInstrumentId.putAll(hypotheticalGrades);
+                chunkReports.add(toStudentReport(student, moduleId, context, computeForStudent(context, gradeByInstrumentId)));
+            }
+            return chunkReports;
+        });
+
+        return GradeSimulationResponse.builder()
                 .moduleId(moduleId)
-                .activityGrades(buildActivityGrades(context, computation))
-                .raGrades(buildRaGrades(context, computation))
-                .evaluationGrades(buildEvaluationGrades(context, computation))
-                .finalGrade(computation.finalGrade)
+                .students(reports)
                 .build();
     }
 
@@ -100,7 +134,7 @@ public class CalculationService {
     public ModuleEvaluationReportResponse getModuleEvaluationReport(Long moduleId, Integer evaluationPeriod) {
         ModuleContext context = buildContext(moduleId);
 
-        if (!context.evaluationPeriods.contains(evaluationPeriod)) {
+        if (!context.hasEvaluationPeriod(evaluationPeriod)) {
             throw new BusinessValidationException("Evaluation period not configured in module: " + evaluationPeriod);
         }
 
@@ -108,83 +142,278 @@ public class CalculationService {
                 .sorted(Comparator.comparing(Student::getStudentCode))
                 .toList();
 
-        Map<Long, Map<Long, BigDecimal>> gradesByStudent = buildGradesByStudent(students);
-        Map<Long, StudentEvaluationOverride> overridesByStudentId = studentEvaluationOverrideRepository
-                .findByStudent_Module_IdAndEvaluationPeriod(moduleId, evaluationPeriod).stream()
-                .collect(Collectors.toMap(
-                        override -> override.getStudent().getId(),
-                        override -> override,
-                        (first, second) -> first
-                ));
+        List<GradeValue> gradeValues = findGradeValues(students);
+        Map<Long, StudentEvaluationOverride> overridesByStudentId = findEvaluationOverrides(moduleId, evaluationPeriod);
 
-        List<StudentEvaluationReportRow> rows = new ArrayList<>();
+        List<StudentEvaluationReportRow> rows = studentBatchExecutor.map(students, chunk -> buildEvaluationRows(
+                context,
+                evaluationPeriod,
+                GradeMatrix.load(context.plan, chunk, gradeValues),
+                overridesByStudentId
+        ));
 
-        for (Student student : students) {
+        return ModuleEvaluationReportResponse.builder()
+                .moduleId(moduleId)
+                .evaluationPeriod(evaluationPeriod)
+                .students(rows)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public ModuleFinalReportResponse getModuleFinalReport(Long moduleId) {
+        ModuleContext context = buildContext(moduleId);
+
+        List<Student> students = studentRepository.findByModuleId(moduleId).stream()
+                .sorted(Comparator.comparing(Student::getStudentCode))
+                .toList();
+
+        List<GradeValue> gradeValues = findGradeValues(students);
+
+        List<StudentFinalReportRow> rows = studentBatchExecutor.map(students,
+                chunk -> buildFinalRows(context, GradeMatrix.load(context.plan, chunk, gradeValues)));
+
+        return ModuleFinalReportResponse.builder()
+                .moduleId(moduleId)
+                .students(rows)
+                .build();
+    }
+
+    List<StudentFinalReportRow> buildFinalRows(ModuleContext context, GradeMatrix matrix) {
+        CompiledGradePlan.ColumnResults columns = context.plan != null ? context.plan.evaluateColumns(matrix) : null;
+
+        List<StudentFinalReportRow> rows = new ArrayList<>(matrix.rowCount());
+        for (int row = 0; row < matrix.rowCount(); row++) {
+            Student student = matrix.student(row);
+            BigDecimal finalGrade = matrix.isDecimalOnly(row)
+                    ? computeForStudentDecimal(context, matrix.decimalGrades(row)).finalGrade()
+                    : CompiledGradePlan.toDecimal(columns.finalGrades[row]);
+
+            rows.add(StudentFinalReportRow.builder()
+                    .studentId(student.getId())
+                    .studentCode(student.getStudentCode())
+                    .studentName(student.getFullName())
+                    .finalGrade(finalGrade)
+                    .build());
+        }
+        return rows;
+    }
+
+    List<StudentEvaluationReportRow> buildEvaluationRows(ModuleContext context,
+                                                         Integer evaluationPeriod,
+                                                         GradeMatrix matrix,
+                                                         Map<Long, StudentEvaluationOverride> overridesByStudentId) {
+        CompiledGradePlan.ColumnResults columns = context.plan != null ? context.plan.evaluateColumns(matrix) : null;
+        int evaluationIndex = context.plan != null ? context.plan.evaluationIndex(evaluationPeriod) : -1;
+
+        List<StudentEvaluationReportRow> rows = new ArrayList<>(matrix.rowCount());
+        for (int row = 0; row < matrix.rowCount(); row++) {
+            Student student = matrix.student(row);
             StudentEvaluationOverride override = overridesByStudentId.get(student.getId());
             if (override != null) {
-                rows.add(StudentEvaluationReportRow.builder()
-                        .studentId(student.getId())
-                        .studentCode(student.getStudentCode())
-                        .studentName(student.getFullName())
-                        .numericGrade(scale(override.getNumericGrade()))
-                        .suggestedBulletinGrade(override.getSuggestedBulletinGrade())
-                        .allRAsPassed(Boolean.TRUE.equals(override.getAllRAsPassed()))
-                        .build());
+                rows.add(toOverrideRow(student, override));
                 continue;
             }
 
-            StudentComputation computation = computeForStudent(
-                    context,
-                    gradesByStudent.getOrDefault(student.getId(), Map.of())
-            );
+            EvaluationResult result;
+            if (matrix.isDecimalOnly(row)) {
+                result = computeForStudentDecimal(context, matrix.decimalGrades(row)).evaluationResults().get(evaluationPeriod);
+            } else {
+                result = new EvaluationResult(
+                        CompiledGradePlan.toDecimal(columns.evaluationGrades[evaluationIndex][row]),
+                        columns.evaluationBulletinGrades[evaluationIndex][row],
+                        columns.evaluationPassed[evaluationIndex][row]
+                );
+            }
 
-            EvaluationResult result = computation.evaluationResults.get(evaluationPeriod);
             rows.add(StudentEvaluationReportRow.builder()
                     .studentId(student.getId())
                     .studentCode(student.getStudentCode())
                     .studentName(student.getFullName())
-                    .numericGrade(result != null ? result.numericGrade : ZERO)
-                    .suggestedBulletinGrade(result != null ? result.suggestedBulletinGrade : 1)
-                    .allRAsPassed(result != null && result.allRAsPassed)
+                    .numericGrade(result != null ? result.numericGrade() : ZERO)
+                    .suggestedBulletinGrade(result != null ? result.suggestedBulletinGrade() : 1)
+                    .allRAsPassed(result != null && result.allRAsPassed())
                     .build());
         }
-
-        return ModuleEvaluationReportResponse.builder()
-                .moduleId(moduleId)
-                .evaluationPeriod(evaluationPeriod)
-                .students(rows)
-                .build();
+        return rows;
     }
 
     @Transactional(readOnly = true)
-    public ModuleFinalReportResponse getModuleFinalReport(Long moduleId) {
-        ModuleContext context = buildContext(moduleId);
-
+    public ModuleDashboardResponse getModuleDashboard(Long moduleId) {
         List<Student> students = studentRepository.findByModuleId(moduleId).stream()
                 .sorted(Comparator.comparing(Student::getStudentCode))
                 .toList();
 
-        Map<Long, Map<Long, BigDecimal>> gradesByStudent = buildGradesByStudent(students);
+        return buildDashboard(moduleId, students, computeForStudents(moduleId, students));
+    }
 
-        List<StudentFinalReportRow> rows = new ArrayList<>();
+    ModuleDashboardResponse buildDashboard(Long moduleId,
+                                           List<Student> students,
+                                           Map<Long, StudentComputation> computations) {
+        ModuleContext context = buildContext(moduleId);
 
-        for (Student student : students) {
-            StudentComputation computation = computeForStudent(
-                    context,
-                    gradesByStudent.getOrDefault(student.getId(), Map.of())
-            );
+        Map<Integer, Map<Long, StudentEvaluationOverride>> overridesByPeriod = new HashMap<>();
+        for (StudentEvaluationOverride override : studentEvaluationOverrideRepository.findByStudent_Module_Id(moduleId)) {
+            overridesByPeriod.computeIfAbsent(override.getEvaluationPeriod(), k -> new HashMap<>())
+                    .putIfAbsent(override.getStudent().getId(), override);
+        }
 
-            rows.add(StudentFinalReportRow.builder()
+        List<ModuleEvaluationReportResponse> evaluationReports = new ArrayList<>();
+        for (Integer evaluationPeriod : context.evaluationPeriods) {
+            Map<Long, StudentEvaluationOverride> overridesByStudentId = overridesByPeriod.getOrDefault(evaluationPeriod, Map.of());
+            List<StudentEvaluationReportRow> rows = new ArrayList<>();
+
+            for (Student student : students) {
+                StudentEvaluationOverride override = overridesByStudentId.get(student.getId());
+                if (override != null) {
+                    rows.add(toOverrideRow(student, override));
+                    continue;
+                }
+
+                EvaluationResult result = computations.get(student.getId()).evaluationResults().get(evaluationPeriod);
+                rows.add(StudentEvaluationReportRow.builder()
+                        .studentId(student.getId())
+                        .studentCode(student.getStudentCode())
+                        .studentName(student.getFullName())
+                        .numericGrade(result != null ? result.numericGrade() : ZERO)
+                        .suggestedBulletinGrade(result != null ? result.suggestedBulletinGrade() : 1)
+                        .allRAsPassed(result != null && result.allRAsPassed())
+                        .build());
+            }
+
+            evaluationReports.add(ModuleEvaluationReportResponse.builder()
+                    .moduleId(moduleId)
+                    .evaluationPeriod(evaluationPeriod)
+                    .students(rows)
+                    .build());
+        }
+
+        List<StudentFinalReportRow> finalRows = new ArrayList<>();
+        for (Student student : students) {
+            finalRows.add(StudentFinalReportRow.builder()
                     .studentId(student.getId())
                     .studentCode(student.getStudentCode())
                     .studentName(student.getFullName())
-                    .finalGrade(computation.finalGrade)
+                    .finalGrade(computations.get(student.getId()).finalGrade())
                     .build());
         }
 
-        return ModuleFinalReportResponse.builder()
+        return ModuleDashboardResponse.builder()
                 .moduleId(moduleId)
-                .students(rows)
+                .evaluationReports(evaluationReports)
+                .finalReport(ModuleFinalReportResponse.builder()
+                        .moduleId(moduleId)
+                        .students(finalRows)
+                        .build())
+                .build();
+    }
+
+    Map<Long, StudentComputation> computeForStudents(Long moduleId, List<Student> students) {
+        return recomputeForStudents(moduleId, students, Map.of(), Map.of());
+    }
+
+    Map<Long, StudentComputation> recomputeForStudents(Long moduleId,
+                                                       List<Student> students,
+                                                       Map<Long, StudentComputation> previousByStudentId,
+                                                       Map<Long, Set<Long>> changedInstrumentIdsByStudentId) {
+        ModuleContext context = buildContext(moduleId);
+        Map<Long, Map<Long, BigDecimal>> gradesByStudent = buildGradesByStudent(students);
+
+        List<StudentComputation> computations = studentBatchExecutor.map(students, chunk -> {
+            List<StudentComputation> chunkComputations = new ArrayList<>(chunk.size());
+            CompiledGradePlan.Scratch scratch = context.plan != null ? context.plan.newScratch() : null;
+
+            for (Student student : chunk) {
+                Map<Long, BigDecimal> gradeByInstrumentId = gradesByStudent.getOrDefault(student.getId(), Map.of());
+                StudentComputation previous = previousByStudentId.get(student.getId());
+
+                if (previous != null && matchesStructure(context, previous)) {
+                    chunkComputations.add(recomputeForChangedInstruments(context, previous, gradeByInstrumentId,
+                            changedInstrumentIdsByStudentId.getOrDefault(student.getId(), Set.of())));
+                } else if (scratch != null && context.plan.evaluate(scratch, gradeByInstrumentId)) {
+                    chunkComputations.add(toStudentComputation(context, scratch));
+                } else {
+                    chunkComputations.add(computeForStudentDecimal(context, gradeByInstrumentId));
+                }
+            }
+            return chunkComputations;
+        });
+
+        Map<Long, StudentComputation> result = new LinkedHashMap<>();
+        for (int i = 0; i < students.size(); i++) {
+            result.put(students.get(i).getId(), computations.get(i));
+        }
+        return result;
+    }
+
+    Map<Long, StudentEvaluationOverride> findEvaluationOverrides(Long moduleId, Integer evaluationPeriod) {
+        return studentEvaluationOverrideRepository
+                .findByStudent_Module_IdAndEvaluationPeriod(moduleId, evaluationPeriod).stream()
+                .collect(Collectors.toMap(
+                        override -> override.getStudent().getId(),
+                        override -> override,
+                        (first, second) -> first
+                ));
+    }
+
+    StudentEvaluationReportRow toOverrideRow(Student student, StudentEvaluationOverride override) {
+        return StudentEvaluationReportRow.builder()
+                .studentId(student.getId())
+                .studentCode(student.getStudentCode())
+                .studentName(student.getFullName())
+                .numericGrade(scale(override.getNumericGrade()))
+                .suggestedBulletinGrade(override.getSuggestedBulletinGrade())
+                .allRAsPassed(Boolean.TRUE.equals(override.getAllRAsPassed()))
+                .build();
+    }
+
+    List<Student> findModuleStudents(Long moduleId, List<Long> studentIds) {
+        if (studentIds == null || studentIds.isEmpty()) {
+            return studentRepository.findByModuleId(moduleId).stream()
+                    .sorted(Comparator.comparing(Student::getStudentCode))
+                    .toList();
+        }
+
+        Map<Long, Student> studentsById = studentRepository.findAllById(studentIds).stream()
+                .collect(Collectors.toMap(Student::getId, student -> student));
+
+        List<Student> students = new ArrayList<>();
+        for (Long studentId : new LinkedHashSet<>(studentIds)) {
+            Student student = studentsById.get(studentId);
+            if (student == null) {
+                throw new ResourceNotFoundException("Student not found: " + studentId);
+            }
+            if (!student.getModule().getId().equals(moduleId)) {
+                throw new BusinessValidationException("Student does not belong to moduleId=" + moduleId);
+            }
+            students.add(student);
+        }
+        return students;
+    }
+
+    List<StudentReportResponse> buildStudentReports(ModuleContext context, Long moduleId, List<Student> students) {
+        Map<Long, Map<Long, BigDecimal>> gradesByStudent = buildGradesByStudent(students);
+
+        return studentBatchExecutor.map(students, chunk -> {
+            List<StudentReportResponse> chunkReports = new ArrayList<>(chunk.size());
+            for (Student student : chunk) {
+                Map<Long, BigDecimal> gradeByInstrumentId = gradesByStudent.getOrDefault(student.getId(), Map.of());
+                chunkReports.add(toStudentReport(student, moduleId, context, computeForStudent(context, gradeByInstrumentId)));
+            }
+            return chunkReports;
+        });
+    }
+
+    private StudentReportResponse toStudentReport(Student student,
+                                                  Long moduleId,
+                                                  ModuleContext context,
+                                                  StudentComputation computation) {
+        return StudentReportResponse.builder()
+                .studentId(student.getId())
+                .moduleId(moduleId)
+                .activityGrades(buildActivityGrades(context, computation))
+                .raGrades(buildRaGrades(context, computation))
+                .evaluationGrades(buildEvaluationGrades(context, computation))
+                .finalGrade(computation.finalGrade())
                 .build();
     }
 
@@ -204,82 +433,219 @@ public class CalculationService {
         return numericGrade.setScale(0, RoundingMode.HALF_UP).intValue();
     }
 
-    private ModuleContext buildContext(Long moduleId) {
+    ModuleContext buildContext(Long moduleId) {
+        long structureVersion = moduleVersionTracker.structureVersion(moduleId);
+        ModuleContext cached = moduleContextCache.get(moduleId, structureVersion);
+        if (cached != null) {
+            return cached;
+        }
+
+        ModuleContext context = loadContext(moduleId);
+        moduleContextCache.put(moduleId, structureVersion, context);
+        return context;
+    }
+
+    private ModuleContext loadContext(Long moduleId) {
         CourseModule module = courseModuleRepository.findById(moduleId)
                 .orElseThrow(() -> new ResourceNotFoundException("Module not found: " + moduleId));
 
-        configurationValidator.validateModuleReadyForCalculations(moduleId);
+        moduleReadinessService.ensureReady(moduleId);
 
-        List<LearningOutcomeRA> ras = learningOutcomeRARepository.findByModuleId(moduleId).stream()
-                .sorted(Comparator.comparing(LearningOutcomeRA::getCode))
-                .toList();
-        List<TeachingUnitUT> uts = teachingUnitUTRepository.findByModuleId(moduleId).stream()
-                .sorted(Comparator.comparing(TeachingUnitUT::getId))
-                .toList();
+        List<LearningOutcomeRA> ras = learningOutcomeRARepository.findByModuleId(moduleId);
+        List<TeachingUnitUT> uts = teachingUnitUTRepository.findByModuleId(moduleId);
 
         List<Long> utIds = uts.stream().map(TeachingUnitUT::getId).toList();
         List<UTRALink> utRaLinks = utIds.isEmpty() ? List.of() : utraLinkRepository.findByTeachingUnitIdIn(utIds);
 
-        List<Activity> activities = activityRepository.findByModuleId(moduleId).stream()
-                .sorted(Comparator.comparing(a -> a.getTeachingUnit().getId()))
-                .toList();
+        List<Activity> activities = activityRepository.findByModuleId(moduleId);
         List<Long> activityIds = activities.stream().map(Activity::getId).toList();
         List<Instrument> instruments = activityIds.isEmpty() ? List.of() : instrumentRepository.findByActivityIdIn(activityIds);
         List<Long> instrumentIds = instruments.stream().map(Instrument::getId).toList();
         List<InstrumentRA> instrumentRAs = instrumentIds.isEmpty() ? List.of() : instrumentRARepository.findByInstrumentIdIn(instrumentIds);
 
-        return new ModuleContext(module, ras, uts, utRaLinks, activities, instruments, instrumentRAs);
+        return createContext(module, ras, uts, utRaLinks, activities, instruments, instrumentRAs);
     }
 
-    private Map<Long, Map<Long, BigDecimal>> buildGradesByStudent(List<Student> students) {
+    static ModuleContext createContext(CourseModule module,
+                                       List<LearningOutcomeRA> ras,
+                                       List<TeachingUnitUT> uts,
+                                       List<UTRALink> utRaLinks,
+                                       List<Activity> activities,
+                                       List<Instrument> instruments,
+                                       List<InstrumentRA> instrumentRAs) {
+        return new ModuleContext(
+                module,
+                ras.stream().sorted(Comparator.comparing(LearningOutcomeRA::getCode)).toList(),
+                uts.stream().sorted(Comparator.comparing(TeachingUnitUT::getId)).toList(),
+                utRaLinks,
+                activities.stream().sorted(Comparator.comparing(a -> a.getTeachingUnit().getId())).toList(),
+                instruments,
+                instrumentRAs
+        );
+    }
+
+    Map<Long, Map<Long, BigDecimal>> buildGradesByStudent(List<Student> students) {
         if (students.isEmpty()) {
             return Map.of();
         }
 
-        List<Long> studentIds = students.stream().map(Student::getId).toList();
-        List<Grade> grades = gradeRepository.findByStudentIdIn(studentIds);
-
         Map<Long, Map<Long, BigDecimal>> byStudent = new HashMap<>();
-        for (Grade grade : grades) {
-            byStudent.computeIfAbsent(grade.getStudent().getId(), k -> new HashMap<>())
-                    .put(grade.getInstrument().getId(), grade.getGradeValue());
+        for (GradeValue grade : findGradeValues(students)) {
+            byStudent.computeIfAbsent(grade.studentId(), k -> new HashMap<>())
+                    .put(grade.instrumentId(), grade.gradeValue());
         }
         return byStudent;
     }
 
-    private StudentComputation computeForStudent(ModuleContext context, Map<Long, BigDecimal> gradeByInstrumentId) {
-        Map<Long, BigDecimal> activityGrades = new LinkedHashMap<>();
+    List<GradeValue> findGradeValues(List<Student> students) {
+        if (students.isEmpty()) {
+            return List.of();
+        }
+        return gradeRepository.findValuesByStudentIdIn(students.stream().map(Student::getId).toList());
+    }
+
+    GradeMatrix loadGradeMatrix(ModuleContext context, List<Student> students) {
+        return GradeMatrix.load(context.plan, students, findGradeValues(students));
+    }
 
+    StudentComputation computeForStudent(ModuleContext context, Map<Long, BigDecimal> gradeByInstrumentId) {
+        if (context.plan != null) {
+            CompiledGradePlan.Scratch scratch = context.plan.newScratch();
+            if (context.plan.evaluate(scratch, gradeByInstrumentId)) {
+                return toStudentComputation(context, scratch);
+            }
+        }
+
+        return computeForStudentDecimal(context, gradeByInstrumentId);
+    }
+
+    StudentComputation computeForStudentDecimal(ModuleContext context, Map<Long, BigDecimal> gradeByInstrumentId) {
+        Map<Long, BigDecimal> activityGrades = new LinkedHashMap<>();
         for (Activity activity : context.activities) {
-            BigDecimal grade = calculateActivityGrade(activity.getId(), context, gradeByInstrumentId);
-            activityGrades.put(activity.getId(), grade);
+            activityGrades.put(activity.getId(), calculateActivityGrade(activity.getId(), context, gradeByInstrumentId));
         }
 
-        Map<UtRaKey, BigDecimal> utRaStudentGrades = calculateUtRaGrades(context, gradeByInstrumentId);
+        Map<Long, BigDecimal> utRaGrades = new LinkedHashMap<>();
+        for (UTRALink link : context.utRaLinks) {
+            utRaGrades.put(link.getId(), calculateUtRaGrade(link, context, gradeByInstrumentId));
+        }
 
         Map<Long, BigDecimal> raGlobalGrades = new LinkedHashMap<>();
         for (LearningOutcomeRA ra : context.ras) {
-            BigDecimal grade = ZERO;
-            for (UTRALink link : context.utRaLinksByRaId.getOrDefault(ra.getId(), List.of())) {
-                BigDecimal utRaGrade = utRaStudentGrades.getOrDefault(
-                        new UtRaKey(link.getTeachingUnit().getId(), ra.getId()),
-                        ZERO
-                );
-                grade = grade.add(utRaGrade.multiply(link.getPercent()).divide(HUNDRED, 8, RoundingMode.HALF_UP));
+            raGlobalGrades.put(ra.getId(), calculateRaGlobalGrade(ra.getId(), context, utRaGrades));
+        }
+
+        Map<Integer, EvaluationResult> evaluationResults = new LinkedHashMap<>();
+        for (Integer evaluationPeriod : context.evaluationPeriods) {
+            evaluationResults.put(evaluationPeriod, calculateEvaluationResult(evaluationPeriod, context, utRaGrades));
+        }
+
+        return new StudentComputation(
+                activityGrades,
+                utRaGrades,
+                raGlobalGrades,
+                evaluationResults,
+                calculateFinalGrade(context, raGlobalGrades)
+        );
+    }
+
+    StudentComputation recomputeForChangedInstruments(ModuleContext context,
+                                                      StudentComputation previous,
+                                                      Map<Long, BigDecimal> gradeByInstrumentId,
+                                                      Collection<Long> changedInstrumentIds) {
+        Map<Long, BigDecimal> activityGrades = new LinkedHashMap<>(previous.activityGrades());
+        Map<Long, BigDecimal> utRaGrades = new LinkedHashMap<>(previous.utRaGrades());
+        Map<Long, BigDecimal> raGlobalGrades = new LinkedHashMap<>(previous.raGlobalGrades());
+        Map<Integer, EvaluationResult> evaluationResults = new LinkedHashMap<>(previous.evaluationResults());
+
+        Set<Long> changedActivityIds = new HashSet<>();
+        Set<Long> changedRaIds = new HashSet<>();
+        Set<Integer> changedEvaluationPeriods = new HashSet<>();
+
+        // A grade only reaches its activity, the UT-RA cells of its UT for the RAs it is linked to,
+        // those RAs, the evaluation period of the UT and the final grade.
+        for (Long instrumentId : changedInstrumentIds) {
+            Instrument instrument = context.instrumentById.get(instrumentId);
+            if (instrument == null) {
+                continue;
+            }
+
+            Activity activity = context.activityById.get(instrument.getActivity().getId());
+            if (changedActivityIds.add(activity.getId())) {
+                activityGrades.put(activity.getId(), calculateActivityGrade(activity.getId(), context, gradeByInstrumentId));
+            }
+
+            Long utId = activity.getTeachingUnit().getId();
+            for (Long raId : context.raIdsByInstrumentId.getOrDefault(instrumentId, Set.of())) {
+                for (UTRALink link : context.utRaLinksByRaId.getOrDefault(raId, List.of())) {
+                    if (!link.getTeachingUnit().getId().equals(utId)) {
+                        continue;
+                    }
+
+                    utRaGrades.put(link.getId(), calculateUtRaGrade(link, context, gradeByInstrumentId));
+                    changedRaIds.add(raId);
+                    changedEvaluationPeriods.add(context.evaluationPeriodByUtId.get(utId));
+                }
             }
-            raGlobalGrades.put(ra.getId(), scale(grade));
         }
 
-        BigDecimal finalGrade = ZERO;
-        for (LearningOutcomeRA ra : context.ras) {
-            BigDecimal raGrade = raGlobalGrades.getOrDefault(ra.getId(), ZERO);
-            finalGrade = finalGrade.add(raGrade.multiply(ra.getWeightPercent()).divide(HUNDRED, 8, RoundingMode.HALF_UP));
+        for (Long raId : changedRaIds) {
+            if (context.raById.containsKey(raId)) {
+                raGlobalGrades.put(raId, calculateRaGlobalGrade(raId, context, utRaGrades));
+            }
         }
-        finalGrade = scale(finalGrade);
 
-        Map<Integer, EvaluationResult> evaluationResults = calculateEvaluationResults(context, utRaStudentGrades);
+        for (Integer evaluationPeriod : changedEvaluationPeriods) {
+            evaluationResults.put(evaluationPeriod, calculateEvaluationResult(evaluationPeriod, context, utRaGrades));
+        }
+
+        BigDecimal finalGrade = changedRaIds.isEmpty()
+                ? previous.finalGrade()
+                : calculateFinalGrade(context, raGlobalGrades);
+
+        return new StudentComputation(activityGrades, utRaGrades, raGlobalGrades, evaluationResults, finalGrade);
+    }
 
-        return new StudentComputation(activityGrades, raGlobalGrades, evaluationResults, finalGrade);
+    boolean matchesStructure(ModuleContext context, StudentComputation computation) {
+        return computation.activityGrades().keySet().equals(context.activityById.keySet())
+                && computation.utRaGrades().keySet().equals(context.utRaLinkIds)
+                && computation.raGlobalGrades().keySet().equals(context.raById.keySet())
+                && computation.evaluationResults().keySet().equals(context.evaluationPeriods)
+                && computation.finalGrade() != null;
+    }
+
+    private StudentComputation toStudentComputation(ModuleContext context, CompiledGradePlan.Scratch scratch) {
+        Map<Long, BigDecimal> activityGrades = new LinkedHashMap<>();
+        for (int i = 0; i < context.activities.size(); i++) {
+            activityGrades.put(context.activities.get(i).getId(), CompiledGradePlan.toDecimal(scratch.activityGrades[i]));
+        }
+
+        Map<Long, BigDecimal> utRaGrades = new LinkedHashMap<>();
+        for (int i = 0; i < context.utRaLinks.size(); i++) {
+            utRaGrades.put(context.utRaLinks.get(i).getId(), CompiledGradePlan.toDecimal(scratch.utRaGrades[i]));
+        }
+
+        Map<Long, BigDecimal> raGlobalGrades = new LinkedHashMap<>();
+        for (int i = 0; i < context.ras.size(); i++) {
+            raGlobalGrades.put(context.ras.get(i).getId(), CompiledGradePlan.toDecimal(scratch.raGrades[i]));
+        }
+
+        Map<Integer, EvaluationResult> evaluationResults = new LinkedHashMap<>();
+        for (int i = 0; i < scratch.evaluationGrades.length; i++) {
+            evaluationResults.put(context.plan.evaluationPeriodAt(i), new EvaluationResult(
+                    CompiledGradePlan.toDecimal(scratch.evaluationGrades[i]),
+                    scratch.evaluationBulletinGrades[i],
+                    scratch.evaluationPassed[i]
+            ));
+        }
+
+        return new StudentComputation(
+                activityGrades,
+                utRaGrades,
+                raGlobalGrades,
+                evaluationResults,
+                CompiledGradePlan.toDecimal(scratch.finalGrade)
+        );
     }
 
     private BigDecimal calculateActivityGrade(Long activityId,
@@ -296,112 +662,146 @@ public class CalculationService {
         return scale(result);
     }
 
-    private Map<UtRaKey, BigDecimal> calculateUtRaGrades(ModuleContext context,
-                                                          Map<Long, BigDecimal> gradeByInstrumentId) {
-        Map<UtRaKey, BigDecimal> result = new HashMap<>();
+    private BigDecimal calculateUtRaGrade(UTRALink link,
+                                          ModuleContext context,
+                                          Map<Long, BigDecimal> gradeByInstrumentId) {
+        Long raId = link.getLearningOutcome().getId();
+        Activity activity = context.activityByUtId.get(link.getTeachingUnit().getId());
 
-        for (UTRALink link : context.utRaLinks) {
-            Long utId = link.getTeachingUnit().getId();
-            Long raId = link.getLearningOutcome().getId();
-            Activity activity = context.activityByUtId.get(utId);
+        if (activity == null) {
+            return scale(ZERO);
+        }
+
+        BigDecimal numerator = ZERO;
+        BigDecimal denominator = ZERO;
 
-            if (activity == null) {
-                result.put(new UtRaKey(utId, raId), ZERO);
+        for (Instrument instrument : context.instrumentsByActivityId.getOrDefault(activity.getId(), List.of())) {
+            Set<Long> linkedRaIds = context.raIdsByInstrumentId.getOrDefault(instrument.getId(), Set.of());
+            if (!linkedRaIds.contains(raId)) {
                 continue;
             }
 
-            BigDecimal numerator = ZERO;
-            BigDecimal denominator = ZERO;
+            BigDecimal instrumentGrade = gradeByInstrumentId.getOrDefault(instrument.getId(), ZERO);
+            BigDecimal weight = instrument.getWeightPercent();
 
-            for (Instrument instrument : context.instrumentsByActivityId.getOrDefault(activity.getId(), List.of())) {
-                Set<Long> linkedRaIds = context.raIdsByInstrumentId.getOrDefault(instrument.getId(), Set.of());
-                if (!linkedRaIds.contains(raId)) {
-                    continue;
-                }
+            numerator = numerator.add(instrumentGrade.multiply(weight));
+            denominator = denominator.add(weight);
+        }
+
+        if (denominator.compareTo(ZERO) == 0) {
+            return scale(ZERO);
+        }
+
+        return scale(numerator.divide(denominator, 8, RoundingMode.HALF_UP));
+    }
+
+    private BigDecimal calculateRaGlobalGrade(Long raId, ModuleContext context, Map<Long, BigDecimal> utRaGrades) {
+        BigDecimal grade = ZERO;
+        for (UTRALink link : context.utRaLinksByRaId.getOrDefault(raId, List.of())) {
+            BigDecimal utRaGrade = utRaGrades.getOrDefault(link.getId(), ZERO);
+            grade = grade.add(utRaGrade.multiply(link.getPercent()).divide(HUNDRED, 8, RoundingMode.HALF_UP));
+        }
+        return scale(grade);
+    }
 
-                BigDecimal instrumentGrade = gradeByInstrumentId.getOrDefault(instrument.getId(), ZERO);
-                BigDecimal weight = instrument.getWeightPercent();
+    private BigDecimal calculateFinalGrade(ModuleContext context, Map<Long, BigDecimal> raGlobalGrades) {
+        BigDecimal finalGrade = ZERO;
+        for (LearningOutcomeRA ra : context.ras) {
+            BigDecimal raGrade = raGlobalGrades.getOrDefault(ra.getId(), ZERO);
+            finalGrade = finalGrade.add(raGrade.multiply(ra.getWeightPercent()).divide(HUNDRED, 8, RoundingMode.HALF_UP));
+        }
+        return scale(finalGrade);
+    }
 
-                numerator = numerator.add(instrumentGrade.multiply(weight));
-                denominator = denominator.add(weight);
+    private EvaluationResult calculateEvaluationResult(Integer evaluationPeriod,
+                                                       ModuleContext context,
+                                                       Map<Long, BigDecimal> utRaGrades) {
+        // Criterion chosen for evaluation grade:
+        // 1) For each RA present in this evaluation, compute its RA-in-evaluation grade
+        //    using only UTs from this evaluation and normalizing by the RA UT-RA percentages
+        //    present in this evaluation.
+        // 2) Aggregate those RA-in-evaluation grades weighted by global RA weights and
+        //    normalized by the sum of weights of RAs present in this evaluation.
+        Set<Long> raIdsInEvaluation = context.raIdsByEvaluation.getOrDefault(evaluationPeriod, Set.of());
+
+        BigDecimal weightedSum = ZERO;
+        BigDecimal totalRaWeight = ZERO;
+        boolean allPassed = true;
+
+        for (Long raId : raIdsInEvaluation) {
+            LearningOutcomeRA ra = context.raById.get(raId);
+            if (ra == null) {
+                continue;
             }
 
-            BigDecimal utRaGrade;
-            if (denominator.compareTo(ZERO) == 0) {
-                utRaGrade = ZERO;
-            } else {
-                utRaGrade = numerator.divide(denominator, 8, RoundingMode.HALF_UP);
+            BigDecimal raEvalGrade = calculateRaEvaluationGrade(evaluationPeriod, raId, context, utRaGrades);
+
+            if (raEvalGrade.compareTo(FIVE) < 0) {
+                allPassed = false;
             }
 
-            result.put(new UtRaKey(utId, raId), scale(utRaGrade));
+            weightedSum = weightedSum.add(raEvalGrade.multiply(ra.getWeightPercent()));
+            totalRaWeight = totalRaWeight.add(ra.getWeightPercent());
         }
 
-        return result;
-    }
+        BigDecimal numericGrade = totalRaWeight.compareTo(ZERO) > 0
+                ? weightedSum.divide(totalRaWeight, 8, RoundingMode.HALF_UP)
+                : ZERO;
+        numericGrade = scale(numericGrade);
 
-    private Map<Integer, EvaluationResult> calculateEvaluationResults(ModuleContext context,
-                                                                      Map<UtRaKey, BigDecimal> utRaStudentGrades) {
-        Map<Integer, EvaluationResult> results = new LinkedHashMap<>();
+        int suggested = calculateSuggestedBulletinGrade(numericGrade, allPassed);
 
-        for (Integer evaluationPeriod : context.evaluationPeriods) {
-            // Criterion chosen for evaluation grade:
-            // 1) For each RA present in this evaluation, compute its RA-in-evaluation grade
-            //    using only UTs from this evaluation and normalizing by the RA UT-RA percentages
-            //    present in this evaluation.
-            // 2) Aggregate those RA-in-evaluation grades weighted by global RA weights and
-            //    normalized by the sum of weights of RAs present in this evaluation.
-            Set<Long> raIdsInEvaluation = context.raIdsByEvaluation.getOrDefault(evaluationPeriod, Set.of());
-
-            BigDecimal weightedSum = ZERO;
-            BigDecimal totalRaWeight = ZERO;
-            boolean allPassed = true;
-
-            for (Long raId : raIdsInEvaluation) {
-                LearningOutcomeRA ra = context.raById.get(raId);
-                if (ra == null) {
-                    continue;
-                }
+        return new EvaluationResult(numericGrade, suggested, allPassed);
+    }
 
-                List<UTRALink> linksInEval = context.utRaLinksByEvaluationAndRa
-                        .getOrDefault(evaluationPeriod, Map.of())
-                        .getOrDefault(raId, List.of());
-
-                BigDecimal percentSum = linksInEval.stream()
-                        .map(UTRALink::getPercent)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                BigDecimal raEvalGrade = ZERO;
-                if (percentSum.compareTo(ZERO) > 0) {
-                    BigDecimal numerator = ZERO;
-                    for (UTRALink link : linksInEval) {
-                        BigDecimal utRaGrade = utRaStudentGrades.getOrDefault(
-                                new UtRaKey(link.getTeachingUnit().getId(), raId),
-                                ZERO
-                        );
-                        numerator = numerator.add(utRaGrade.multiply(link.getPercent()));
-                    }
-                    raEvalGrade = numerator.divide(percentSum, 8, RoundingMode.HALF_UP);
-                }
+    private BigDecimal calculateRaEvaluationGrade(Integer evaluationPeriod,
+                                                  Long raId,
+                                                  ModuleContext context,
+                                                  Map<Long, BigDecimal> utRaGrades) {
+        List<UTRALink> linksInEval = evaluationLinks(context, evaluationPeriod, raId);
 
-                if (raEvalGrade.compareTo(FIVE) < 0) {
-                    allPassed = false;
-                }
+        BigDecimal percentSum = linksInEval.stream()
+                .map(UTRALink::getPercent)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-                weightedSum = weightedSum.add(raEvalGrade.multiply(ra.getWeightPercent()));
-                totalRaWeight = totalRaWeight.add(ra.getWeightPercent());
-            }
+        if (percentSum.compareTo(ZERO) <= 0) {
+            return ZERO;
+        }
 
-            BigDecimal numericGrade = totalRaWeight.compareTo(ZERO) > 0
-                    ? weightedSum.divide(totalRaWeight, 8, RoundingMode.HALF_UP)
-                    : ZERO;
-            numericGrade = scale(numericGrade);
+        BigDecimal numerator = ZERO;
+        for (UTRALink link : linksInEval) {
+            BigDecimal utRaGrade = utRaGrades.getOrDefault(link.getId(), ZERO);
+            numerator = numerator.add(utRaGrade.multiply(link.getPercent()));
+        }
+        return numerator.divide(percentSum, 8, RoundingMode.HALF_UP);
+    }
 
-            int suggested = calculateSuggestedBulletinGrade(numericGrade, allPassed);
+    // Single-node evaluations for callers that only need one RA, with the same roundings as a full computation.
+    BigDecimal calculateRaGradeFromInstruments(ModuleContext context,
+                                               Long raId,
+                                               Map<Long, BigDecimal> gradeByInstrumentId) {
+        Map<Long, BigDecimal> utRaGrades = new HashMap<>();
+        for (UTRALink link : context.utRaLinksByRaId.getOrDefault(raId, List.of())) {
+            utRaGrades.put(link.getId(), calculateUtRaGrade(link, context, gradeByInstrumentId));
+        }
+        return calculateRaGlobalGrade(raId, context, utRaGrades);
+    }
 
-            results.put(evaluationPeriod, new EvaluationResult(numericGrade, suggested, allPassed));
+    BigDecimal calculateRaEvaluationGradeFromInstruments(ModuleContext context,
+                                                         Integer evaluationPeriod,
+                                                         Long raId,
+                                                         Map<Long, BigDecimal> gradeByInstrumentId) {
+        Map<Long, BigDecimal> utRaGrades = new HashMap<>();
+        for (UTRALink link : evaluationLinks(context, evaluationPeriod, raId)) {
+            utRaGrades.put(link.getId(), calculateUtRaGrade(link, context, gradeByInstrumentId));
         }
+        return calculateRaEvaluationGrade(evaluationPeriod, raId, context, utRaGrades);
+    }
 
-        return results;
+    private List<UTRALink> evaluationLinks(ModuleContext context, Integer evaluationPeriod, Long raId) {
+        return context.utRaLinksByEvaluationAndRa
+                .getOrDefault(evaluationPeriod, Map.of())
+                .getOrDefault(raId, List.of());
     }
 
     private List<ActivityGradeDto> buildActivityGrades(ModuleContext context, StudentComputation computation) {
@@ -413,7 +813,7 @@ public class CalculationService {
                     .utId(activity.getTeachingUnit().getId())
                     .activityName(activity.getName())
                     .evaluationPeriod(activity.getTeachingUnit().getEvaluationPeriod())
-                    .grade(computation.activityGrades.getOrDefault(activity.getId(), ZERO))
+                    .grade(computation.activityGrades().getOrDefault(activity.getId(), ZERO))
                     .build());
         }
 
@@ -428,7 +828,7 @@ public class CalculationService {
                     .raId(ra.getId())
                     .raCode(ra.getCode())
                     .raName(ra.getName())
-                    .grade(computation.raGlobalGrades.getOrDefault(ra.getId(), ZERO))
+                    .grade(computation.raGlobalGrades().getOrDefault(ra.getId(), ZERO))
                     .build());
         }
 
@@ -439,12 +839,12 @@ public class CalculationService {
         List<EvaluationGradeDto> result = new ArrayList<>();
 
         for (Integer period : context.evaluationPeriods) {
-            EvaluationResult r = computation.evaluationResults.get(period);
+            EvaluationResult r = computation.evaluationResults().get(period);
             result.add(EvaluationGradeDto.builder()
                     .evaluationPeriod(period)
-                    .numericGrade(r != null ? r.numericGrade : ZERO)
-                    .suggestedBulletinGrade(r != null ? r.suggestedBulletinGrade : 1)
-                    .allRAsPassed(r != null && r.allRAsPassed)
+                    .numericGrade(r != null ? r.numericGrade() : ZERO)
+                    .suggestedBulletinGrade(r != null ? r.suggestedBulletinGrade() : 1)
+                    .allRAsPassed(r != null && r.allRAsPassed())
                     .build());
         }
 
@@ -455,7 +855,7 @@ public class CalculationService {
         return value.setScale(4, RoundingMode.HALF_UP);
     }
 
-    private static final class ModuleContext {
+    static final class ModuleContext {
         private final CourseModule module;
         private final List<LearningOutcomeRA> ras;
         private final List<TeachingUnitUT> uts;
@@ -465,6 +865,10 @@ public class CalculationService {
         private final List<InstrumentRA> instrumentRAs;
 
         private final Map<Long, LearningOutcomeRA> raById;
+        private final Set<Long> utRaLinkIds;
+        private final Map<Long, Activity> activityById;
+        private final Map<Long, Instrument> instrumentById;
+        private final Map<Long, Integer> evaluationPeriodByUtId;
         private final Map<Long, List<UTRALink>> utRaLinksByRaId;
         private final Map<Long, Activity> activityByUtId;
         private final Map<Long, List<Instrument>> instrumentsByActivityId;
@@ -472,8 +876,10 @@ public class CalculationService {
         private final Set<Integer> evaluationPeriods;
         private final Map<Integer, Set<Long>> raIdsByEvaluation;
         private final Map<Integer, Map<Long, List<UTRALink>>> utRaLinksByEvaluationAndRa;
+        private final CompiledGradePlan plan;
+        private final LinearGradeModel linearModel;
 
-        private ModuleContext(CourseModule module,
+        ModuleContext(CourseModule module,
                               List<LearningOutcomeRA> ras,
                               List<TeachingUnitUT> uts,
                               List<UTRALink> utRaLinks,
@@ -489,6 +895,9 @@ public class CalculationService {
             this.instrumentRAs = instrumentRAs;
 
             this.raById = ras.stream().collect(Collectors.toMap(LearningOutcomeRA::getId, ra -> ra));
+            this.utRaLinkIds = utRaLinks.stream().map(UTRALink::getId).collect(Collectors.toSet());
+            this.activityById = activities.stream().collect(Collectors.toMap(Activity::getId, activity -> activity));
+            this.instrumentById = instruments.stream().collect(Collectors.toMap(Instrument::getId, instrument -> instrument));
 
             this.utRaLinksByRaId = utRaLinks.stream()
                     .collect(Collectors.groupingBy(link -> link.getLearningOutcome().getId()));
@@ -506,7 +915,7 @@ public class CalculationService {
                         .add(link.getLearningOutcome().getId());
             }
 
-            Map<Long, Integer> utEvaluationMap = uts.stream()
+            this.evaluationPeriodByUtId = uts.stream()
                     .collect(Collectors.toMap(TeachingUnitUT::getId, TeachingUnitUT::getEvaluationPeriod));
 
             this.evaluationPeriods = new TreeSet<>(uts.stream()
@@ -517,7 +926,7 @@ public class CalculationService {
             this.utRaLinksByEvaluationAndRa = new HashMap<>();
 
             for (UTRALink link : utRaLinks) {
-                Integer evaluation = utEvaluationMap.get(link.getTeachingUnit().getId());
+                Integer evaluation = evaluationPeriodByUtId.get(link.getTeachingUnit().getId());
                 if (evaluation == null) {
                     continue;
                 }
@@ -531,38 +940,47 @@ public class CalculationService {
                         .computeIfAbsent(link.getLearningOutcome().getId(), k -> new ArrayList<>())
                         .add(link);
             }
+
+            this.plan = CompiledGradePlan.compile(ras, uts, utRaLinks, activities, instruments, instrumentRAs);
+            this.linearModel = LinearGradeModel.build(ras, uts, utRaLinks, activities, instruments, instrumentRAs);
         }
-    }
 
-    private record UtRaKey(Long utId, Long raId) {
-    }
+        boolean hasEvaluationPeriod(Integer evaluationPeriod) {
+            return evaluationPeriods.contains(evaluationPeriod);
+        }
 
-    private static final class StudentComputation {
-        private final Map<Long, BigDecimal> activityGrades;
-        private final Map<Long, BigDecimal> raGlobalGrades;
-        private final Map<Integer, EvaluationResult> evaluationResults;
-        private final BigDecimal finalGrade;
+        Set<Integer> evaluationPeriods() {
+            return evaluationPeriods;
+        }
 
-        private StudentComputation(Map<Long, BigDecimal> activityGrades,
-                                   Map<Long, BigDecimal> raGlobalGrades,
-                                   Map<Integer, EvaluationResult> evaluationResults,
-                                   BigDecimal finalGrade) {
-            this.activityGrades = activityGrades;
-            this.raGlobalGrades = raGlobalGrades;
-            this.evaluationResults = evaluationResults;
-            this.finalGrade = finalGrade;
+        List<LearningOutcomeRA> ras() {
+            return ras;
+        }
+
+        List<Instrument> instruments() {
+            return instruments;
+        }
+
+        CompiledGradePlan plan() {
+            return plan;
         }
-    }
 
-    private static final class EvaluationResult {
-        private final BigDecimal numericGrade;
-        private final int suggestedBulletinGrade;
-        private final boolean allRAsPassed;
+        Map<Long, Integer> evaluationPeriodByUtId() {
+            return evaluationPeriodByUtId;
+        }
 
-        private EvaluationResult(BigDecimal numericGrade, int suggestedBulletinGrade, boolean allRAsPassed) {
-            this.numericGrade = numericGrade;
-            this.suggestedBulletinGrade = suggestedBulletinGrade;
-            this.allRAsPassed = allRAsPassed;
+        LinearGradeModel linearModel() {
+            return linearModel;
         }
     }
+
+    record StudentComputation(Map<Long, BigDecimal> activityGrades,
+                              Map<Long, BigDecimal> utRaGrades,
+                              Map<Long, BigDecimal> raGlobalGrades,
+                              Map<Integer, EvaluationResult> evaluationResults,
+                              BigDecimal finalGrade) {
+    }
+
+    record EvaluationResult(BigDecimal numericGrade, int suggestedBulletinGrade, boolean allRAsPassed) {
+    }
 }
@@ -0,0 +1,655 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.domain.entity.Activity;
+import com.sara.tfgdam.domain.entity.Instrument;
+import com.sara.tfgdam.domain.entity.InstrumentRA;
+import com.sara.tfgdam.domain.entity.LearningOutcomeRA;
+import com.sara.tfgdam.domain.entity.TeachingUnitUT;
+import com.sara.tfgdam.domain.entity.UTRALink;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// Module structure compiled into dense index arrays. Grades, weights and percents are kept in
+// hundredths and every division reproduces the divide(..., 8, HALF_UP) + setScale(4, HALF_UP)
+// steps of CalculationService, so results match the BigDecimal path digit by digit.
+final class CompiledGradePlan {
+
+    static final int RESULT_SCALE = 4;
+
+    private static final long SCALE_4 = 10_000L;
+    private static final long SCALE_6 = 1_000_000L;
+    private static final long PASS_THRESHOLD_8 = 500_000_000L;
+    private static final long MAX_HUNDREDTHS = 10_000L;
+    static final long NOT_REPRESENTABLE = Long.MIN_VALUE;
+
+    private final Map<Long, Integer> instrumentIndexById;
+    private final long[] instrumentWeights;
+
+    private final int[] activityInstrumentStart;
+    private final int[] activityInstruments;
+
+    private final int raCount;
+    private final long[] raWeights;
+
+    private final int[] linkRa;
+    private final long[] linkPercents;
+    private final long[] linkDenominators;
+    private final int[] linkInstrumentStart;
+    private final int[] linkInstruments;
+
+    private final int[] raLinkStart;
+    private final int[] raLinks;
+
+    private final int[] evaluationPeriods;
+    private final int[] evaluationRaStart;
+    private final int[] evaluationRas;
+    private final long[] evaluationRaPercentSums;
+    private final int[] evaluationRaLinkStart;
+    private final int[] evaluationRaLinks;
+
+    private CompiledGradePlan(Builder builder) {
+        this.instrumentIndexById = builder.instrumentIndexById;
+        this.instrumentWeights = builder.instrumentWeights;
+        this.activityInstrumentStart = builder.activityInstrumentStart;
+        this.activityInstruments = builder.activityInstruments;
+        this.raCount = builder.raCount;
+        this.raWeights = builder.raWeights;
+        this.linkRa = builder.linkRa;
+        this.linkPercents = builder.linkPercents;
+        this.linkDenominators = builder.linkDenominators;
+        this.linkInstrumentStart = builder.linkInstrumentStart;
+        this.linkInstruments = builder.linkInstruments;
+        this.raLinkStart = builder.raLinkStart;
+        this.raLinks = builder.raLinks;
+        this.evaluationPeriods = builder.evaluationPeriods;
+        this.evaluationRaStart = builder.evaluationRaStart;
+        this.evaluationRas = builder.evaluationRas;
+        this.evaluationRaPercentSums = builder.evaluationRaPercentSums;
+        this.evaluationRaLinkStart = builder.evaluationRaLinkStart;
+        this.evaluationRaLinks = builder.evaluationRaLinks;
+    }
+
+    // Returns null when a weight or percent does not fit in hundredths; callers keep the decimal path.
+    static CompiledGradePlan compile(List<LearningOutcomeRA> ras,
+                                     List<TeachingUnitUT> uts,
+                                     List<UTRALink> utRaLinks,
+                                     List<Activity> activities,
+                                     List<Instrument> instruments,
+                                     List<InstrumentRA> instrumentRAs) {
+        Builder builder = new Builder();
+        return builder.build(ras, uts, utRaLinks, activities, instruments, instrumentRAs) ? new CompiledGradePlan(builder) : null;
+    }
+
+    Scratch newScratch() {
+        return new Scratch(
+                instrumentWeights.length,
+                activityInstrumentStart.length - 1,
+                linkRa.length,
+                raCount,
+                evaluationPeriods.length
+        );
+    }
+
+    int instrumentCount() {
+        return instrumentWeights.length;
+    }
+
+    int instrumentIndex(Long instrumentId) {
+        Integer index = instrumentIndexById.get(instrumentId);
+        return index != null ? index : -1;
+    }
+
+    int evaluationIndex(int evaluationPeriod) {
+        return Arrays.binarySearch(evaluationPeriods, evaluationPeriod);
+    }
+
+    int evaluationPeriodAt(int evaluationIndex) {
+        return evaluationPeriods[evaluationIndex];
+    }
+
+    boolean evaluate(Scratch scratch, Map<Long, BigDecimal> gradeByInstrumentId) {
+        long[] grades = scratch.grades;
+        Arrays.fill(grades, 0L);
+
+        for (Map.Entry<Long, BigDecimal> entry : gradeByInstrumentId.entrySet()) {
+            Integer index = instrumentIndexById.get(entry.getKey());
+            if (index == null) {
+                continue;
+            }
+
+            long hundredths = toHundredths(entry.getValue());
+            if (hundredths == NOT_REPRESENTABLE) {
+                return false;
+            }
+            grades[index] = hundredths;
+        }
+
+        evaluateLoaded(scratch);
+        return true;
+    }
+
+    void evaluateLoaded(Scratch scratch) {
+        long[] grades = scratch.grades;
+
+        for (int activity = 0; activity < scratch.activityGrades.length; activity++) {
+            long sum = 0L;
+            for (int i = activityInstrumentStart[activity]; i < activityInstrumentStart[activity + 1]; i++) {
+                int instrument = activityInstruments[i];
+                sum += grades[instrument] * instrumentWeights[instrument];
+            }
+            scratch.activityGrades[activity] = divideHalfUp(sum, 100L);
+        }
+
+        for (int link = 0; link < linkRa.length; link++) {
+            long denominator = linkDenominators[link];
+            if (denominator == 0L) {
+                scratch.utRaGrades[link] = 0L;
+                continue;
+            }
+
+            long numerator = 0L;
+            for (int i = linkInstrumentStart[link]; i < linkInstrumentStart[link + 1]; i++) {
+                int instrument = linkInstruments[i];
+                numerator += grades[instrument] * instrumentWeights[instrument];
+            }
+            scratch.utRaGrades[link] = divideHalfUp(divideHalfUp(numerator * SCALE_6, denominator), SCALE_4);
+        }
+
+        long finalSum = 0L;
+        for (int ra = 0; ra < raCount; ra++) {
+            long sum = 0L;
+            for (int i = raLinkStart[ra]; i < raLinkStart[ra + 1]; i++) {
+                int link = raLinks[i];
+                sum += scratch.utRaGrades[link] * linkPercents[link];
+            }
+            long raGrade = divideHalfUp(sum, SCALE_4);
+            scratch.raGrades[ra] = raGrade;
+            finalSum += raGrade * raWeights[ra];
+        }
+        scratch.finalGrade = divideHalfUp(finalSum, SCALE_4);
+
+        for (int evaluation = 0; evaluation < evaluationPeriods.length; evaluation++) {
+            long weightedSum = 0L;
+            long totalRaWeight = 0L;
+            boolean allPassed = true;
+
+            for (int i = evaluationRaStart[evaluation]; i < evaluationRaStart[evaluation + 1]; i++) {
+                int ra = evaluationRas[i];
+                long percentSum = evaluationRaPercentSums[i];
+
+                long raEvalGrade = 0L;
+                if (percentSum > 0L) {
+                    long numerator = 0L;
+                    for (int j = evaluationRaLinkStart[i]; j < evaluationRaLinkStart[i + 1]; j++) {
+                        int link = evaluationRaLinks[j];
+                        numerator += scratch.utRaGrades[link] * linkPercents[link];
+                    }
+                    raEvalGrade = divideHalfUp(numerator * SCALE_4, percentSum);
+                }
+
+                if (raEvalGrade < PASS_THRESHOLD_8) {
+                    allPassed = false;
+                }
+
+                weightedSum += raEvalGrade * raWeights[ra];
+                totalRaWeight += raWeights[ra];
+            }
+
+            long numericGrade = totalRaWeight > 0L
+                    ? divideHalfUp(divideHalfUp(weightedSum, totalRaWeight), SCALE_4)
+                    : 0L;
+
+            scratch.evaluationGrades[evaluation] = numericGrade;
+            scratch.evaluationPassed[evaluation] = allPassed;
+            scratch.evaluationBulletinGrades[evaluation] = suggestedBulletinGrade(numericGrade, allPassed);
+        }
+    }
+
+    // Column-wise twin of evaluateLoaded: every node is computed for all rows of the matrix before moving
+    // on to the next one, with the same integer roundings. Decimal-only rows are computed too and ignored.
+    ColumnResults evaluateColumns(GradeMatrix matrix) {
+        int rows = matrix.rowCount();
+        ColumnResults results = new ColumnResults(
+                activityInstrumentStart.length - 1,
+                linkRa.length,
+                raCount,
+                evaluationPeriods.length,
+                rows
+        );
+
+        for (int activity = 0; activity < results.activityGrades.length; activity++) {
+            long[] sums = results.activityGrades[activity];
+            for (int i = activityInstrumentStart[activity]; i < activityInstrumentStart[activity + 1]; i++) {
+                int instrument = activityInstruments[i];
+                addWeighted(sums, matrix.column(instrument), instrumentWeights[instrument]);
+            }
+            for (int row = 0; row < rows; row++) {
+                sums[row] = divideHalfUp(sums[row], 100L);
+            }
+        }
+
+        for (int link = 0; link < linkRa.length; link++) {
+            long denominator = linkDenominators[link];
+            if (denominator == 0L) {
+                continue;
+            }
+
+            long[] numerators = results.utRaGrades[link];
+            for (int i = linkInstrumentStart[link]; i < linkInstrumentStart[link + 1]; i++) {
+                int instrument = linkInstruments[i];
+                addWeighted(numerators, matrix.column(instrument), instrumentWeights[instrument]);
+            }
+            for (int row = 0; row < rows; row++) {
+                numerators[row] = divideHalfUp(divideHalfUp(numerators[row] * SCALE_6, denominator), SCALE_4);
+            }
+        }
+
+        long[] finalSums = results.finalGrades;
+        for (int ra = 0; ra < raCount; ra++) {
+            long[] sums = results.raGrades[ra];
+            for (int i = raLinkStart[ra]; i < raLinkStart[ra + 1]; i++) {
+                int link = raLinks[i];
+                addWeighted(sums, results.utRaGrades[link], linkPercents[link]);
+            }
+            long raWeight = raWeights[ra];
+            for (int row = 0; row < rows; row++) {
+                sums[row] = divideHalfUp(sums[row], SCALE_4);
+                finalSums[row] += sums[row] * raWeight;
+            }
+        }
+        for (int row = 0; row < rows; row++) {
+            finalSums[row] = divideHalfUp(finalSums[row], SCALE_4);
+        }
+
+        long[] numerators = new long[rows];
+        for (int evaluation = 0; evaluation < evaluationPeriods.length; evaluation++) {
+            long[] weightedSums = results.evaluationGrades[evaluation];
+            boolean[] allPassed = results.evaluationPassed[evaluation];
+            Arrays.fill(allPassed, true);
+            long totalRaWeight = 0L;
+
+            for (int i = evaluationRaStart[evaluation]; i < evaluationRaStart[evaluation + 1]; i++) {
+                int ra = evaluationRas[i];
+                long percentSum = evaluationRaPercentSums[i];
+                long raWeight = raWeights[ra];
+                totalRaWeight += raWeight;
+
+                if (percentSum <= 0L) {
+                    Arrays.fill(allPassed, false);
+                    continue;
+                }
+
+                Arrays.fill(numerators, 0L);
+                for (int j = evaluationRaLinkStart[i]; j < evaluationRaLinkStart[i + 1]; j++) {
+                    int link = evaluationRaLinks[j];
+                    addWeighted(numerators, results.utRaGrades[link], linkPercents[link]);
+                }
+                for (int row = 0; row < rows; row++) {
+                    long raEvalGrade = divideHalfUp(numerators[row] * SCALE_4, percentSum);
+                    if (raEvalGrade < PASS_THRESHOLD_8) {
+                        allPassed[row] = false;
+                    }
+                    weightedSums[row] += raEvalGrade * raWeight;
+                }
+            }
+
+            int[] bulletinGrades = results.evaluationBulletinGrades[evaluation];
+            for (int row = 0; row < rows; row++) {
+                weightedSums[row] = totalRaWeight > 0L
+                        ? divideHalfUp(divideHalfUp(weightedSums[row], totalRaWeight), SCALE_4)
+                        : 0L;
+                bulletinGrades[row] = suggestedBulletinGrade(weightedSums[row], allPassed[row]);
+            }
+        }
+
+        return results;
+    }
+
+    private static void addWeighted(long[] target, short[] column, long weight) {
+        for (int row = 0; row < target.length; row++) {
+            target[row] += column[row] * weight;
+        }
+    }
+
+    private static void addWeighted(long[] target, long[] column, long weight) {
+        for (int row = 0; row < target.length; row++) {
+            target[row] += column[row] * weight;
+        }
+    }
+
+    // Same rule as CalculationService.calculateSuggestedBulletinGrade on a grade scaled by 10^4.
+    static int suggestedBulletinGrade(long numericGrade, boolean allRAsPassed) {
+        if (numericGrade < SCALE_4) {
+            return 1;
+        }
+
+        if (numericGrade < 5 * SCALE_4) {
+            return (int) (numericGrade / SCALE_4);
+        }
+
+        if (!allRAsPassed) {
+            return 4;
+        }
+
+        return (int) divideHalfUp(numericGrade, SCALE_4);
+    }
+
+    static BigDecimal toDecimal(long scaledValue) {
+        return BigDecimal.valueOf(scaledValue, RESULT_SCALE);
+    }
+
+    static long toHundredths(BigDecimal value) {
+        if (value == null) {
+            return NOT_REPRESENTABLE;
+        }
+
+        BigDecimal shifted = value.movePointRight(2);
+        if (shifted.scale() > 0) {
+            shifted = shifted.stripTrailingZeros();
+            if (shifted.scale() > 0) {
+                return NOT_REPRESENTABLE;
+            }
+        }
+
+        if (shifted.signum() < 0 || shifted.compareTo(BigDecimal.valueOf(MAX_HUNDREDTHS)) > 0) {
+            return NOT_REPRESENTABLE;
+        }
+
+        return shifted.longValueExact();
+    }
+
+    static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend - quotient * divisor;
+        return remainder * 2 >= divisor ? quotient + 1 : quotient;
+    }
+
+    static final class Scratch {
+        final long[] grades;
+        final long[] activityGrades;
+        final long[] utRaGrades;
+        final long[] raGrades;
+        final long[] evaluationGrades;
+        final boolean[] evaluationPassed;
+        final int[] evaluationBulletinGrades;
+        long finalGrade;
+
+        private Scratch(int instrumentCount, int activityCount, int linkCount, int raCount, int evaluationCount) {
+            this.grades = new long[instrumentCount];
+            this.activityGrades = new long[activityCount];
+            this.utRaGrades = new long[linkCount];
+            this.raGrades = new long[raCount];
+            this.evaluationGrades = new long[evaluationCount];
+            this.evaluationPassed = new boolean[evaluationCount];
+            this.evaluationBulletinGrades = new int[evaluationCount];
+        }
+    }
+
+    static final class ColumnResults {
+        final long[][] activityGrades;
+        final long[][] utRaGrades;
+        final long[][] raGrades;
+        final long[][] evaluationGrades;
+        final boolean[][] evaluationPassed;
+        final int[][] evaluationBulletinGrades;
+        final long[] finalGrades;
+
+        private ColumnResults(int activityCount, int linkCount, int raCount, int evaluationCount, int rows) {
+            this.activityGrades = new long[activityCount][rows];
+            this.utRaGrades = new long[linkCount][rows];
+            this.raGrades = new long[raCount][rows];
+            this.evaluationGrades = new long[evaluationCount][rows];
+            this.evaluationPassed = new boolean[evaluationCount][rows];
+            this.evaluationBulletinGrades = new int[evaluationCount][rows];
+            this.finalGrades = new long[rows];
+        }
+    }
+
+    private static final class Builder {
+        private Map<Long, Integer> instrumentIndexById;
+        private long[] instrumentWeights;
+        private int[] activityInstrumentStart;
+        private int[] activityInstruments;
+        private int raCount;
+        private int raWords;
+        private long[] instrumentRaBits;
+        private long[] raWeights;
+        private int[] linkRa;
+        private long[] linkPercents;
+        private long[] linkDenominators;
+        private int[] linkInstrumentStart;
+        private int[] linkInstruments;
+        private int[] raLinkStart;
+        private int[] raLinks;
+        private int[] evaluationPeriods;
+        private int[] evaluationRaStart;
+        private int[] evaluationRas;
+        private long[] evaluationRaPercentSums;
+        private int[] evaluationRaLinkStart;
+        private int[] evaluationRaLinks;
+
+        private boolean build(List<LearningOutcomeRA> ras,
+                              List<TeachingUnitUT> uts,
+                              List<UTRALink> utRaLinks,
+                              List<Activity> activities,
+                              List<Instrument> instruments,
+                              List<InstrumentRA> instrumentRAs) {
+            Map<Long, Integer> raIndexById = new HashMap<>();
+            raCount = ras.size();
+            raWords = Math.max(1, (raCount + 63) >>> 6);
+            raWeights = new long[raCount];
+            for (int ra = 0; ra < raCount; ra++) {
+                raIndexById.put(ras.get(ra).getId(), ra);
+                raWeights[ra] = toHundredths(ras.get(ra).getWeightPercent());
+                if (raWeights[ra] == NOT_REPRESENTABLE) {
+                    return false;
+                }
+            }
+
+            Map<Long, Integer> evaluationByUtId = new HashMap<>();
+            for (TeachingUnitUT ut : uts) {
+                evaluationByUtId.put(ut.getId(), ut.getEvaluationPeriod());
+            }
+
+            Map<Long, Integer> activityIndexById = new HashMap<>();
+            Map<Long, Integer> activityIndexByUtId = new HashMap<>();
+            for (int activity = 0; activity < activities.size(); activity++) {
+                activityIndexById.put(activities.get(activity).getId(), activity);
+                activityIndexByUtId.put(activities.get(activity).getTeachingUnit().getId(), activity);
+            }
+
+            instrumentIndexById = new HashMap<>();
+            instrumentWeights = new long[instruments.size()];
+            int[] instrumentActivity = new int[instruments.size()];
+            int[] activityCounts = new int[activities.size()];
+            for (int instrument = 0; instrument < instruments.size(); instrument++) {
+                Instrument entity = instruments.get(instrument);
+                instrumentIndexById.put(entity.getId(), instrument);
+                instrumentWeights[instrument] = toHundredths(entity.getWeightPercent());
+                if (instrumentWeights[instrument] == NOT_REPRESENTABLE) {
+                    return false;
+                }
+
+                Integer activity = activityIndexById.get(entity.getActivity().getId());
+                instrumentActivity[instrument] = activity == null ? -1 : activity;
+                if (activity != null) {
+                    activityCounts[activity]++;
+                }
+            }
+
+            activityInstrumentStart = prefixSums(activityCounts);
+            activityInstruments = new int[activityInstrumentStart[activities.size()]];
+            int[] activityFill = Arrays.copyOf(activityInstrumentStart, activities.size());
+            for (int instrument = 0; instrument < instruments.size(); instrument++) {
+                int activity = instrumentActivity[instrument];
+                if (activity >= 0) {
+                    activityInstruments[activityFill[activity]++] = instrument;
+                }
+            }
+
+            instrumentRaBits = new long[instruments.size() * raWords];
+            for (InstrumentRA link : instrumentRAs) {
+                Integer instrument = instrumentIndexById.get(link.getInstrument().getId());
+                Integer ra = raIndexById.get(link.getLearningOutcome().getId());
+                if (instrument != null && ra != null) {
+                    instrumentRaBits[instrument * raWords + (ra >>> 6)] |= 1L << (ra & 63);
+                }
+            }
+
+            int linkCount = utRaLinks.size();
+            linkRa = new int[linkCount];
+            linkPercents = new long[linkCount];
+            linkDenominators = new long[linkCount];
+            int[] linkActivity = new int[linkCount];
+            int[] linkCounts = new int[linkCount];
+            int[] raLinkCounts = new int[raCount];
+
+            for (int link = 0; link < linkCount; link++) {
+                UTRALink entity = utRaLinks.get(link);
+                Integer ra = raIndexById.get(entity.getLearningOutcome().getId());
+                Integer activity = activityIndexByUtId.get(entity.getTeachingUnit().getId());
+
+                linkPercents[link] = toHundredths(entity.getPercent());
+                if (linkPercents[link] == NOT_REPRESENTABLE) {
+                    return false;
+                }
+
+                linkRa[link] = ra == null ? -1 : ra;
+                linkActivity[link] = activity == null ? -1 : activity;
+                if (ra != null) {
+                    raLinkCounts[ra]++;
+                }
+
+                if (activity != null && ra != null) {
+                    for (int i = activityInstrumentStart[activity]; i < activityInstrumentStart[activity + 1]; i++) {
+                        int instrument = activityInstruments[i];
+                        if (linkedToRa(instrument, ra)) {
+                            linkCounts[link]++;
+                            linkDenominators[link] += instrumentWeights[instrument];
+                        }
+                    }
+                }
+            }
+
+            linkInstrumentStart = prefixSums(linkCounts);
+            linkInstruments = new int[linkInstrumentStart[linkCount]];
+            for (int link = 0; link < linkCount; link++) {
+                int activity = linkActivity[link];
+                int ra = linkRa[link];
+                if (activity < 0 || ra < 0) {
+                    continue;
+                }
+
+                int fill = linkInstrumentStart[link];
+                for (int i = activityInstrumentStart[activity]; i < activityInstrumentStart[activity + 1]; i++) {
+                    int instrument = activityInstruments[i];
+                    if (linkedToRa(instrument, ra)) {
+                        linkInstruments[fill++] = instrument;
+                    }
+                }
+            }
+
+            raLinkStart = prefixSums(raLinkCounts);
+            raLinks = new int[raLinkStart[raCount]];
+            int[] raFill = Arrays.copyOf(raLinkStart, raCount);
+            for (int link = 0; link < linkCount; link++) {
+                if (linkRa[link] >= 0) {
+                    raLinks[raFill[linkRa[link]]++] = link;
+                }
+            }
+
+            buildEvaluations(uts, utRaLinks, evaluationByUtId);
+            return true;
+        }
+
+        private void buildEvaluations(List<TeachingUnitUT> uts,
+                                      List<UTRALink> utRaLinks,
+                                      Map<Long, Integer> evaluationByUtId) {
+            TreeSet<Integer> periods = new TreeSet<>();
+            for (TeachingUnitUT ut : uts) {
+                periods.add(ut.getEvaluationPeriod());
+            }
+            evaluationPeriods = periods.stream().mapToInt(Integer::intValue).toArray();
+
+            int evaluationCount = evaluationPeriods.length;
+            int[][] linkCountByEvaluationAndRa = new int[evaluationCount][raCount];
+            long[][] percentByEvaluationAndRa = new long[evaluationCount][raCount];
+            boolean[][] presentByEvaluationAndRa = new boolean[evaluationCount][raCount];
+            int[] linkEvaluation = new int[utRaLinks.size()];
+
+            for (int link = 0; link < utRaLinks.size(); link++) {
+                Integer period = evaluationByUtId.get(utRaLinks.get(link).getTeachingUnit().getId());
+                int evaluation = period == null ? -1 : Arrays.binarySearch(evaluationPeriods, period);
+                linkEvaluation[link] = evaluation;
+                int ra = linkRa[link];
+                if (evaluation < 0 || ra < 0) {
+                    continue;
+                }
+
+                presentByEvaluationAndRa[evaluation][ra] = true;
+                linkCountByEvaluationAndRa[evaluation][ra]++;
+                percentByEvaluationAndRa[evaluation][ra] += linkPercents[link];
+            }
+
+            int[] raCountByEvaluation = new int[evaluationCount];
+            for (int evaluation = 0; evaluation < evaluationCount; evaluation++) {
+                for (int ra = 0; ra < raCount; ra++) {
+                    if (presentByEvaluationAndRa[evaluation][ra]) {
+                        raCountByEvaluation[evaluation]++;
+                    }
+                }
+            }
+
+            evaluationRaStart = prefixSums(raCountByEvaluation);
+            int entryCount = evaluationRaStart[evaluationCount];
+            evaluationRas = new int[entryCount];
+            evaluationRaPercentSums = new long[entryCount];
+            int[] entryLinkCounts = new int[entryCount];
+            int[][] entryByEvaluationAndRa = new int[evaluationCount][raCount];
+
+            int entry = 0;
+            for (int evaluation = 0; evaluation < evaluationCount; evaluation++) {
+                for (int ra = 0; ra < raCount; ra++) {
+                    if (!presentByEvaluationAndRa[evaluation][ra]) {
+                        continue;
+                    }
+                    evaluationRas[entry] = ra;
+                    evaluationRaPercentSums[entry] = percentByEvaluationAndRa[evaluation][ra];
+                    entryLinkCounts[entry] = linkCountByEvaluationAndRa[evaluation][ra];
+                    entryByEvaluationAndRa[evaluation][ra] = entry;
+                    entry++;
+                }
+            }
+
+            evaluationRaLinkStart = prefixSums(entryLinkCounts);
+            evaluationRaLinks = new int[evaluationRaLinkStart[entryCount]];
+            int[] entryFill = Arrays.copyOf(evaluationRaLinkStart, entryCount);
+            for (int link = 0; link < utRaLinks.size(); link++) {
+                int evaluation = linkEvaluation[link];
+                int ra = linkRa[link];
+                if (evaluation < 0 || ra < 0) {
+                    continue;
+                }
+                int target = entryByEvaluationAndRa[evaluation][ra];
+                evaluationRaLinks[entryFill[target]++] = link;
+            }
+        }
+
+        private boolean linkedToRa(int instrument, int ra) {
+            return (instrumentRaBits[instrument * raWords + (ra >>> 6)] & (1L << (ra & 63))) != 0L;
+        }
+
+        private static int[] prefixSums(int[] counts) {
+            int[] starts = new int[counts.length + 1];
+            for (int i = 0; i < counts.length; i++) {
+                starts[i + 1] = starts[i] + counts[i];
+            }
+            return starts;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.domain.entity.CourseModule;
+import com.sara.tfgdam.domain.entity.EvaluationPeriodClosure;
+import com.sara.tfgdam.domain.entity.EvaluationPeriodSnapshot;
+import com.sara.tfgdam.domain.entity.Student;
+import com.sara.tfgdam.dto.EvaluationGradeDto;
+import com.sara.tfgdam.dto.ModuleEvaluationReportResponse;
+import com.sara.tfgdam.dto.ReportFreshnessDto;
+import com.sara.tfgdam.dto.StudentEvaluationReportRow;
+import com.sara.tfgdam.dto.StudentReportResponse;
+import com.sara.tfgdam.exception.BusinessValidationException;
+import com.sara.tfgdam.exception.ResourceNotFoundException;
+import com.sara.tfgdam.repository.CourseModuleRepository;
+import com.sara.tfgdam.repository.EvaluationPeriodClosureRepository;
+import com.sara.tfgdam.repository.EvaluationPeriodSnapshotRepository;
+import com.sara.tfgdam.repository.StudentRepository;
+import com.sara.tfgdam.security.AuthenticatedUserResolver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class EvaluationClosureService {
+
+    private static final String SOURCE_CLOSED = "CLOSED";
+
+    private final EvaluationPeriodClosureRepository closureRepository;
+    private final EvaluationPeriodSnapshotRepository snapshotRepository;
+    private final CourseModuleRepository courseModuleRepository;
+    private final StudentRepository studentRepository;
+    private final CalculationService calculationService;
+    private final ModuleVersionTracker moduleVersionTracker;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
+    private final GradeChangeService gradeChangeService;
+
+    // The snapshot is taken from the same report teachers read, so overrides are frozen as well.
+    // Grade writes take the same lock, so none commits between the report and the closure.
+    @Transactional
+    public EvaluationPeriodClosure closePeriod(Long moduleId, Integer evaluationPeriod) {
+        gradeChangeService.lockModule(moduleId);
+        CourseModule module = courseModuleRepository.findById(moduleId)
+                .orElseThrow(() -> new ResourceNotFoundException("Module not found: " + moduleId));
+        if (closureRepository.findByModuleIdAndEvaluationPeriod(moduleId, evaluationPeriod).isPresent()) {
+            throw new BusinessValidationException("Evaluation period already closed: " + evaluationPeriod);
+        }
+
+        ModuleEvaluationReportResponse report = calculationService.getModuleEvaluationReport(moduleId, evaluationPeriod);
+
+        EvaluationPeriodClosure closure = closureRepository.save(EvaluationPeriodClosure.builder()
+                .module(module)
+                .evaluationPeriod(evaluationPeriod)
+                .closedAt(OffsetDateTime.now())
+                .closedBy(authenticatedUserResolver.getCurrentUser().getEmail())
+                .build());
+
+        snapshotRepository.saveAll(report.getStudents().stream()
+                .map(row -> EvaluationPeriodSnapshot.builder()
+                        .closure(closure)
+                        .student(studentRepository.getReferenceById(row.getStudentId()))
+                        .numericGrade(row.getNumericGrade())
+                        .suggestedBulletinGrade(row.getSuggestedBulletinGrade())
+                        .allRAsPassed(row.isAllRAsPassed())
+                        .build())
+                .toList());
+
+        moduleVersionTracker.dataChanged(moduleId);
+        return closure;
+    }
+
+    @Transactional
+    public void reopenPeriod(Long moduleId, Integer evaluationPeriod) {
+        // Same lock as closePeriod, so a reopen never interleaves with a close or with a grade write's period check.
+        gradeChangeService.lockModule(moduleId);
+        EvaluationPeriodClosure closure = closureRepository.findByModuleIdAndEvaluationPeriod(moduleId, evaluationPeriod)
+                .orElseThrow(() -> new ResourceNotFoundException("Evaluation period is not closed: " + evaluationPeriod));
+
+        snapshotRepository.deleteByClosureId(closure.getId());
+        closureRepository.delete(closure);
+        moduleVersionTracker.dataChanged(moduleId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<EvaluationPeriodClosure> getClosures(Long moduleId) {
+        if (!courseModuleRepository.existsById(moduleId)) {
+            throw new ResourceNotFoundException("Module not found: " + moduleId);
+        }
+        return closureRepository.findByModuleIdOrderByEvaluationPeriod(moduleId);
+    }
+
+    @Transactional(readOnly = true)
+    public Set<Integer> findClosedPeriods(Long moduleId) {
+        return closureRepository.findByModuleIdOrderByEvaluationPeriod(moduleId).stream()
+                .map(EvaluationPeriodClosure::getEvaluationPeriod)
+                .collect(Collectors.toSet());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ModuleEvaluationReportResponse> findClosedReport(Long moduleId, Integer evaluationPeriod) {
+        return closureRepository.findByModuleIdAndEvaluationPeriod(moduleId, evaluationPeriod)
+                .map(closure -> toReport(moduleId, closure));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ModuleEvaluationReportResponse> withClosedReports(Long moduleId, List<ModuleEvaluationReportResponse> reports) {
+        Map<Integer, EvaluationPeriodClosure> closuresByPeriod = closureRepository.findByModuleIdOrderByEvaluationPeriod(moduleId).stream()
+                .collect(Collectors.toMap(EvaluationPeriodClosure::getEvaluationPeriod, Function.identity()));
+        if (closuresByPeriod.isEmpty()) {
+            return reports;
+        }
+
+        return reports.stream()
+                .map(report -> {
+                    EvaluationPeriodClosure closure = closuresByPeriod.get(report.getEvaluationPeriod());
+                    return closure != null ? toReport(moduleId, closure) : report;
+                })
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public StudentReportResponse withClosedPeriods(StudentReportResponse report) {
+        Map<Integer, EvaluationPeriodSnapshot> snapshotsByPeriod = snapshotRepository
+                .findByModuleIdAndStudentId(report.getModuleId(), report.getStudentId()).stream()
+                .collect(Collectors.toMap(snapshot -> snapshot.getClosure().getEvaluationPeriod(), Function.identity()));
+        return applySnapshots(report, snapshotsByPeriod);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, Map<Integer, EvaluationPeriodSnapshot>> findSnapshotsByStudent(Long moduleId) {
+        Map<Long, Map<Integer, EvaluationPeriodSnapshot>> byStudent = new HashMap<>();
+        for (EvaluationPeriodSnapshot snapshot : snapshotRepository.findByModuleIdWithClosure(moduleId)) {
+            byStudent.computeIfAbsent(snapshot.getStudent().getId(), k -> new HashMap<>())
+                    .put(snapshot.getClosure().getEvaluationPeriod(), snapshot);
+        }
+        return byStudent;
+    }
+
+    public List<StudentReportResponse> withClosedPeriods(List<StudentReportResponse> reports,
+                                                         Map<Long, Map<Integer, EvaluationPeriodSnapshot>> snapshotsByStudent) {
+        if (snapshotsByStudent.isEmpty()) {
+            return reports;
+        }
+        return reports.stream()
+                .map(report -> applySnapshots(report, snapshotsByStudent.getOrDefault(report.getStudentId(), Map.of())))
+                .toList();
+    }
+
+    @Transactional
+    public void deleteModuleClosures(Long moduleId) {
+        snapshotRepository.deleteByModuleId(moduleId);
+        closureRepository.deleteByModuleId(moduleId);
+    }
+
+    private StudentReportResponse applySnapshots(StudentReportResponse report,
+                                                 Map<Integer, EvaluationPeriodSnapshot> snapshotsByPeriod) {
+        if (snapshotsByPeriod.isEmpty()) {
+            return report;
+        }
+
+        List<EvaluationGradeDto> evaluationGrades = report.getEvaluationGrades().stream()
+                .map(grade -> {
+                    EvaluationPeriodSnapshot snapshot = snapshotsByPeriod.get(grade.getEvaluationPeriod());
+                    return snapshot == null ? grade : EvaluationGradeDto.builder()
+                            .evaluationPeriod(grade.getEvaluationPeriod())
+                            .numericGrade(snapshot.getNumericGrade())
+                            .suggestedBulletinGrade(snapshot.getSuggestedBulletinGrade())
+                            .allRAsPassed(Boolean.TRUE.equals(snapshot.getAllRAsPassed()))
+                            .build();
+                })
+                .toList();
+
+        return StudentReportResponse.builder()
+                .studentId(report.getStudentId())
+                .moduleId(report.getModuleId())
+                .activityGrades(report.getActivityGrades())
+                .raGrades(report.getRaGrades())
+                .evaluationGrades(evaluationGrades)
+                .finalGrade(report.getFinalGrade())
+                .build();
+    }
+
+    private ModuleEvaluationReportResponse toReport(Long moduleId, EvaluationPeriodClosure closure) {
+        List<StudentEvaluationReportRow> rows = snapshotRepository.findByClosureIdWithStudent(closure.getId()).stream()
+                .map(snapshot -> {
+                    Student student = snapshot.getStudent();
+                    return StudentEvaluationReportRow.builder()
+                            .studentId(student.getId())
+                            .studentCode(student.getStudentCode())
+                            .studentName(student.getFullName())
+                            .numericGrade(snapshot.getNumericGrade())
+                            .suggestedBulletinGrade(snapshot.getSuggestedBulletinGrade())
+                            .allRAsPassed(Boolean.TRUE.equals(snapshot.getAllRAsPassed()))
+                            .build();
+                })
+                .toList();
+
+        return ModuleEvaluationReportResponse.builder()
+                .moduleId(moduleId)
+                .evaluationPeriod(closure.getEvaluationPeriod())
+                .students(rows)
+                .freshness(ReportFreshnessDto.builder()
+                        .source(SOURCE_CLOSED)
+                        .stale(false)
+                        .refreshedAt(closure.getClosedAt())
+                        .build())
+                .build();
+    }
+}
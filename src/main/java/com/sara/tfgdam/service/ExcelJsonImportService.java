@@ -36,6 +36,7 @@ public class ExcelJsonImportService {
     private final ModuleSetupService moduleSetupService;
     private final GradeService gradeService;
     private final StudentEvaluationOverrideRepository studentEvaluationOverrideRepository;
+    private final ModuleVersionTracker moduleVersionTracker;
 
     @Transactional
     public ExcelImportResponse importExcelJson(ExcelImportRequest request) {
@@ -178,6 +179,7 @@ public class ExcelJsonImportService {
                         .build());
             }
             studentEvaluationOverrideRepository.saveAll(overrides);
+            moduleVersionTracker.dataChanged(module.getId());
         }
 
         return ExcelImportResponse.builder()
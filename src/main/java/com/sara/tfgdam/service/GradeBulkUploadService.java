@@ -0,0 +1,193 @@
+package com.sara.tfgdam.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sara.tfgdam.dto.GradeBulkRowResult;
+import com.sara.tfgdam.dto.GradeEntryRequest;
+import com.sara.tfgdam.security.AuthenticatedUserResolver;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+// One NDJSON grade entry per line. Lines are read and written in chunks of sara.grades.bulk.chunk-size,
+// each chunk in its own transaction, so memory stays flat and a bad row only fails itself: a client
+// whose upload broke off can resend from the first line without a result.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GradeBulkUploadService {
+
+    private static final String STATUS_OK = "OK";
+    private static final String STATUS_ERROR = "ERROR";
+    private static final String INVALID_JSON = "INVALID_JSON";
+    private static final String INVALID_ROW = "INVALID_ROW";
+    private static final String CHUNK_FAILED = "CHUNK_FAILED";
+    private static final String LINE_TOO_LONG = "LINE_TOO_LONG";
+
+    private final GradeService gradeService;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${sara.grades.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${sara.grades.bulk.max-line-length:4096}")
+    private int maxLineLength;
+
+    public StreamingResponseBody upload(InputStream body) {
+        String changedBy = authenticatedUserResolver.getCurrentUsername();
+        return outputStream -> {
+            int size = Math.max(1, chunkSize);
+            int maxLength = Math.max(1, maxLineLength);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            StringBuilder buffer = new StringBuilder();
+            List<BulkLine> chunk = new ArrayList<>(size);
+            long lineNumber = 0;
+            BulkLine line;
+            while ((line = readLine(reader, buffer, ++lineNumber, maxLength)) != null) {
+                if (line.content != null && line.content.isBlank()) {
+                    continue;
+                }
+                chunk.add(line);
+                if (chunk.size() == size) {
+                    writeResults(outputStream, processChunk(chunk, changedBy));
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeResults(outputStream, processChunk(chunk, changedBy));
+            }
+        };
+    }
+
+    private List<GradeBulkRowResult> processChunk(List<BulkLine> chunk, String changedBy) {
+        List<GradeBulkRowResult> results = new ArrayList<>(chunk.size());
+        List<GradeEntryRequest> entries = new ArrayList<>();
+        List<Integer> entryPositions = new ArrayList<>();
+
+        for (BulkLine line : chunk) {
+            if (line.content == null) {
+                results.add(error(line.number, null, LINE_TOO_LONG, "Line exceeds " + maxLineLength + " characters"));
+                continue;
+            }
+
+            GradeEntryRequest entry;
+            try {
+                entry = objectMapper.readValue(line.content, GradeEntryRequest.class);
+            } catch (JsonProcessingException ex) {
+                results.add(error(line.number, null, INVALID_JSON, ex.getOriginalMessage()));
+                continue;
+            }
+
+            Set<ConstraintViolation<GradeEntryRequest>> violations = validator.validate(entry);
+            if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted(Comparator.naturalOrder())
+                        .findFirst()
+                        .orElse(null);
+                results.add(error(line.number, entry, INVALID_ROW, message));
+                continue;
+            }
+
+            entryPositions.add(results.size());
+            entries.add(entry);
+            results.add(GradeBulkRowResult.builder()
+                    .line(line.number)
+                    .status(STATUS_OK)
+                    .studentId(entry.getStudentId())
+                    .instrumentId(entry.getInstrumentId())
+                    .build());
+        }
+
+        if (entries.isEmpty()) {
+            return results;
+        }
+
+        try {
+            List<GradeEntryError> errors = gradeService.upsertValidGrades(entries, changedBy);
+            for (int i = 0; i < entries.size(); i++) {
+                GradeEntryError error = errors.get(i);
+                if (error != null) {
+                    int position = entryPositions.get(i);
+                    results.set(position, error(results.get(position).getLine(), entries.get(i), error.code(), error.message()));
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Grade bulk chunk starting at line {} failed", chunk.get(0).number, ex);
+            for (int i = 0; i < entries.size(); i++) {
+                int position = entryPositions.get(i);
+                results.set(position, error(results.get(position).getLine(), entries.get(i), CHUNK_FAILED, ex.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    // Like BufferedReader.readLine, but an oversized line is skipped to its end instead of being held in full,
+    // and comes back with null content. Returns null at the end of the input.
+    private BulkLine readLine(BufferedReader reader, StringBuilder buffer, long number, int maxLength) throws IOException {
+        buffer.setLength(0);
+        boolean tooLong = false;
+        int c;
+        while ((c = reader.read()) != -1 && c != '\n') {
+            if (tooLong) {
+                continue;
+            }
+            // One extra character is kept so a trailing '\r' does not count against the limit.
+            if (buffer.length() > maxLength) {
+                tooLong = true;
+            } else {
+                buffer.append((char) c);
+            }
+        }
+        if (c == -1 && buffer.isEmpty() && !tooLong) {
+            return null;
+        }
+        if (!tooLong && !buffer.isEmpty() && buffer.charAt(buffer.length() - 1) == '\r') {
+            buffer.setLength(buffer.length() - 1);
+        }
+        if (tooLong || buffer.length() > maxLength) {
+            return new BulkLine(number, null);
+        }
+        return new BulkLine(number, buffer.toString());
+    }
+
+    private GradeBulkRowResult error(long line, GradeEntryRequest entry, String code, String message) {
+        return GradeBulkRowResult.builder()
+                .line(line)
+                .status(STATUS_ERROR)
+                .studentId(entry == null ? null : entry.getStudentId())
+                .instrumentId(entry == null ? null : entry.getInstrumentId())
+                .code(code)
+                .message(message)
+                .build();
+    }
+
+    private void writeResults(OutputStream outputStream, List<GradeBulkRowResult> results) throws IOException {
+        for (GradeBulkRowResult result : results) {
+            outputStream.write(objectMapper.writeValueAsBytes(result));
+            outputStream.write('\n');
+        }
+        outputStream.flush();
+    }
+
+    // content is null for a line over sara.grades.bulk.max-line-length.
+    private record BulkLine(long number, String content) {
+    }
+}
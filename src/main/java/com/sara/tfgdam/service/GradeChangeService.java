@@ -0,0 +1,178 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.domain.entity.GradeChange;
+import com.sara.tfgdam.domain.entity.GradeChangeCounter;
+import com.sara.tfgdam.dto.ModuleGradeChangesResponse;
+import com.sara.tfgdam.exception.BusinessValidationException;
+import com.sara.tfgdam.exception.ResourceNotFoundException;
+import com.sara.tfgdam.repository.CourseModuleRepository;
+import com.sara.tfgdam.repository.GradeChangeCounterRepository;
+import com.sara.tfgdam.repository.GradeChangeRepository;
+import com.sara.tfgdam.repository.GradeRepository;
+import com.sara.tfgdam.repository.GradeValue;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class GradeChangeService {
+
+    private static final int MAX_LIMIT = 5000;
+
+    private final GradeChangeRepository gradeChangeRepository;
+    private final GradeChangeCounterRepository gradeChangeCounterRepository;
+    private final GradeRepository gradeRepository;
+    private final CourseModuleRepository courseModuleRepository;
+
+    // Grade writes of a module are serialized on its counter row, so sequences are assigned in commit
+    // order and a client polling with since=n never misses a change committed later with a lower number.
+    // It must be the first statement of the write: with repeatable read, later plain reads then see
+    // every change committed before the lock was granted.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockModulesOfStudents(Collection<Long> studentIds) {
+        gradeChangeCounterRepository.findAllForUpdateByStudentIdIn(studentIds);
+    }
+
+    // The same lock for changes that must not interleave with grade writes: closing a period and
+    // structure edits checked against closed periods. Also the first statement of the transaction.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockModule(Long moduleId) {
+        gradeChangeCounterRepository.findForUpdate(moduleId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockModuleOfInstrument(Long instrumentId) {
+        gradeChangeCounterRepository.findForUpdateByInstrumentId(instrumentId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockModuleOfUT(Long utId) {
+        gradeChangeCounterRepository.findForUpdateByUtId(utId);
+    }
+
+    @Transactional
+    public void createCounter(Long moduleId) {
+        gradeChangeCounterRepository.save(GradeChangeCounter.builder().moduleId(moduleId).lastSequence(0).build());
+    }
+
+    // For modules created before the counters existed; runs at startup, before any grade write.
+    @Transactional
+    public void createMissingCounters() {
+        for (Long moduleId : gradeChangeCounterRepository.findModuleIdsWithoutCounter()) {
+            newCounter(moduleId);
+        }
+    }
+
+    // Only entries whose value actually changes are logged; previousValues must be read under the lock.
+    // changedBy gives the author of each new value.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChanges(Map<Long, List<GradeValue>> newValuesByModuleId,
+                              List<GradeValue> previousValues,
+                              Function<GradeValue, String> changedBy) {
+        Map<GradeKey, BigDecimal> previousByKey = new HashMap<>();
+        for (GradeValue value : previousValues) {
+            previousByKey.put(new GradeKey(value.studentId(), value.instrumentId()), value.gradeValue());
+        }
+
+        // Already locked by this transaction, so a plain read.
+        Map<Long, GradeChangeCounter> countersByModuleId = gradeChangeCounterRepository.findAllById(newValuesByModuleId.keySet())
+                .stream()
+                .collect(Collectors.toMap(GradeChangeCounter::getModuleId, Function.identity()));
+
+        OffsetDateTime changedAt = OffsetDateTime.now();
+        List<GradeChange> changes = new ArrayList<>();
+        for (Map.Entry<Long, List<GradeValue>> module : newValuesByModuleId.entrySet()) {
+            Long moduleId = module.getKey();
+            GradeChangeCounter counter = countersByModuleId.computeIfAbsent(moduleId, this::newCounter);
+            long sequence = counter.getLastSequence();
+            for (GradeValue value : module.getValue()) {
+                BigDecimal previous = previousByKey.get(new GradeKey(value.studentId(), value.instrumentId()));
+                if (previous != null && previous.compareTo(value.gradeValue()) == 0) {
+                    continue;
+                }
+                changes.add(GradeChange.builder()
+                        .moduleId(moduleId)
+                        .sequence(++sequence)
+                        .studentId(value.studentId())
+                        .instrumentId(value.instrumentId())
+                        .oldValue(previous)
+                        .newValue(value.gradeValue())
+                        .changedBy(changedBy.apply(value))
+                        .changedAt(changedAt)
+                        .build());
+            }
+            counter.setLastSequence(sequence);
+        }
+
+        if (!changes.isEmpty()) {
+            gradeRepository.insertGradeChanges(changes);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ModuleGradeChangesResponse getChanges(Long moduleId, long since, int limit) {
+        if (!courseModuleRepository.existsById(moduleId)) {
+            throw new ResourceNotFoundException("Module not found: " + moduleId);
+        }
+        if (since < 0) {
+            throw new BusinessValidationException("since must be >= 0");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BusinessValidationException("limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        List<GradeChange> rows = gradeChangeRepository
+                .findByModuleIdAndSequenceGreaterThanOrderBySequence(moduleId, since, Limit.of(limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<GradeChange> page = hasMore ? rows.subList(0, limit) : rows;
+
+        return ModuleGradeChangesResponse.builder()
+                .moduleId(moduleId)
+                .since(since)
+                .nextSince(page.isEmpty() ? since : page.get(page.size() - 1).getSequence())
+                .hasMore(hasMore)
+                .changes(page.stream()
+                        .map(change -> ModuleGradeChangesResponse.ChangeItem.builder()
+                                .sequence(change.getSequence())
+                                .studentId(change.getStudentId())
+                                .instrumentId(change.getInstrumentId())
+                                .oldValue(change.getOldValue())
+                                .newValue(change.getNewValue())
+                                .changedBy(change.getChangedBy())
+                                .changedAt(change.getChangedAt())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    @Transactional
+    public void deleteModuleChanges(Long moduleId) {
+        gradeChangeRepository.deleteByModuleId(moduleId);
+        gradeChangeCounterRepository.deleteById(moduleId);
+    }
+
+    // Every module gets its counter when it is created, so this is only a fallback for rows written
+    // outside the application. A concurrent first write then fails on the key instead of reusing sequences.
+    private GradeChangeCounter newCounter(Long moduleId) {
+        return gradeChangeCounterRepository.save(GradeChangeCounter.builder()
+                .moduleId(moduleId)
+                .lastSequence(gradeChangeRepository.findLastSequence(moduleId))
+                .build());
+    }
+
+    private record GradeKey(Long studentId, Long instrumentId) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.exception.BusinessValidationException;
+import com.sara.tfgdam.exception.ResourceNotFoundException;
+
+public record GradeEntryError(String code, String message) {
+
+    static final String STUDENT_NOT_FOUND = "STUDENT_NOT_FOUND";
+    static final String INSTRUMENT_NOT_FOUND = "INSTRUMENT_NOT_FOUND";
+    static final String MODULE_MISMATCH = "MODULE_MISMATCH";
+    static final String PERIOD_CLOSED = "PERIOD_CLOSED";
+    static final String INSTRUMENT_WITHOUT_RA = "INSTRUMENT_WITHOUT_RA";
+    static final String MODULE_NOT_READY = "MODULE_NOT_READY";
+
+    RuntimeException toException() {
+        return STUDENT_NOT_FOUND.equals(code) || INSTRUMENT_NOT_FOUND.equals(code)
+                ? new ResourceNotFoundException(message)
+                : new BusinessValidationException(message);
+    }
+}
@@ -0,0 +1,327 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.domain.entity.Student;
+import com.sara.tfgdam.dto.GradeBatchRequest;
+import com.sara.tfgdam.dto.GradeEntryRequest;
+import com.sara.tfgdam.dto.GradeIngestionMetricsResponse;
+import com.sara.tfgdam.dto.GradeIngestionTicketResponse;
+import com.sara.tfgdam.exception.ResourceNotFoundException;
+import com.sara.tfgdam.repository.StudentRepository;
+import com.sara.tfgdam.security.AuthenticatedUserResolver;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// Grade entries wait here per module for a short window; a flush writes the last value of every
+// (student, instrument) through GradeService, so the bulk upsert and module revalidation run once
+// per flush instead of once per request. Flushes run on a single thread, which keeps them ordered.
+@Slf4j
+@Service
+public class GradeIngestionQueue {
+
+    private static final String STATUS_PENDING = "PENDING";
+    private static final String STATUS_APPLIED = "APPLIED";
+    private static final String STATUS_FAILED = "FAILED";
+    private static final long MAX_WAIT_MS = 30_000;
+
+    private final GradeService gradeService;
+    private final StudentRepository studentRepository;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
+    private final long flushDelayMs;
+    private final int maxBatchEntries;
+    private final long ticketRetentionMs;
+
+    private final ConcurrentMap<Long, Partition> partitions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "grade-ingestion-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final LongAdder submittedEntries = new LongAdder();
+    private final LongAdder flushedEntries = new LongAdder();
+    private final LongAdder writtenEntries = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final LongAdder totalFlushLatencyMs = new LongAdder();
+    private final AtomicLong lastFlushLatencyMs = new AtomicLong();
+    private final AtomicLong maxFlushLatencyMs = new AtomicLong();
+
+    GradeIngestionQueue(GradeService gradeService,
+                        StudentRepository studentRepository,
+                        AuthenticatedUserResolver authenticatedUserResolver,
+                        @Value("${sara.grades.async.flush-delay-ms:250}") long flushDelayMs,
+                        @Value("${sara.grades.async.max-batch-entries:2000}") int maxBatchEntries,
+                        @Value("${sara.grades.async.ticket-retention-ms:600000}") long ticketRetentionMs) {
+        this.gradeService = gradeService;
+        this.studentRepository = studentRepository;
+        this.authenticatedUserResolver = authenticatedUserResolver;
+        this.flushDelayMs = Math.max(0, flushDelayMs);
+        this.maxBatchEntries = Math.max(1, maxBatchEntries);
+        this.ticketRetentionMs = Math.max(0, ticketRetentionMs);
+        long sweepMs = Math.max(1_000, this.ticketRetentionMs);
+        flushExecutor.scheduleWithFixedDelay(this::evictCompletedTickets, sweepMs, sweepMs, TimeUnit.MILLISECONDS);
+    }
+
+    public GradeIngestionTicketResponse submit(GradeBatchRequest request) {
+        List<GradeEntryRequest> entries = request.getGrades();
+        String changedBy = authenticatedUserResolver.getCurrentUsername();
+        Set<Long> studentIds = entries.stream().map(GradeEntryRequest::getStudentId).collect(Collectors.toSet());
+        Map<Long, Long> moduleIdByStudentId = studentRepository.findAllById(studentIds).stream()
+                .collect(Collectors.toMap(Student::getId, student -> student.getModule().getId()));
+
+        Map<Long, List<GradeEntryRequest>> entriesByModuleId = new LinkedHashMap<>();
+        for (GradeEntryRequest entry : entries) {
+            Long moduleId = moduleIdByStudentId.get(entry.getStudentId());
+            if (moduleId == null) {
+                throw new ResourceNotFoundException("Student not found: " + entry.getStudentId());
+            }
+            entriesByModuleId.computeIfAbsent(moduleId, k -> new ArrayList<>()).add(entry);
+        }
+
+        List<CompletableFuture<Void>> flushes = new ArrayList<>();
+        entriesByModuleId.forEach((moduleId, moduleEntries) -> flushes.add(enqueue(moduleId, moduleEntries, changedBy)));
+
+        Ticket ticket = new Ticket(
+                UUID.randomUUID().toString(),
+                entries.size(),
+                List.copyOf(entriesByModuleId.keySet()),
+                OffsetDateTime.now(),
+                CompletableFuture.allOf(flushes.toArray(CompletableFuture[]::new))
+        );
+        tickets.put(ticket.token, ticket);
+        return toResponse(ticket);
+    }
+
+    // Waits up to waitMs (capped) for the ticket's entries to be committed before answering.
+    public GradeIngestionTicketResponse getTicket(String token, long waitMs) {
+        Ticket ticket = tickets.get(token);
+        if (ticket == null) {
+            throw new ResourceNotFoundException("Grade ingestion token not found: " + token);
+        }
+
+        if (waitMs > 0 && !ticket.completion.isDone()) {
+            try {
+                ticket.completion.get(Math.min(waitMs, MAX_WAIT_MS), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | ExecutionException ignored) {
+                // The response reports whatever state the ticket reached.
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return toResponse(ticket);
+    }
+
+    public GradeIngestionMetricsResponse getMetrics() {
+        int pendingModules = 0;
+        for (Partition partition : partitions.values()) {
+            synchronized (partition) {
+                if (!partition.submissions.isEmpty()) {
+                    pendingModules++;
+                }
+            }
+        }
+
+        long flushes = flushCount.sum();
+        long flushed = flushedEntries.sum();
+        long written = writtenEntries.sum();
+        return GradeIngestionMetricsResponse.builder()
+                .queueDepth(queueDepth.get())
+                .pendingModules(pendingModules)
+                .submittedEntries(submittedEntries.sum())
+                .flushedEntries(flushed)
+                .writtenEntries(written)
+                .coalescingRatio(written == 0
+                        ? BigDecimal.ONE.setScale(2)
+                        : BigDecimal.valueOf(flushed).divide(BigDecimal.valueOf(written), 2, RoundingMode.HALF_UP))
+                .flushCount(flushes)
+                .failedFlushes(failedFlushes.sum())
+                .lastFlushLatencyMs(lastFlushLatencyMs.get())
+                .averageFlushLatencyMs(flushes == 0 ? 0 : totalFlushLatencyMs.sum() / flushes)
+                .maxFlushLatencyMs(maxFlushLatencyMs.get())
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Delayed flushes still run after shutdown(), so queued entries are written before the context closes.
+        flushExecutor.shutdown();
+        if (!flushExecutor.awaitTermination(flushDelayMs + MAX_WAIT_MS, TimeUnit.MILLISECONDS)) {
+            log.warn("Grade ingestion queue stopped with {} entries not written", queueDepth.get());
+            flushExecutor.shutdownNow();
+        }
+    }
+
+    private CompletableFuture<Void> enqueue(Long moduleId, List<GradeEntryRequest> entries, String changedBy) {
+        Submission submission = new Submission(List.copyOf(entries), changedBy, new CompletableFuture<>());
+        Partition partition = partitions.computeIfAbsent(moduleId, k -> new Partition());
+
+        synchronized (partition) {
+            if (partition.submissions.isEmpty()) {
+                partition.firstQueuedAt = System.nanoTime();
+            }
+            partition.submissions.add(submission);
+            partition.entryCount += entries.size();
+            queueDepth.addAndGet(entries.size());
+            submittedEntries.add(entries.size());
+
+            if (partition.entryCount >= maxBatchEntries) {
+                partition.flushScheduled = true;
+                flushExecutor.execute(() -> flush(moduleId));
+            } else if (!partition.flushScheduled) {
+                partition.flushScheduled = true;
+                flushExecutor.schedule(() -> flush(moduleId), flushDelayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        return submission.done;
+    }
+
+    private void flush(Long moduleId) {
+        Partition partition = partitions.get(moduleId);
+        List<Submission> submissions;
+        long firstQueuedAt;
+        synchronized (partition) {
+            if (partition.submissions.isEmpty()) {
+                return;
+            }
+            submissions = new ArrayList<>(partition.submissions);
+            firstQueuedAt = partition.firstQueuedAt;
+            queueDepth.addAndGet(-partition.entryCount);
+            flushedEntries.add(partition.entryCount);
+            partition.submissions.clear();
+            partition.entryCount = 0;
+            partition.flushScheduled = false;
+        }
+
+        Map<GradeKey, GradeEntryRequest> latestByKey = new LinkedHashMap<>();
+        Map<GradeKey, String> changedByKey = new HashMap<>();
+        for (Submission submission : submissions) {
+            for (GradeEntryRequest entry : submission.entries) {
+                GradeKey key = new GradeKey(entry.getStudentId(), entry.getInstrumentId());
+                latestByKey.put(key, entry);
+                changedByKey.put(key, submission.changedBy);
+            }
+        }
+
+        // The winning value of each key keeps its own author in the change log.
+        List<GradeEntryRequest> latest = new ArrayList<>(latestByKey.values());
+        List<String> changedBy = latestByKey.keySet().stream().map(changedByKey::get).toList();
+
+        try {
+            gradeService.upsertCoalescedGrades(latest, changedBy);
+            writtenEntries.add(latest.size());
+            submissions.forEach(submission -> submission.done.complete(null));
+        } catch (RuntimeException ex) {
+            failedFlushes.increment();
+            log.info("Coalesced grade flush failed for module {}, applying {} submissions one by one: {}",
+                    moduleId, submissions.size(), ex.getMessage());
+            // The coalesced write rolled back as a whole, so nothing of it is stored. A single bad submission
+            // must not fail the ones queued with it; replaying in arrival order keeps last-write-wins.
+            for (Submission submission : submissions) {
+                try {
+                    gradeService.upsertGrades(toRequest(submission.entries), submission.changedBy);
+                    writtenEntries.add(submission.entries.size());
+                    submission.done.complete(null);
+                } catch (RuntimeException submissionEx) {
+                    submission.done.completeExceptionally(submissionEx);
+                }
+            }
+        }
+
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - firstQueuedAt);
+        flushCount.increment();
+        totalFlushLatencyMs.add(latencyMs);
+        lastFlushLatencyMs.set(latencyMs);
+        maxFlushLatencyMs.accumulateAndGet(latencyMs, Math::max);
+    }
+
+    private void evictCompletedTickets() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(ticketRetentionMs));
+        tickets.values().removeIf(ticket -> ticket.completedAt != null && ticket.completedAt.isBefore(cutoff));
+    }
+
+    private GradeBatchRequest toRequest(List<GradeEntryRequest> entries) {
+        GradeBatchRequest request = new GradeBatchRequest();
+        request.setGrades(entries);
+        return request;
+    }
+
+    private GradeIngestionTicketResponse toResponse(Ticket ticket) {
+        String status = !ticket.completion.isDone()
+                ? STATUS_PENDING
+                : ticket.completion.isCompletedExceptionally() ? STATUS_FAILED : STATUS_APPLIED;
+        return GradeIngestionTicketResponse.builder()
+                .token(ticket.token)
+                .status(status)
+                .entryCount(ticket.entryCount)
+                .moduleIds(ticket.moduleIds)
+                .submittedAt(ticket.submittedAt)
+                .completedAt(ticket.completedAt)
+                .error(ticket.error)
+                .build();
+    }
+
+    private record GradeKey(Long studentId, Long instrumentId) {
+    }
+
+    private record Submission(List<GradeEntryRequest> entries, String changedBy, CompletableFuture<Void> done) {
+    }
+
+    private static final class Partition {
+        private final List<Submission> submissions = new ArrayList<>();
+        private int entryCount;
+        private long firstQueuedAt;
+        private boolean flushScheduled;
+    }
+
+    private static final class Ticket {
+        private final String token;
+        private final int entryCount;
+        private final List<Long> moduleIds;
+        private final OffsetDateTime submittedAt;
+        private final CompletableFuture<Void> completion;
+        private volatile OffsetDateTime completedAt;
+        private volatile String error;
+
+        private Ticket(String token, int entryCount, List<Long> moduleIds, OffsetDateTime submittedAt,
+                       CompletableFuture<Void> flushes) {
+            this.token = token;
+            this.entryCount = entryCount;
+            this.moduleIds = moduleIds;
+            this.submittedAt = submittedAt;
+            // Completion is only visible once completedAt and error are set.
+            this.completion = flushes.whenComplete((ignored, ex) -> {
+                completedAt = OffsetDateTime.now();
+                if (ex != null) {
+                    error = (ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex).getMessage();
+                }
+            });
+        }
+    }
+}
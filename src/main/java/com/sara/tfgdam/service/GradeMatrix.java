@@ -0,0 +1,99 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.domain.entity.Student;
+import com.sara.tfgdam.repository.GradeValue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Grades of a group of students as one column of hundredths per plan instrument (0 when missing),
+// so the plan can walk each instrument across every student in a single pass. Rows whose grades do
+// not fit in hundredths, or every row when the module has no plan, keep their decimal grade map.
+final class GradeMatrix {
+
+    private final List<Student> students;
+    private final short[][] columns;
+    private final boolean[] decimalOnly;
+    private final Map<Integer, Map<Long, BigDecimal>> decimalGradesByRow;
+
+    private GradeMatrix(List<Student> students,
+                        short[][] columns,
+                        boolean[] decimalOnly,
+                        Map<Integer, Map<Long, BigDecimal>> decimalGradesByRow) {
+        this.students = students;
+        this.columns = columns;
+        this.decimalOnly = decimalOnly;
+        this.decimalGradesByRow = decimalGradesByRow;
+    }
+
+    static GradeMatrix load(CompiledGradePlan plan, List<Student> students, List<GradeValue> grades) {
+        int rowCount = students.size();
+        Map<Long, Integer> rowByStudentId = new HashMap<>(rowCount * 2);
+        for (int row = 0; row < rowCount; row++) {
+            rowByStudentId.put(students.get(row).getId(), row);
+        }
+
+        boolean[] decimalOnly = new boolean[rowCount];
+        short[][] columns = null;
+        if (plan == null) {
+            Arrays.fill(decimalOnly, true);
+        } else {
+            columns = new short[plan.instrumentCount()][rowCount];
+        }
+
+        boolean anyDecimal = plan == null;
+        if (plan != null) {
+            for (GradeValue grade : grades) {
+                Integer row = rowByStudentId.get(grade.studentId());
+                int column = plan.instrumentIndex(grade.instrumentId());
+                if (row == null || column < 0 || decimalOnly[row]) {
+                    continue;
+                }
+
+                long hundredths = CompiledGradePlan.toHundredths(grade.gradeValue());
+                if (hundredths == CompiledGradePlan.NOT_REPRESENTABLE) {
+                    decimalOnly[row] = true;
+                    anyDecimal = true;
+                } else {
+                    columns[column][row] = (short) hundredths;
+                }
+            }
+        }
+
+        Map<Integer, Map<Long, BigDecimal>> decimalGradesByRow = new HashMap<>();
+        if (anyDecimal) {
+            for (GradeValue grade : grades) {
+                Integer row = rowByStudentId.get(grade.studentId());
+                if (row != null && decimalOnly[row]) {
+                    decimalGradesByRow.computeIfAbsent(row, k -> new HashMap<>())
+                            .put(grade.instrumentId(), grade.gradeValue());
+                }
+            }
+        }
+
+        return new GradeMatrix(students, columns, decimalOnly, decimalGradesByRow);
+    }
+
+    int rowCount() {
+        return students.size();
+    }
+
+    Student student(int row) {
+        return students.get(row);
+    }
+
+    short[] column(int instrumentIndex) {
+        return columns[instrumentIndex];
+    }
+
+    boolean isDecimalOnly(int row) {
+        return decimalOnly[row];
+    }
+
+    Map<Long, BigDecimal> decimalGrades(int row) {
+        return decimalGradesByRow.getOrDefault(row, Map.of());
+    }
+}
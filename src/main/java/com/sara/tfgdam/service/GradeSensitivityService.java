@@ -0,0 +1,103 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.domain.entity.Activity;
+import com.sara.tfgdam.domain.entity.Instrument;
+import com.sara.tfgdam.domain.entity.Student;
+import com.sara.tfgdam.dto.ModuleFinalReportResponse;
+import com.sara.tfgdam.dto.ModuleSensitivityResponse;
+import com.sara.tfgdam.dto.ReportFreshnessDto;
+import com.sara.tfgdam.dto.StudentFinalReportRow;
+import com.sara.tfgdam.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class GradeSensitivityService {
+
+    private static final String SOURCE_ESTIMATE = "ESTIMATE";
+    private static final int COEFFICIENT_SCALE = 6;
+
+    private final CalculationService calculationService;
+    private final StudentRepository studentRepository;
+
+    @Transactional(readOnly = true)
+    public ModuleSensitivityResponse getSensitivity(Long moduleId) {
+        CalculationService.ModuleContext context = calculationService.buildContext(moduleId);
+        LinearGradeModel model = context.linearModel();
+        double[] finalCoefficients = model.finalCoefficients();
+        List<Instrument> instruments = context.instruments();
+
+        List<ModuleSensitivityResponse.InstrumentItem> items = new ArrayList<>(instruments.size());
+        for (int i = 0; i < instruments.size(); i++) {
+            Instrument instrument = instruments.get(i);
+            Activity activity = instrument.getActivity();
+            Integer evaluationPeriod = context.evaluationPeriodByUtId().get(activity.getTeachingUnit().getId());
+            double[] evaluationCoefficients = model.evaluationCoefficients().get(evaluationPeriod);
+
+            items.add(ModuleSensitivityResponse.InstrumentItem.builder()
+                    .instrumentId(instrument.getId())
+                    .instrumentName(instrument.getName())
+                    .activityId(activity.getId())
+                    .activityName(activity.getName())
+                    .evaluationPeriod(evaluationPeriod)
+                    .weightPercent(instrument.getWeightPercent())
+                    .finalCoefficient(toCoefficient(finalCoefficients[i]))
+                    .evaluationCoefficient(toCoefficient(evaluationCoefficients != null ? evaluationCoefficients[i] : 0))
+                    .build());
+        }
+
+        items.sort(Comparator.comparing(ModuleSensitivityResponse.InstrumentItem::getFinalCoefficient).reversed()
+                .thenComparing(ModuleSensitivityResponse.InstrumentItem::getInstrumentId));
+
+        return ModuleSensitivityResponse.builder()
+                .moduleId(moduleId)
+                .instruments(items)
+                .build();
+    }
+
+    // One dot product per student; may differ from the exact report in the last decimal because the
+    // per-node roundings are skipped.
+    @Transactional(readOnly = true)
+    public ModuleFinalReportResponse estimateModuleFinalReport(Long moduleId) {
+        CalculationService.ModuleContext context = calculationService.buildContext(moduleId);
+        LinearGradeModel model = context.linearModel();
+
+        List<Student> students = studentRepository.findByModuleId(moduleId).stream()
+                .sorted(Comparator.comparing(Student::getStudentCode))
+                .toList();
+        Map<Long, Map<Long, BigDecimal>> gradesByStudent = calculationService.buildGradesByStudent(students);
+
+        List<StudentFinalReportRow> rows = new ArrayList<>(students.size());
+        for (Student student : students) {
+            double finalGrade = model.apply(model.finalCoefficients(), gradesByStudent.getOrDefault(student.getId(), Map.of()));
+            rows.add(StudentFinalReportRow.builder()
+                    .studentId(student.getId())
+                    .studentCode(student.getStudentCode())
+                    .studentName(student.getFullName())
+                    .finalGrade(BigDecimal.valueOf(finalGrade).setScale(CompiledGradePlan.RESULT_SCALE, RoundingMode.HALF_UP))
+                    .build());
+        }
+
+        return ModuleFinalReportResponse.builder()
+                .moduleId(moduleId)
+                .students(rows)
+                .freshness(ReportFreshnessDto.builder()
+                        .source(SOURCE_ESTIMATE)
+                        .stale(false)
+                        .build())
+                .build();
+    }
+
+    private BigDecimal toCoefficient(double value) {
+        return BigDecimal.valueOf(value).setScale(COEFFICIENT_SCALE, RoundingMode.HALF_UP);
+    }
+}
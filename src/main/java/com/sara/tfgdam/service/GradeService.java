@@ -5,21 +5,28 @@ import com.sara.tfgdam.domain.entity.Instrument;
 import com.sara.tfgdam.domain.entity.Student;
 import com.sara.tfgdam.dto.GradeBatchRequest;
 import com.sara.tfgdam.dto.GradeEntryRequest;
-import com.sara.tfgdam.exception.BusinessValidationException;
-import com.sara.tfgdam.exception.ResourceNotFoundException;
+import com.sara.tfgdam.dto.ModuleReadinessResponse;
 import com.sara.tfgdam.repository.GradeRepository;
+import com.sara.tfgdam.repository.GradeValue;
 import com.sara.tfgdam.repository.InstrumentRARepository;
 import com.sara.tfgdam.repository.InstrumentRepository;
 import com.sara.tfgdam.repository.StudentRepository;
-import com.sara.tfgdam.validation.ConfigurationValidator;
+import com.sara.tfgdam.security.AuthenticatedUserResolver;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -29,46 +36,199 @@ public class GradeService {
     private final StudentRepository studentRepository;
     private final InstrumentRepository instrumentRepository;
     private final InstrumentRARepository instrumentRARepository;
-    private final ConfigurationValidator configurationValidator;
+    private final ModuleReadinessService moduleReadinessService;
+    private final StudentResultService studentResultService;
+    private final EvaluationClosureService evaluationClosureService;
+    private final ModuleVersionTracker moduleVersionTracker;
+    private final GradeChangeService gradeChangeService;
+    private final AuthenticatedUserResolver authenticatedUserResolver;
 
     @Transactional
     public List<Grade> upsertGrades(GradeBatchRequest request) {
-        Set<Long> moduleIdsToValidate = new HashSet<>();
-        List<Grade> results = new ArrayList<>();
-
-        for (GradeEntryRequest entry : request.getGrades()) {
-            Student student = studentRepository.findById(entry.getStudentId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Student not found: " + entry.getStudentId()));
-            Instrument instrument = instrumentRepository.findById(entry.getInstrumentId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Instrument not found: " + entry.getInstrumentId()));
-
-            Long studentModuleId = student.getModule().getId();
-            Long instrumentModuleId = instrument.getActivity().getModule().getId();
-            if (!studentModuleId.equals(instrumentModuleId)) {
-                throw new BusinessValidationException("Student and instrument must belong to the same module");
+        return upsertGrades(request, authenticatedUserResolver.getCurrentUsername());
+    }
+
+    // Students, instruments and RA links are read with one query each, the grades are written as
+    // multi-row upserts and read back once for the response. changedBy is recorded in the change log.
+    @Transactional
+    public List<Grade> upsertGrades(GradeBatchRequest request, String changedBy) {
+        List<GradeEntryRequest> entries = request.getGrades();
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+
+        ValidatedBatch batch = validate(entries);
+        for (GradeEntryError error : batch.errors()) {
+            if (error != null) {
+                throw error.toException();
+            }
+        }
+        write(entries, batch, Collections.nCopies(entries.size(), changedBy));
+
+        Map<GradeKey, Grade> gradesByKey = new HashMap<>();
+        for (Grade grade : gradeRepository.findByStudentIdInAndInstrumentIdIn(batch.studentIds(), batch.instrumentIds())) {
+            gradesByKey.put(new GradeKey(grade.getStudent().getId(), grade.getInstrument().getId()), grade);
+        }
+        return entries.stream()
+                .map(entry -> gradesByKey.get(new GradeKey(entry.getStudentId(), entry.getInstrumentId())))
+                .toList();
+    }
+
+    // Same checks as upsertGrades, but a failing entry is skipped instead of rolling back the others.
+    // The result has one slot per entry, null when the entry was written.
+    @Transactional
+    public List<GradeEntryError> upsertValidGrades(List<GradeEntryRequest> entries, String changedBy) {
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+
+        ValidatedBatch batch = validate(entries);
+
+        // Readiness is checked up front here; the write would otherwise fail after the upsert and undo the whole batch.
+        Map<Long, GradeEntryError> readinessErrors = new HashMap<>();
+        for (Long moduleId : new HashSet<>(batch.moduleIds())) {
+            if (moduleId == null) {
+                continue;
+            }
+            ModuleReadinessResponse readiness = moduleReadinessService.getReadiness(moduleId);
+            if (!readiness.isReady()) {
+                readinessErrors.put(moduleId, new GradeEntryError(GradeEntryError.MODULE_NOT_READY, readiness.getViolations().get(0)));
+            }
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            if (batch.errors().get(i) == null && readinessErrors.containsKey(batch.moduleIds().get(i))) {
+                batch.errors().set(i, readinessErrors.get(batch.moduleIds().get(i)));
             }
+        }
+
+        write(entries, batch, Collections.nCopies(entries.size(), changedBy));
+        return batch.errors();
+    }
+
+    // Writes entries coming from several requests in one transaction; each entry keeps its own author
+    // in the change log. Fails as a whole like upsertGrades.
+    @Transactional
+    public void upsertCoalescedGrades(List<GradeEntryRequest> entries, List<String> changedBy) {
+        if (entries.isEmpty()) {
+            return;
+        }
 
-            if (instrumentRARepository.findByInstrumentId(instrument.getId()).isEmpty()) {
-                throw new BusinessValidationException(
-                        "Instrument " + instrument.getId() + " has no RA associations. Link instrument-RA before adding grades."
-                );
+        ValidatedBatch batch = validate(entries);
+        for (GradeEntryError error : batch.errors()) {
+            if (error != null) {
+                throw error.toException();
             }
+        }
+        write(entries, batch, changedBy);
+    }
+
+    private ValidatedBatch validate(List<GradeEntryRequest> entries) {
+        Set<Long> studentIds = entries.stream().map(GradeEntryRequest::getStudentId).collect(Collectors.toSet());
+        Set<Long> instrumentIds = entries.stream().map(GradeEntryRequest::getInstrumentId).collect(Collectors.toSet());
+
+        gradeChangeService.lockModulesOfStudents(studentIds);
+        Map<Long, Student> studentsById = studentRepository.findAllById(studentIds).stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        Map<Long, Instrument> instrumentsById = instrumentRepository.findDetailedByIdIn(instrumentIds).stream()
+                .collect(Collectors.toMap(Instrument::getId, Function.identity()));
+        Set<Long> linkedInstrumentIds = new HashSet<>(instrumentRARepository.findLinkedInstrumentIds(instrumentIds));
+        Map<Long, Set<Integer>> closedPeriodsByModuleId = new HashMap<>();
+
+        List<Long> moduleIds = new ArrayList<>(entries.size());
+        List<GradeEntryError> errors = new ArrayList<>(entries.size());
+        for (GradeEntryRequest entry : entries) {
+            Student student = studentsById.get(entry.getStudentId());
+            Instrument instrument = instrumentsById.get(entry.getInstrumentId());
+            GradeEntryError error = validateEntry(entry, student, instrument, linkedInstrumentIds, closedPeriodsByModuleId);
+            moduleIds.add(error == null ? student.getModule().getId() : null);
+            errors.add(error);
+        }
+
+        return new ValidatedBatch(studentIds, instrumentIds, moduleIds, errors);
+    }
+
+    private GradeEntryError validateEntry(GradeEntryRequest entry,
+                                          Student student,
+                                          Instrument instrument,
+                                          Set<Long> linkedInstrumentIds,
+                                          Map<Long, Set<Integer>> closedPeriodsByModuleId) {
+        if (student == null) {
+            return new GradeEntryError(GradeEntryError.STUDENT_NOT_FOUND, "Student not found: " + entry.getStudentId());
+        }
+        if (instrument == null) {
+            return new GradeEntryError(GradeEntryError.INSTRUMENT_NOT_FOUND, "Instrument not found: " + entry.getInstrumentId());
+        }
+
+        Long studentModuleId = student.getModule().getId();
+        Long instrumentModuleId = instrument.getActivity().getModule().getId();
+        if (!studentModuleId.equals(instrumentModuleId)) {
+            return new GradeEntryError(GradeEntryError.MODULE_MISMATCH, "Student and instrument must belong to the same module");
+        }
+
+        Integer evaluationPeriod = instrument.getActivity().getTeachingUnit().getEvaluationPeriod();
+        if (closedPeriodsByModuleId.computeIfAbsent(studentModuleId, evaluationClosureService::findClosedPeriods)
+                .contains(evaluationPeriod)) {
+            return new GradeEntryError(
+                    GradeEntryError.PERIOD_CLOSED,
+                    "Evaluation period " + evaluationPeriod + " is closed. Grades of instrument " + instrument.getId() + " cannot be changed."
+            );
+        }
 
-            Grade grade = gradeRepository.findByStudentIdAndInstrumentId(student.getId(), instrument.getId())
-                    .orElseGet(() -> Grade.builder()
-                            .student(student)
-                            .instrument(instrument)
-                            .build());
+        if (!linkedInstrumentIds.contains(instrument.getId())) {
+            return new GradeEntryError(
+                    GradeEntryError.INSTRUMENT_WITHOUT_RA,
+                    "Instrument " + instrument.getId() + " has no RA associations. Link instrument-RA before adding grades."
+            );
+        }
+        return null;
+    }
 
-            grade.setGradeValue(entry.getGradeValue());
-            results.add(gradeRepository.save(grade));
-            moduleIdsToValidate.add(studentModuleId);
+    // Writes the entries without an error; a later entry for the same (student, instrument) wins,
+    // together with its author (changedBy has one slot per entry).
+    private void write(List<GradeEntryRequest> entries, ValidatedBatch batch, List<String> changedBy) {
+        Map<Long, Map<GradeKey, BigDecimal>> valuesByModuleId = new LinkedHashMap<>();
+        Map<GradeKey, String> changedByKey = new HashMap<>();
+        Map<Long, Map<Long, Set<Long>>> changedInstrumentIdsByModuleId = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (batch.errors().get(i) != null) {
+                continue;
+            }
+            GradeEntryRequest entry = entries.get(i);
+            Long moduleId = batch.moduleIds().get(i);
+            GradeKey key = new GradeKey(entry.getStudentId(), entry.getInstrumentId());
+            valuesByModuleId.computeIfAbsent(moduleId, k -> new LinkedHashMap<>()).put(key, entry.getGradeValue());
+            changedByKey.put(key, changedBy.get(i));
+            changedInstrumentIdsByModuleId.computeIfAbsent(moduleId, k -> new HashMap<>())
+                    .computeIfAbsent(entry.getStudentId(), k -> new HashSet<>())
+                    .add(entry.getInstrumentId());
         }
+        if (valuesByModuleId.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<GradeValue>> newValuesByModuleId = new LinkedHashMap<>();
+        valuesByModuleId.forEach((moduleId, values) -> newValuesByModuleId.put(moduleId, values.entrySet().stream()
+                .map(value -> new GradeValue(value.getKey().studentId(), value.getKey().instrumentId(), value.getValue()))
+                .toList()));
+
+        List<GradeValue> previousValues = gradeRepository.findValuesByStudentIdInAndInstrumentIdIn(batch.studentIds(), batch.instrumentIds());
+        gradeRepository.upsertGradeValues(newValuesByModuleId.values().stream().flatMap(List::stream).toList());
+        gradeChangeService.recordChanges(newValuesByModuleId, previousValues,
+                value -> changedByKey.get(new GradeKey(value.studentId(), value.instrumentId())));
 
-        for (Long moduleId : moduleIdsToValidate) {
-            configurationValidator.validateModuleReadyForCalculations(moduleId);
+        for (Map.Entry<Long, Map<Long, Set<Long>>> entry : changedInstrumentIdsByModuleId.entrySet()) {
+            moduleReadinessService.ensureReady(entry.getKey());
+            studentResultService.refreshStudents(entry.getKey(), entry.getValue());
+            moduleVersionTracker.dataChanged(entry.getKey());
         }
+    }
+
+    private record GradeKey(Long studentId, Long instrumentId) {
+    }
 
-        return results;
+    private record ValidatedBatch(Set<Long> studentIds,
+                                  Set<Long> instrumentIds,
+                                  List<Long> moduleIds,
+                                  List<GradeEntryError> errors) {
     }
 }
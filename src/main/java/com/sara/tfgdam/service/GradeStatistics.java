@@ -0,0 +1,119 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.dto.GradeStatisticsDto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+// Mergeable single-pass accumulator: Welford mean/variance (combined with Chan's formula) plus a
+// count per hundredth of a point. The hundredth counts give the 0-10 histogram and a median exact
+// to two decimals, and keep the memory fixed whatever the number of grades.
+final class GradeStatistics {
+
+    private static final BigDecimal PASS_GRADE = new BigDecimal("5.00");
+    private static final int MAX_HUNDREDTHS = 1000;
+    private static final int HISTOGRAM_BUCKETS = 10;
+
+    private final long[] hundredthCounts = new long[MAX_HUNDREDTHS + 1];
+    private long count;
+    private double mean;
+    private double m2;
+    private long passCount;
+    private BigDecimal min;
+    private BigDecimal max;
+
+    void add(BigDecimal grade) {
+        if (grade == null) {
+            return;
+        }
+
+        double value = grade.doubleValue();
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+
+        if (grade.compareTo(PASS_GRADE) >= 0) {
+            passCount++;
+        }
+        min = min == null || grade.compareTo(min) < 0 ? grade : min;
+        max = max == null || grade.compareTo(max) > 0 ? grade : max;
+
+        int hundredths = grade.setScale(2, RoundingMode.HALF_UP).unscaledValue().intValue();
+        hundredthCounts[Math.max(0, Math.min(MAX_HUNDREDTHS, hundredths))]++;
+    }
+
+    GradeStatistics merge(GradeStatistics other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            mean = other.mean;
+            m2 = other.m2;
+        } else {
+            long total = count + other.count;
+            double delta = other.mean - mean;
+            mean += delta * other.count / total;
+            m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        }
+
+        count += other.count;
+        passCount += other.passCount;
+        min = min == null || (other.min != null && other.min.compareTo(min) < 0) ? other.min : min;
+        max = max == null || (other.max != null && other.max.compareTo(max) > 0) ? other.max : max;
+        for (int i = 0; i <= MAX_HUNDREDTHS; i++) {
+            hundredthCounts[i] += other.hundredthCounts[i];
+        }
+        return this;
+    }
+
+    GradeStatisticsDto toDto() {
+        List<Long> histogram = new ArrayList<>(HISTOGRAM_BUCKETS);
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            histogram.add(0L);
+        }
+        // Bucket i holds [i, i + 1); the last bucket also takes the 10s.
+        for (int i = 0; i <= MAX_HUNDREDTHS; i++) {
+            int bucket = Math.min(HISTOGRAM_BUCKETS - 1, i / 100);
+            histogram.set(bucket, histogram.get(bucket) + hundredthCounts[i]);
+        }
+
+        if (count == 0) {
+            return GradeStatisticsDto.builder()
+                    .count(0)
+                    .histogram(histogram)
+                    .build();
+        }
+
+        return GradeStatisticsDto.builder()
+                .count(count)
+                .mean(BigDecimal.valueOf(mean).setScale(4, RoundingMode.HALF_UP))
+                .median(median())
+                .standardDeviation(BigDecimal.valueOf(Math.sqrt(m2 / count)).setScale(4, RoundingMode.HALF_UP))
+                .min(min)
+                .max(max)
+                .passPercent(BigDecimal.valueOf(passCount * 100.0 / count).setScale(2, RoundingMode.HALF_UP))
+                .histogram(histogram)
+                .build();
+    }
+
+    private BigDecimal median() {
+        long lowerRank = (count - 1) / 2;
+        long upperRank = count / 2;
+        int lower = -1;
+        int upper = -1;
+        long seen = 0;
+        for (int i = 0; i <= MAX_HUNDREDTHS && upper < 0; i++) {
+            seen += hundredthCounts[i];
+            if (lower < 0 && seen > lowerRank) {
+                lower = i;
+            }
+            if (seen > upperRank) {
+                upper = i;
+            }
+        }
+        return BigDecimal.valueOf(lower + upper).divide(BigDecimal.valueOf(200), 2, RoundingMode.HALF_UP);
+    }
+}
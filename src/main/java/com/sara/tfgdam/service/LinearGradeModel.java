@@ -0,0 +1,218 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.domain.entity.Activity;
+import com.sara.tfgdam.domain.entity.Instrument;
+import com.sara.tfgdam.domain.entity.InstrumentRA;
+import com.sara.tfgdam.domain.entity.LearningOutcomeRA;
+import com.sara.tfgdam.domain.entity.TeachingUnitUT;
+import com.sara.tfgdam.domain.entity.UTRALink;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// The instrument -> RA -> final chain of CalculationService is a fixed weighted average once the module
+// structure is known. Each vector holds, per instrument (in context order), how much one point on
+// that instrument adds to the target grade; the intermediate setScale(4) roundings are left out, so
+// a dot product is an estimate and the exact figures still come from computeForStudent.
+final class LinearGradeModel {
+
+    private final List<Long> instrumentIds;
+    private final Map<Long, double[]> raCoefficients;
+    private final Map<Integer, Map<Long, double[]>> raEvaluationCoefficients;
+    private final Map<Integer, double[]> evaluationCoefficients;
+    private final double[] finalCoefficients;
+
+    private LinearGradeModel(List<Long> instrumentIds,
+                             Map<Long, double[]> raCoefficients,
+                             Map<Integer, Map<Long, double[]>> raEvaluationCoefficients,
+                             Map<Integer, double[]> evaluationCoefficients,
+                             double[] finalCoefficients) {
+        this.instrumentIds = instrumentIds;
+        this.raCoefficients = raCoefficients;
+        this.raEvaluationCoefficients = raEvaluationCoefficients;
+        this.evaluationCoefficients = evaluationCoefficients;
+        this.finalCoefficients = finalCoefficients;
+    }
+
+    static LinearGradeModel build(List<LearningOutcomeRA> ras,
+                                  List<TeachingUnitUT> uts,
+                                  List<UTRALink> utRaLinks,
+                                  List<Activity> activities,
+                                  List<Instrument> instruments,
+                                  List<InstrumentRA> instrumentRAs) {
+        int instrumentCount = instruments.size();
+        List<Long> instrumentIds = instruments.stream().map(Instrument::getId).toList();
+
+        Map<Long, Set<Long>> raIdsByInstrumentId = new HashMap<>();
+        for (InstrumentRA link : instrumentRAs) {
+            raIdsByInstrumentId
+                    .computeIfAbsent(link.getInstrument().getId(), k -> new HashSet<>())
+                    .add(link.getLearningOutcome().getId());
+        }
+
+        Map<Long, Long> activityIdByUtId = new HashMap<>();
+        for (Activity activity : activities) {
+            activityIdByUtId.put(activity.getTeachingUnit().getId(), activity.getId());
+        }
+
+        Map<Long, List<Integer>> instrumentIndexesByActivityId = new HashMap<>();
+        for (int i = 0; i < instrumentCount; i++) {
+            instrumentIndexesByActivityId
+                    .computeIfAbsent(instruments.get(i).getActivity().getId(), k -> new ArrayList<>())
+                    .add(i);
+        }
+
+        Map<Long, Integer> evaluationPeriodByUtId = new HashMap<>();
+        for (TeachingUnitUT ut : uts) {
+            evaluationPeriodByUtId.put(ut.getId(), ut.getEvaluationPeriod());
+        }
+
+        Map<Long, double[]> raCoefficients = new LinkedHashMap<>();
+        for (LearningOutcomeRA ra : ras) {
+            raCoefficients.put(ra.getId(), new double[instrumentCount]);
+        }
+
+        Map<Integer, Map<Long, List<UTRALink>>> linksByEvaluationAndRa = new TreeMap<>();
+        Map<Long, double[]> linkCoefficients = new HashMap<>();
+
+        for (UTRALink link : utRaLinks) {
+            Long raId = link.getLearningOutcome().getId();
+            double[] linkVector = linkCoefficients(
+                    raId,
+                    instrumentIndexesByActivityId.getOrDefault(activityIdByUtId.get(link.getTeachingUnit().getId()), List.of()),
+                    instruments,
+                    raIdsByInstrumentId
+            );
+            linkCoefficients.put(link.getId(), linkVector);
+
+            double[] raVector = raCoefficients.get(raId);
+            if (raVector != null) {
+                addScaled(raVector, linkVector, link.getPercent().doubleValue() / 100.0);
+            }
+
+            Integer evaluationPeriod = evaluationPeriodByUtId.get(link.getTeachingUnit().getId());
+            if (evaluationPeriod != null) {
+                linksByEvaluationAndRa
+                        .computeIfAbsent(evaluationPeriod, k -> new HashMap<>())
+                        .computeIfAbsent(raId, k -> new ArrayList<>())
+                        .add(link);
+            }
+        }
+
+        double[] finalCoefficients = new double[instrumentCount];
+        for (LearningOutcomeRA ra : ras) {
+            addScaled(finalCoefficients, raCoefficients.get(ra.getId()), ra.getWeightPercent().doubleValue() / 100.0);
+        }
+
+        Map<Integer, Map<Long, double[]>> raEvaluationCoefficients = new TreeMap<>();
+        Map<Integer, double[]> evaluationCoefficients = new TreeMap<>();
+        for (Map.Entry<Integer, Map<Long, List<UTRALink>>> evaluation : linksByEvaluationAndRa.entrySet()) {
+            Map<Long, double[]> byRa = new LinkedHashMap<>();
+            double[] evaluationVector = new double[instrumentCount];
+            BigDecimal raWeightSum = BigDecimal.ZERO;
+            for (LearningOutcomeRA ra : ras) {
+                List<UTRALink> links = evaluation.getValue().get(ra.getId());
+                if (links == null) {
+                    continue;
+                }
+
+                double[] vector = new double[instrumentCount];
+                BigDecimal percentSum = links.stream()
+                        .map(UTRALink::getPercent)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add);
+                if (percentSum.signum() > 0) {
+                    for (UTRALink link : links) {
+                        addScaled(vector, linkCoefficients.get(link.getId()),
+                                link.getPercent().doubleValue() / percentSum.doubleValue());
+                    }
+                }
+                byRa.put(ra.getId(), vector);
+                addScaled(evaluationVector, vector, ra.getWeightPercent().doubleValue());
+                raWeightSum = raWeightSum.add(ra.getWeightPercent());
+            }
+
+            if (raWeightSum.signum() > 0) {
+                for (int i = 0; i < instrumentCount; i++) {
+                    evaluationVector[i] /= raWeightSum.doubleValue();
+                }
+            }
+            raEvaluationCoefficients.put(evaluation.getKey(), byRa);
+            evaluationCoefficients.put(evaluation.getKey(), evaluationVector);
+        }
+
+        return new LinearGradeModel(
+                instrumentIds,
+                raCoefficients,
+                raEvaluationCoefficients,
+                evaluationCoefficients,
+                finalCoefficients
+        );
+    }
+
+    List<Long> instrumentIds() {
+        return instrumentIds;
+    }
+
+    double[] raCoefficients(Long raId) {
+        return raCoefficients.get(raId);
+    }
+
+    Map<Integer, Map<Long, double[]>> raEvaluationCoefficients() {
+        return raEvaluationCoefficients;
+    }
+
+    Map<Integer, double[]> evaluationCoefficients() {
+        return evaluationCoefficients;
+    }
+
+    double[] finalCoefficients() {
+        return finalCoefficients;
+    }
+
+    double apply(double[] coefficients, Map<Long, BigDecimal> gradeByInstrumentId) {
+        double result = 0;
+        for (int i = 0; i < coefficients.length; i++) {
+            BigDecimal grade = gradeByInstrumentId.get(instrumentIds.get(i));
+            if (grade != null) {
+                result += coefficients[i] * grade.doubleValue();
+            }
+        }
+        return result;
+    }
+
+    private static double[] linkCoefficients(Long raId,
+                                             List<Integer> activityInstrumentIndexes,
+                                             List<Instrument> instruments,
+                                             Map<Long, Set<Long>> raIdsByInstrumentId) {
+        double[] vector = new double[instruments.size()];
+        double denominator = 0;
+        for (int index : activityInstrumentIndexes) {
+            Instrument instrument = instruments.get(index);
+            if (raIdsByInstrumentId.getOrDefault(instrument.getId(), Set.of()).contains(raId)) {
+                vector[index] = instrument.getWeightPercent().doubleValue();
+                denominator += vector[index];
+            }
+        }
+
+        if (denominator == 0) {
+            return new double[instruments.size()];
+        }
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] /= denominator;
+        }
+        return vector;
+    }
+
+    private static void addScaled(double[] target, double[] source, double factor) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += source[i] * factor;
+        }
+    }
+}
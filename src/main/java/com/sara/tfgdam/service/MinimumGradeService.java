@@ -0,0 +1,235 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.domain.entity.LearningOutcomeRA;
+import com.sara.tfgdam.domain.entity.Student;
+import com.sara.tfgdam.dto.ModuleMinimumGradesResponse;
+import com.sara.tfgdam.exception.BusinessValidationException;
+import com.sara.tfgdam.exception.ResourceNotFoundException;
+import com.sara.tfgdam.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+@Service
+@RequiredArgsConstructor
+public class MinimumGradeService {
+
+    static final String PASSED = "PASSED";
+    static final String REACHABLE = "REACHABLE";
+    static final String UNREACHABLE = "UNREACHABLE";
+
+    private static final BigDecimal PASS_GRADE = new BigDecimal("5.00");
+    private static final BigDecimal MIN_GRADE = new BigDecimal("0.00");
+    private static final BigDecimal MAX_GRADE = new BigDecimal("10.00");
+    private static final int MAX_HUNDREDTHS = 1000;
+
+    private final CalculationService calculationService;
+    private final StudentRepository studentRepository;
+    private final StudentBatchExecutor studentBatchExecutor;
+
+    @Transactional(readOnly = true)
+    public ModuleMinimumGradesResponse getMinimumGrades(Long moduleId, Long studentId) {
+        CalculationService.ModuleContext context = calculationService.buildContext(moduleId);
+        List<Student> students = findStudents(moduleId, studentId);
+        Map<Long, Map<Long, BigDecimal>> gradesByStudent = calculationService.buildGradesByStudent(students);
+
+        List<ModuleMinimumGradesResponse.StudentItem> items = studentBatchExecutor.map(students, chunk -> chunk.stream()
+                .map(student -> solveStudent(context, student, gradesByStudent.getOrDefault(student.getId(), Map.of())))
+                .toList());
+
+        return ModuleMinimumGradesResponse.builder()
+                .moduleId(moduleId)
+                .passGrade(PASS_GRADE)
+                .students(items)
+                .build();
+    }
+
+    private List<Student> findStudents(Long moduleId, Long studentId) {
+        if (studentId == null) {
+            return studentRepository.findByModuleId(moduleId).stream()
+                    .sorted(Comparator.comparing(Student::getStudentCode))
+                    .toList();
+        }
+
+        Student student = studentRepository.findById(studentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found: " + studentId));
+        if (!student.getModule().getId().equals(moduleId)) {
+            throw new BusinessValidationException("Student does not belong to moduleId=" + moduleId);
+        }
+        return List.of(student);
+    }
+
+    private ModuleMinimumGradesResponse.StudentItem solveStudent(CalculationService.ModuleContext context,
+                                                                 Student student,
+                                                                 Map<Long, BigDecimal> gradeByInstrumentId) {
+        LinearGradeModel model = context.linearModel();
+        List<Long> instrumentIds = model.instrumentIds();
+
+        double[] values = new double[instrumentIds.size()];
+        boolean[] graded = new boolean[instrumentIds.size()];
+        List<Long> pendingInstrumentIds = new ArrayList<>();
+        for (int i = 0; i < instrumentIds.size(); i++) {
+            BigDecimal grade = gradeByInstrumentId.get(instrumentIds.get(i));
+            if (grade != null) {
+                values[i] = grade.doubleValue();
+                graded[i] = true;
+            } else {
+                pendingInstrumentIds.add(instrumentIds.get(i));
+            }
+        }
+
+        List<ModuleMinimumGradesResponse.RAItem> raItems = new ArrayList<>();
+        for (LearningOutcomeRA ra : context.ras()) {
+            Predicate<BigDecimal> passes = pendingGrade -> calculationService.calculateRaGradeFromInstruments(
+                    context, ra.getId(), withPendingGrade(gradeByInstrumentId, pendingInstrumentIds, pendingGrade)
+            ).compareTo(PASS_GRADE) >= 0;
+            raItems.add(solve(ra, model.raCoefficients(ra.getId()), values, graded, passes));
+        }
+
+        Map<Long, LearningOutcomeRA> raById = new HashMap<>();
+        context.ras().forEach(ra -> raById.put(ra.getId(), ra));
+
+        List<ModuleMinimumGradesResponse.EvaluationItem> evaluationItems = new ArrayList<>();
+        for (Map.Entry<Integer, Map<Long, double[]>> evaluation : model.raEvaluationCoefficients().entrySet()) {
+            Integer evaluationPeriod = evaluation.getKey();
+            List<ModuleMinimumGradesResponse.RAItem> evaluationRaItems = new ArrayList<>();
+            for (Map.Entry<Long, double[]> raCoefficients : evaluation.getValue().entrySet()) {
+                Long raId = raCoefficients.getKey();
+                Predicate<BigDecimal> passes = pendingGrade -> calculationService.calculateRaEvaluationGradeFromInstruments(
+                        context, evaluationPeriod, raId, withPendingGrade(gradeByInstrumentId, pendingInstrumentIds, pendingGrade)
+                ).compareTo(PASS_GRADE) >= 0;
+                evaluationRaItems.add(solve(raById.get(raId), raCoefficients.getValue(), values, graded, passes));
+            }
+            evaluationItems.add(toEvaluationItem(evaluationPeriod, evaluationRaItems));
+        }
+
+        return ModuleMinimumGradesResponse.StudentItem.builder()
+                .studentId(student.getId())
+                .studentCode(student.getStudentCode())
+                .studentName(student.getFullName())
+                .pendingInstruments(pendingInstrumentIds.size())
+                .ras(raItems)
+                .evaluations(evaluationItems)
+                .build();
+    }
+
+    // The target grade is constant + slope * x when every pending instrument gets x, so the threshold is
+    // solved directly and confirmed with the exact calculation.
+    private ModuleMinimumGradesResponse.RAItem solve(LearningOutcomeRA ra,
+                                                     double[] coefficients,
+                                                     double[] values,
+                                                     boolean[] graded,
+                                                     Predicate<BigDecimal> passes) {
+        double constant = 0;
+        double slope = 0;
+        for (int i = 0; i < coefficients.length; i++) {
+            if (graded[i]) {
+                constant += coefficients[i] * values[i];
+            } else {
+                slope += coefficients[i];
+            }
+        }
+
+        BigDecimal candidate = MIN_GRADE;
+        if (slope > 1e-9) {
+            double analytic = (PASS_GRADE.doubleValue() - constant) / slope;
+            int hint = analytic <= 0
+                    ? 0
+                    : BigDecimal.valueOf(Math.min(analytic, MAX_GRADE.doubleValue()))
+                            .setScale(2, RoundingMode.CEILING)
+                            .unscaledValue()
+                            .intValue();
+            candidate = minimumPassingGrade(passes, hint);
+        } else if (!passes.test(MIN_GRADE)) {
+            candidate = null;
+        }
+
+        String status;
+        if (candidate == null) {
+            status = UNREACHABLE;
+        } else {
+            status = candidate.signum() == 0 ? PASSED : REACHABLE;
+        }
+
+        return ModuleMinimumGradesResponse.RAItem.builder()
+                .raId(ra.getId())
+                .raCode(ra.getCode())
+                .status(status)
+                .requiredGrade(candidate)
+                .build();
+    }
+
+    // passes is non-decreasing in the pending grade. The closed form usually lands on the answer, which
+    // costs two checks; otherwise (the setScale(4) roundings of the chain move the threshold further
+    // when the slope is small) a binary search over the hundredths of [0, 10] needs at most ten more.
+    private BigDecimal minimumPassingGrade(Predicate<BigDecimal> passes, int hint) {
+        int low = 0;
+        int high = MAX_HUNDREDTHS + 1;
+        if (passes.test(hundredths(hint))) {
+            if (hint == 0 || !passes.test(hundredths(hint - 1))) {
+                return hundredths(hint);
+            }
+            high = hint - 1;
+        } else {
+            low = hint + 1;
+        }
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (passes.test(hundredths(mid))) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low > MAX_HUNDREDTHS ? null : hundredths(low);
+    }
+
+    private static BigDecimal hundredths(int value) {
+        return BigDecimal.valueOf(value, 2);
+    }
+
+    // Every RA grade is non-decreasing in the pending grade, so the largest requirement passes all of them.
+    private ModuleMinimumGradesResponse.EvaluationItem toEvaluationItem(Integer evaluationPeriod,
+                                                                        List<ModuleMinimumGradesResponse.RAItem> ras) {
+        String status = PASSED;
+        BigDecimal requiredGrade = MIN_GRADE;
+        for (ModuleMinimumGradesResponse.RAItem ra : ras) {
+            if (UNREACHABLE.equals(ra.getStatus())) {
+                status = UNREACHABLE;
+                requiredGrade = null;
+                break;
+            }
+            if (REACHABLE.equals(ra.getStatus())) {
+                status = REACHABLE;
+                requiredGrade = requiredGrade.max(ra.getRequiredGrade());
+            }
+        }
+
+        return ModuleMinimumGradesResponse.EvaluationItem.builder()
+                .evaluationPeriod(evaluationPeriod)
+                .status(status)
+                .requiredGrade(requiredGrade)
+                .ras(ras)
+                .build();
+    }
+
+    private Map<Long, BigDecimal> withPendingGrade(Map<Long, BigDecimal> gradeByInstrumentId,
+                                                   List<Long> pendingInstrumentIds,
+                                                   BigDecimal pendingGrade) {
+        Map<Long, BigDecimal> grades = new HashMap<>(gradeByInstrumentId);
+        for (Long instrumentId : pendingInstrumentIds) {
+            grades.put(instrumentId, pendingGrade);
+        }
+        return grades;
+    }
+}
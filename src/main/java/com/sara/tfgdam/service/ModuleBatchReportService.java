@@ -0,0 +1,191 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.domain.entity.Activity;
+import com.sara.tfgdam.domain.entity.CourseModule;
+import com.sara.tfgdam.domain.entity.Instrument;
+import com.sara.tfgdam.domain.entity.InstrumentRA;
+import com.sara.tfgdam.domain.entity.LearningOutcomeRA;
+import com.sara.tfgdam.domain.entity.Student;
+import com.sara.tfgdam.domain.entity.TeachingUnitUT;
+import com.sara.tfgdam.domain.entity.UTRALink;
+import com.sara.tfgdam.dto.ModuleBatchReportItem;
+import com.sara.tfgdam.dto.ModuleBatchReportResponse;
+import com.sara.tfgdam.exception.BusinessValidationException;
+import com.sara.tfgdam.repository.ActivityRepository;
+import com.sara.tfgdam.repository.CourseModuleRepository;
+import com.sara.tfgdam.repository.GradeValue;
+import com.sara.tfgdam.repository.InstrumentRARepository;
+import com.sara.tfgdam.repository.InstrumentRepository;
+import com.sara.tfgdam.repository.LearningOutcomeRARepository;
+import com.sara.tfgdam.repository.StudentRepository;
+import com.sara.tfgdam.repository.TeachingUnitUTRepository;
+import com.sara.tfgdam.repository.UTRALinkRepository;
+import com.sara.tfgdam.validation.ConfigurationValidator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ModuleBatchReportService {
+
+    private final CourseModuleRepository courseModuleRepository;
+    private final LearningOutcomeRARepository learningOutcomeRARepository;
+    private final TeachingUnitUTRepository teachingUnitUTRepository;
+    private final UTRALinkRepository utraLinkRepository;
+    private final ActivityRepository activityRepository;
+    private final InstrumentRepository instrumentRepository;
+    private final InstrumentRARepository instrumentRARepository;
+    private final StudentRepository studentRepository;
+    private final ConfigurationValidator configurationValidator;
+    private final CalculationService calculationService;
+    private final StudentBatchExecutor studentBatchExecutor;
+
+    @Transactional(readOnly = true)
+    public ModuleBatchReportResponse getFinalReports(String academicYear, Long teacherId) {
+        List<CourseModule> modules = findModules(academicYear, teacherId).stream()
+                .sorted(Comparator.comparing(CourseModule::getId))
+                .toList();
+        List<Long> moduleIds = modules.stream().map(CourseModule::getId).toList();
+
+        Map<Long, ModuleBatchReportItem> items = new LinkedHashMap<>();
+        if (!moduleIds.isEmpty()) {
+            ModuleData data = loadModuleData(moduleIds);
+            List<PreparedModule> prepared = modules.stream().map(module -> prepareModule(module, data)).toList();
+            studentBatchExecutor.mapEach(prepared, this::computeModule)
+                    .forEach(item -> items.put(item.getModuleId(), item));
+        }
+
+        return ModuleBatchReportResponse.builder()
+                .academicYear(academicYear)
+                .teacherId(teacherId)
+                .modules(items)
+                .build();
+    }
+
+    private List<CourseModule> findModules(String academicYear, Long teacherId) {
+        boolean hasAcademicYear = academicYear != null && !academicYear.isBlank();
+        if (hasAcademicYear && teacherId != null) {
+            return courseModuleRepository.findByAcademicYearAndTeacherId(academicYear.trim(), teacherId);
+        }
+        if (hasAcademicYear) {
+            return courseModuleRepository.findByAcademicYear(academicYear.trim());
+        }
+        if (teacherId != null) {
+            return courseModuleRepository.findByTeacherId(teacherId);
+        }
+        throw new BusinessValidationException("academicYear or teacherId is required");
+    }
+
+    // The rows are session-bound entities. Validation, context compilation and the grade matrix run on
+    // the request thread in prepareModule, which resolves every association the calculation reads;
+    // only computeModule runs on the pool, and it reads the compiled context and matrix alone.
+    private ModuleData loadModuleData(List<Long> moduleIds) {
+        List<LearningOutcomeRA> ras = learningOutcomeRARepository.findByModuleIdIn(moduleIds);
+        List<TeachingUnitUT> uts = teachingUnitUTRepository.findByModuleIdIn(moduleIds);
+        List<Long> utIds = uts.stream().map(TeachingUnitUT::getId).toList();
+        List<UTRALink> utRaLinks = utIds.isEmpty() ? List.of() : utraLinkRepository.findByTeachingUnitIdIn(utIds);
+
+        List<Activity> activities = activityRepository.findByModuleIdIn(moduleIds);
+        List<Long> activityIds = activities.stream().map(Activity::getId).toList();
+        List<Instrument> instruments = activityIds.isEmpty() ? List.of() : instrumentRepository.findByActivityIdIn(activityIds);
+        List<Long> instrumentIds = instruments.stream().map(Instrument::getId).toList();
+        List<InstrumentRA> instrumentRAs = instrumentIds.isEmpty() ? List.of() : instrumentRARepository.findByInstrumentIdIn(instrumentIds);
+
+        List<Student> students = studentRepository.findByModuleIdIn(moduleIds).stream()
+                .sorted(Comparator.comparing(Student::getStudentCode))
+                .toList();
+
+        Map<Long, Long> moduleIdByUtId = uts.stream()
+                .collect(Collectors.toMap(TeachingUnitUT::getId, ut -> ut.getModule().getId()));
+        Map<Long, Long> moduleIdByActivityId = activities.stream()
+                .collect(Collectors.toMap(Activity::getId, activity -> activity.getModule().getId()));
+        Map<Long, Long> moduleIdByInstrumentId = instruments.stream()
+                .collect(Collectors.toMap(Instrument::getId, instrument -> moduleIdByActivityId.get(instrument.getActivity().getId())));
+        Map<Long, Long> moduleIdByStudentId = students.stream()
+                .collect(Collectors.toMap(Student::getId, student -> student.getModule().getId()));
+
+        return new ModuleData(
+                groupByModule(ras, ra -> ra.getModule().getId()),
+                groupByModule(uts, ut -> ut.getModule().getId()),
+                groupByModule(utRaLinks, link -> moduleIdByUtId.get(link.getTeachingUnit().getId())),
+                groupByModule(activities, activity -> activity.getModule().getId()),
+                groupByModule(instruments, instrument -> moduleIdByInstrumentId.get(instrument.getId())),
+                groupByModule(instrumentRAs, link -> moduleIdByInstrumentId.get(link.getInstrument().getId())),
+                groupByModule(students, student -> student.getModule().getId()),
+                groupByModule(calculationService.findGradeValues(students), grade -> moduleIdByStudentId.get(grade.studentId()))
+        );
+    }
+
+    private PreparedModule prepareModule(CourseModule module, ModuleData data) {
+        Long moduleId = module.getId();
+        List<LearningOutcomeRA> ras = data.ras.getOrDefault(moduleId, List.of());
+        List<UTRALink> utRaLinks = data.utRaLinks.getOrDefault(moduleId, List.of());
+        List<Activity> activities = data.activities.getOrDefault(moduleId, List.of());
+        List<Instrument> instruments = data.instruments.getOrDefault(moduleId, List.of());
+
+        ModuleBatchReportItem.ModuleBatchReportItemBuilder item = ModuleBatchReportItem.builder()
+                .moduleId(moduleId)
+                .moduleName(module.getName())
+                .academicYear(module.getAcademicYear());
+
+        try {
+            configurationValidator.validateModuleReadyForCalculations(moduleId, ras, utRaLinks, activities, instruments);
+        } catch (BusinessValidationException ex) {
+            return new PreparedModule(item.error(ex.getMessage()), null, null);
+        }
+
+        CalculationService.ModuleContext context = CalculationService.createContext(
+                module,
+                ras,
+                data.uts.getOrDefault(moduleId, List.of()),
+                utRaLinks,
+                activities,
+                instruments,
+                data.instrumentRAs.getOrDefault(moduleId, List.of())
+        );
+
+        GradeMatrix matrix = GradeMatrix.load(
+                context.plan(),
+                data.students.getOrDefault(moduleId, List.of()),
+                data.gradeValues.getOrDefault(moduleId, List.of())
+        );
+
+        return new PreparedModule(item, context, matrix);
+    }
+
+    private ModuleBatchReportItem computeModule(PreparedModule prepared) {
+        if (prepared.context() == null) {
+            return prepared.item().build();
+        }
+        return prepared.item()
+                .students(calculationService.buildFinalRows(prepared.context(), prepared.matrix()))
+                .build();
+    }
+
+    private <T> Map<Long, List<T>> groupByModule(List<T> items, Function<T, Long> moduleIdOf) {
+        return items.stream().collect(Collectors.groupingBy(moduleIdOf));
+    }
+
+    private record PreparedModule(ModuleBatchReportItem.ModuleBatchReportItemBuilder item,
+                                  CalculationService.ModuleContext context,
+                                  GradeMatrix matrix) {
+    }
+
+    private record ModuleData(Map<Long, List<LearningOutcomeRA>> ras,
+                              Map<Long, List<TeachingUnitUT>> uts,
+                              Map<Long, List<UTRALink>> utRaLinks,
+                              Map<Long, List<Activity>> activities,
+                              Map<Long, List<Instrument>> instruments,
+                              Map<Long, List<InstrumentRA>> instrumentRAs,
+                              Map<Long, List<Student>> students,
+                              Map<Long, List<GradeValue>> gradeValues) {
+    }
+}
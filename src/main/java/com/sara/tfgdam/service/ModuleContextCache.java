@@ -0,0 +1,42 @@
+package com.sara.tfgdam.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+class ModuleContextCache {
+
+    private final int maxModules;
+    private final Map<Long, Entry> entries;
+
+    ModuleContextCache(@Value("${sara.calculation.context-cache-size:128}") int maxModules) {
+        this.maxModules = maxModules;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > ModuleContextCache.this.maxModules;
+            }
+        };
+    }
+
+    synchronized CalculationService.ModuleContext get(Long moduleId, long structureVersion) {
+        Entry entry = entries.get(moduleId);
+        if (entry == null || entry.structureVersion != structureVersion) {
+            return null;
+        }
+        return entry.context;
+    }
+
+    synchronized void put(Long moduleId, long structureVersion, CalculationService.ModuleContext context) {
+        if (maxModules <= 0) {
+            return;
+        }
+        entries.put(moduleId, new Entry(structureVersion, context));
+    }
+
+    private record Entry(long structureVersion, CalculationService.ModuleContext context) {
+    }
+}
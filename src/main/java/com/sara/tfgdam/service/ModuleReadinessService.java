@@ -0,0 +1,124 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.domain.entity.Activity;
+import com.sara.tfgdam.domain.entity.LearningOutcomeRA;
+import com.sara.tfgdam.dto.ModuleReadinessResponse;
+import com.sara.tfgdam.dto.ModuleViolationsResponse;
+import com.sara.tfgdam.exception.BusinessValidationException;
+import com.sara.tfgdam.exception.ResourceNotFoundException;
+import com.sara.tfgdam.repository.ActivityRepository;
+import com.sara.tfgdam.repository.CourseModuleRepository;
+import com.sara.tfgdam.repository.InstrumentRARepository;
+import com.sara.tfgdam.repository.InstrumentRepository;
+import com.sara.tfgdam.repository.LearningOutcomeRARepository;
+import com.sara.tfgdam.repository.UTRALinkRepository;
+import com.sara.tfgdam.validation.ConfigurationValidator;
+import com.sara.tfgdam.validation.ConfigurationViolation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Service
+@RequiredArgsConstructor
+public class ModuleReadinessService {
+
+    private final ConfigurationValidator configurationValidator;
+    private final CourseModuleRepository courseModuleRepository;
+    private final LearningOutcomeRARepository learningOutcomeRARepository;
+    private final UTRALinkRepository utraLinkRepository;
+    private final ActivityRepository activityRepository;
+    private final InstrumentRepository instrumentRepository;
+    private final InstrumentRARepository instrumentRARepository;
+    private final ModuleVersionTracker moduleVersionTracker;
+
+    // Every configuration mutation in ModuleSetupService bumps the structure version, so an entry
+    // for the current version is still valid and grade writes and reports can skip the queries.
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    @Transactional(readOnly = true)
+    public ModuleReadinessResponse getReadiness(Long moduleId) {
+        long structureVersion = moduleVersionTracker.structureVersion(moduleId);
+        Entry entry = entries.get(moduleId);
+        if (entry != null && entry.structureVersion() == structureVersion) {
+            return entry.readiness();
+        }
+
+        ModuleReadinessResponse readiness = check(moduleId);
+        entries.put(moduleId, new Entry(structureVersion, readiness));
+        return readiness;
+    }
+
+    @Transactional(readOnly = true)
+    public void ensureReady(Long moduleId) {
+        ModuleReadinessResponse readiness = getReadiness(moduleId);
+        if (!readiness.isReady()) {
+            throw new BusinessValidationException(readiness.getViolations().get(0));
+        }
+    }
+
+    // One query per configuration table, then every rule is evaluated over the rows in memory.
+    @Transactional(readOnly = true)
+    public ModuleViolationsResponse getViolations(Long moduleId) {
+        if (!courseModuleRepository.existsById(moduleId)) {
+            throw new ResourceNotFoundException("Module not found: " + moduleId);
+        }
+
+        List<ConfigurationViolation> violations = configurationValidator.findViolations(
+                moduleId,
+                learningOutcomeRARepository.findByModuleId(moduleId).stream()
+                        .sorted(Comparator.comparing(LearningOutcomeRA::getId))
+                        .toList(),
+                utraLinkRepository.findByTeachingUnitModuleId(moduleId),
+                activityRepository.findByModuleId(moduleId).stream()
+                        .sorted(Comparator.comparing(Activity::getId))
+                        .toList(),
+                instrumentRepository.findByActivityModuleId(moduleId),
+                instrumentRARepository.findByInstrumentActivityModuleId(moduleId)
+        );
+
+        return ModuleViolationsResponse.builder()
+                .moduleId(moduleId)
+                .ready(violations.stream().noneMatch(ConfigurationViolation::blocking))
+                .violations(violations.stream()
+                        .map(violation -> ModuleViolationsResponse.ViolationItem.builder()
+                                .code(violation.code())
+                                .blocking(violation.blocking())
+                                .referenceType(violation.referenceType())
+                                .referenceId(violation.referenceId())
+                                .current(violation.current())
+                                .message(violation.message())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    private ModuleReadinessResponse check(Long moduleId) {
+        if (!courseModuleRepository.existsById(moduleId)) {
+            throw new ResourceNotFoundException("Module not found: " + moduleId);
+        }
+
+        List<String> violations;
+        try {
+            configurationValidator.validateModuleReadyForCalculations(moduleId);
+            violations = List.of();
+        } catch (BusinessValidationException ex) {
+            violations = List.of(ex.getMessage());
+        }
+
+        return ModuleReadinessResponse.builder()
+                .moduleId(moduleId)
+                .ready(violations.isEmpty())
+                .violations(violations)
+                .checkedAt(OffsetDateTime.now())
+                .build();
+    }
+
+    private record Entry(long structureVersion, ModuleReadinessResponse readiness) {
+    }
+}
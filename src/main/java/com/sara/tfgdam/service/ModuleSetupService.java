@@ -72,6 +72,10 @@ public class ModuleSetupService {
     private final GradeRepository gradeRepository;
     private final ImportJobRepository importJobRepository;
     private final ConfigurationValidator configurationValidator;
+    private final ModuleVersionTracker moduleVersionTracker;
+    private final StudentResultService studentResultService;
+    private final EvaluationClosureService evaluationClosureService;
+    private final GradeChangeService gradeChangeService;
 
     @Transactional
     public Teacher createTeacher(CreateTeacherRequest request) {
@@ -90,7 +94,9 @@ public class ModuleSetupService {
                 .academicYear(request.getAcademicYear())
                 .teacher(teacher)
                 .build();
-        return courseModuleRepository.save(module);
+        CourseModule saved = courseModuleRepository.save(module);
+        gradeChangeService.createCounter(saved.getId());
+        return saved;
     }
 
     @Transactional
@@ -121,6 +127,9 @@ public class ModuleSetupService {
             instrumentRepository.deleteAllById(instrumentIds);
         }
 
+        evaluationClosureService.deleteModuleClosures(moduleId);
+        gradeChangeService.deleteModuleChanges(moduleId);
+
         if (!studentIds.isEmpty()) {
             studentEvaluationOverrideRepository.deleteByStudent_Module_Id(moduleId);
             gradeRepository.deleteByStudentIdIn(studentIds);
@@ -150,6 +159,8 @@ public class ModuleSetupService {
 
         importJobRepository.deleteByModuleId(moduleId);
         courseModuleRepository.delete(module);
+        studentResultService.deleteModuleResults(moduleId);
+        moduleVersionTracker.structureChanged(moduleId);
     }
 
     @Transactional
@@ -165,6 +176,7 @@ public class ModuleSetupService {
 
         LearningOutcomeRA saved = learningOutcomeRARepository.save(ra);
         configurationValidator.validateRAWeightDoesNotExceed100(moduleId);
+        structureChanged(moduleId);
         return saved;
     }
 
@@ -178,6 +190,7 @@ public class ModuleSetupService {
 
         LearningOutcomeRA saved = learningOutcomeRARepository.save(ra);
         configurationValidator.validateRAWeightDoesNotExceed100(ra.getModule().getId());
+        structureChanged(ra.getModule().getId());
         return saved;
     }
 
@@ -201,6 +214,7 @@ public class ModuleSetupService {
 
         LearningOutcomeRA saved = learningOutcomeRARepository.save(ra);
         configurationValidator.validateRAWeightDoesNotExceed100(ra.getModule().getId());
+        structureChanged(ra.getModule().getId());
         return saved;
     }
 
@@ -211,6 +225,7 @@ public class ModuleSetupService {
         utraLinkRepository.deleteByLearningOutcomeId(ra.getId());
         instrumentRARepository.deleteByLearningOutcomeId(ra.getId());
         learningOutcomeRARepository.delete(ra);
+        structureChanged(ra.getModule().getId());
     }
 
     @Transactional(readOnly = true)
@@ -245,12 +260,15 @@ public class ModuleSetupService {
                 .build();
 
         activityRepository.save(activity);
+        structureChanged(moduleId);
         return savedUt;
     }
 
     @Transactional
     public TeachingUnitUT updateUT(Long utId, UpdateUTRequest request) {
+        gradeChangeService.lockModuleOfUT(utId);
         TeachingUnitUT ut = getUT(utId);
+        requirePeriodsOpenForMove(ut, request.getEvaluationPeriod());
 
         ut.setName(request.getName().trim());
         ut.setEvaluationPeriod(request.getEvaluationPeriod());
@@ -262,11 +280,13 @@ public class ModuleSetupService {
             activityRepository.save(activity);
         });
 
+        structureChanged(ut.getModule().getId());
         return savedUt;
     }
 
     @Transactional
     public TeachingUnitUT patchUT(Long utId, PatchUTRequest request) {
+        gradeChangeService.lockModuleOfUT(utId);
         TeachingUnitUT ut = getUT(utId);
 
         if (request.getName() == null && request.getEvaluationPeriod() == null) {
@@ -283,15 +303,20 @@ public class ModuleSetupService {
         }
 
         if (request.getEvaluationPeriod() != null) {
+            requirePeriodsOpenForMove(ut, request.getEvaluationPeriod());
             ut.setEvaluationPeriod(request.getEvaluationPeriod());
         }
 
-        return teachingUnitUTRepository.save(ut);
+        TeachingUnitUT savedUt = teachingUnitUTRepository.save(ut);
+        structureChanged(ut.getModule().getId());
+        return savedUt;
     }
 
     @Transactional
     public void deleteUT(Long utId) {
+        gradeChangeService.lockModuleOfUT(utId);
         TeachingUnitUT ut = getUT(utId);
+        requirePeriodOpen(ut.getModule().getId(), ut.getEvaluationPeriod(), "UT " + utId + " cannot be deleted.");
 
         Activity activity = activityRepository.findByTeachingUnitId(utId)
                 .orElse(null);
@@ -309,10 +334,12 @@ public class ModuleSetupService {
 
         utraLinkRepository.deleteByTeachingUnitId(utId);
         teachingUnitUTRepository.delete(ut);
+        structureChanged(ut.getModule().getId());
     }
 
     @Transactional
     public UTRALink upsertUTRALink(Long moduleId, UpsertUTRALinkRequest request) {
+        gradeChangeService.lockModule(moduleId);
         CourseModule module = getModule(moduleId);
 
         TeachingUnitUT ut = getUT(request.getUtId());
@@ -321,6 +348,7 @@ public class ModuleSetupService {
         if (!ut.getModule().getId().equals(module.getId()) || !ra.getModule().getId().equals(module.getId())) {
             throw new BusinessValidationException("UT and RA must belong to the module in path");
         }
+        requireUTRALinksEditable(ut);
 
         UTRALink link = utraLinkRepository.findByTeachingUnitIdAndLearningOutcomeId(ut.getId(), ra.getId())
                 .orElseGet(() -> UTRALink.builder().teachingUnit(ut).learningOutcome(ra).build());
@@ -329,41 +357,57 @@ public class ModuleSetupService {
 
         UTRALink saved = utraLinkRepository.save(link);
         configurationValidator.validateRADistributionDoesNotExceed100(ra.getId());
+        structureChanged(moduleId);
         return saved;
     }
 
     @Transactional
     public UTRALink updateUTRALink(Long moduleId, Long linkId, UpdateUTRALinkRequest request) {
+        gradeChangeService.lockModule(moduleId);
         UTRALink link = getUTRALinkInModule(moduleId, linkId);
+        requireUTRALinksEditable(link.getTeachingUnit());
         link.setPercent(request.getPercent());
 
         UTRALink saved = utraLinkRepository.save(link);
         configurationValidator.validateRADistributionDoesNotExceed100(link.getLearningOutcome().getId());
+        structureChanged(moduleId);
         return saved;
     }
 
     @Transactional
     public UTRALink patchUTRALink(Long moduleId, Long linkId, PatchUTRALinkRequest request) {
+        gradeChangeService.lockModule(moduleId);
         UTRALink link = getUTRALinkInModule(moduleId, linkId);
         if (request.getPercent() == null) {
             throw new BusinessValidationException("PATCH UT-RA requires percent");
         }
+        requireUTRALinksEditable(link.getTeachingUnit());
 
         link.setPercent(request.getPercent());
         UTRALink saved = utraLinkRepository.save(link);
         configurationValidator.validateRADistributionDoesNotExceed100(link.getLearningOutcome().getId());
+        structureChanged(moduleId);
         return saved;
     }
 
     @Transactional
     public void deleteUTRALink(Long moduleId, Long linkId) {
+        gradeChangeService.lockModule(moduleId);
         UTRALink link = getUTRALinkInModule(moduleId, linkId);
+        requireUTRALinksEditable(link.getTeachingUnit());
         utraLinkRepository.delete(link);
+        structureChanged(moduleId);
     }
 
     @Transactional
     public Instrument createInstrument(Long utId, CreateInstrumentRequest request) {
+        gradeChangeService.lockModuleOfUT(utId);
         Activity activity = getActivityByUT(utId);
+        requirePeriodOpen(
+                activity.getModule().getId(),
+                activity.getTeachingUnit().getEvaluationPeriod(),
+                "Instruments cannot be added to UT " + utId + "."
+        );
 
         Instrument instrument = Instrument.builder()
                 .activity(activity)
@@ -373,23 +417,28 @@ public class ModuleSetupService {
 
         Instrument saved = instrumentRepository.save(instrument);
         configurationValidator.validateInstrumentWeightsDoNotExceed100(activity.getId());
+        structureChanged(activity.getModule().getId());
         return saved;
     }
 
     @Transactional
     public Instrument updateInstrument(Long instrumentId, UpdateInstrumentRequest request) {
+        gradeChangeService.lockModuleOfInstrument(instrumentId);
         Instrument instrument = getInstrument(instrumentId);
+        requireWeightEditable(instrument, request.getWeightPercent());
 
         instrument.setName(request.getName().trim());
         instrument.setWeightPercent(request.getWeightPercent());
 
         Instrument saved = instrumentRepository.save(instrument);
         configurationValidator.validateInstrumentWeightsDoNotExceed100(instrument.getActivity().getId());
+        structureChanged(instrument.getActivity().getModule().getId());
         return saved;
     }
 
     @Transactional
     public Instrument patchInstrument(Long instrumentId, PatchInstrumentRequest request) {
+        gradeChangeService.lockModuleOfInstrument(instrumentId);
         Instrument instrument = getInstrument(instrumentId);
 
         if (request.getName() == null && request.getWeightPercent() == null) {
@@ -401,32 +450,41 @@ public class ModuleSetupService {
         }
 
         if (request.getWeightPercent() != null) {
+            requireWeightEditable(instrument, request.getWeightPercent());
             instrument.setWeightPercent(request.getWeightPercent());
         }
 
         Instrument saved = instrumentRepository.save(instrument);
         configurationValidator.validateInstrumentWeightsDoNotExceed100(instrument.getActivity().getId());
+        structureChanged(instrument.getActivity().getModule().getId());
         return saved;
     }
 
     @Transactional
     public void deleteInstrument(Long instrumentId) {
+        gradeChangeService.lockModuleOfInstrument(instrumentId);
         Instrument instrument = getInstrument(instrumentId);
+        requireInstrumentPeriodOpen(instrument, "Instrument " + instrumentId + " cannot be deleted.");
         gradeRepository.deleteByInstrumentId(instrumentId);
         instrumentRARepository.deleteByInstrumentId(instrumentId);
         instrumentRepository.delete(instrument);
+        structureChanged(instrument.getActivity().getModule().getId());
     }
 
     @Transactional
     public InstrumentRAResponse setInstrumentRAs(Long instrumentId, SetInstrumentRAsRequest request) {
+        gradeChangeService.lockModuleOfInstrument(instrumentId);
         Instrument instrument = getInstrument(instrumentId);
+        requireInstrumentPeriodOpen(instrument, "RAs of instrument " + instrumentId + " cannot be changed.");
         Set<Long> targetRaIds = new LinkedHashSet<>(request.getRaIds());
         return applyInstrumentRASet(instrument, targetRaIds);
     }
 
     @Transactional
     public InstrumentRAResponse patchInstrumentRAs(Long instrumentId, PatchInstrumentRARequest request) {
+        gradeChangeService.lockModuleOfInstrument(instrumentId);
         Instrument instrument = getInstrument(instrumentId);
+        requireInstrumentPeriodOpen(instrument, "RAs of instrument " + instrumentId + " cannot be changed.");
 
         List<Long> addRaIds = request.getAddRaIds() == null ? List.of() : request.getAddRaIds();
         List<Long> removeRaIds = request.getRemoveRaIds() == null ? List.of() : request.getRemoveRaIds();
@@ -447,12 +505,15 @@ public class ModuleSetupService {
 
     @Transactional
     public InstrumentRAResponse deleteInstrumentRA(Long instrumentId, Long raId) {
+        gradeChangeService.lockModuleOfInstrument(instrumentId);
         Instrument instrument = getInstrument(instrumentId);
+        requireInstrumentPeriodOpen(instrument, "RAs of instrument " + instrumentId + " cannot be changed.");
 
         instrumentRARepository.findByInstrumentIdAndLearningOutcomeId(instrumentId, raId)
                 .orElseThrow(() -> new ResourceNotFoundException("Instrument-RA link not found for instrument=" + instrumentId + " ra=" + raId));
 
         instrumentRARepository.deleteByInstrumentIdAndLearningOutcomeId(instrumentId, raId);
+        structureChanged(instrument.getActivity().getModule().getId());
 
         return InstrumentRAResponse.builder()
                 .instrumentId(instrumentId)
@@ -465,8 +526,11 @@ public class ModuleSetupService {
 
     @Transactional
     public InstrumentRAResponse clearInstrumentRAs(Long instrumentId) {
+        gradeChangeService.lockModuleOfInstrument(instrumentId);
         Instrument instrument = getInstrument(instrumentId);
+        requireInstrumentPeriodOpen(instrument, "RAs of instrument " + instrumentId + " cannot be changed.");
         instrumentRARepository.deleteByInstrumentId(instrumentId);
+        structureChanged(instrument.getActivity().getModule().getId());
 
         return InstrumentRAResponse.builder()
                 .instrumentId(instrumentId)
@@ -490,7 +554,9 @@ public class ModuleSetupService {
                 .fullName(request.getFullName().trim())
                 .build();
 
-        return studentRepository.save(student);
+        Student saved = studentRepository.save(student);
+        moduleVersionTracker.dataChanged(module.getId());
+        return saved;
     }
 
     @Transactional
@@ -524,6 +590,7 @@ public class ModuleSetupService {
         }
 
         configurationValidator.validateRAWeightDoesNotExceed100(moduleId);
+        structureChanged(moduleId);
         return created;
     }
 
@@ -577,6 +644,8 @@ public class ModuleSetupService {
                     .build());
         }
 
+        structureChanged(moduleId);
+
         return InstrumentRAResponse.builder()
                 .instrumentId(instrumentId)
                 .utId(instrument.getActivity().getTeachingUnit().getId())
@@ -584,6 +653,11 @@ public class ModuleSetupService {
                 .build();
     }
 
+    private void structureChanged(Long moduleId) {
+        moduleVersionTracker.structureChanged(moduleId);
+        studentResultService.markStale(moduleId);
+    }
+
     private Teacher resolveTeacher(Long teacherId, String teacherName) {
         if (teacherId != null) {
             return teacherRepository.findById(teacherId)
@@ -600,6 +674,42 @@ public class ModuleSetupService {
         return teacherRepository.save(teacher);
     }
 
+    // Moving a UT changes the reports of both periods, so neither may be closed.
+    private void requirePeriodsOpenForMove(TeachingUnitUT ut, Integer newEvaluationPeriod) {
+        if (ut.getEvaluationPeriod().equals(newEvaluationPeriod)) {
+            return;
+        }
+        String change = "UT " + ut.getId() + " cannot be moved to evaluation period " + newEvaluationPeriod + ".";
+        requirePeriodOpen(ut.getModule().getId(), ut.getEvaluationPeriod(), change);
+        requirePeriodOpen(ut.getModule().getId(), newEvaluationPeriod, change);
+    }
+
+    // Renaming does not change any grade; only a new weight is checked.
+    private void requireWeightEditable(Instrument instrument, BigDecimal weightPercent) {
+        if (instrument.getWeightPercent().compareTo(weightPercent) != 0) {
+            requireInstrumentPeriodOpen(instrument, "Weight of instrument " + instrument.getId() + " cannot be changed.");
+        }
+    }
+
+    private void requireInstrumentPeriodOpen(Instrument instrument, String change) {
+        requirePeriodOpen(
+                instrument.getActivity().getModule().getId(),
+                instrument.getActivity().getTeachingUnit().getEvaluationPeriod(),
+                change
+        );
+    }
+
+    private void requireUTRALinksEditable(TeachingUnitUT ut) {
+        requirePeriodOpen(ut.getModule().getId(), ut.getEvaluationPeriod(), "RA percentages of UT " + ut.getId() + " cannot be changed.");
+    }
+
+    // Callers take the module lock first, so a period closed concurrently is seen here.
+    private void requirePeriodOpen(Long moduleId, Integer evaluationPeriod, String change) {
+        if (evaluationClosureService.findClosedPeriods(moduleId).contains(evaluationPeriod)) {
+            throw new BusinessValidationException("Evaluation period " + evaluationPeriod + " is closed. " + change);
+        }
+    }
+
     private String requireNonBlank(String value, String message) {
         if (value == null || value.trim().isEmpty()) {
             throw new BusinessValidationException(message);
@@ -0,0 +1,126 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.domain.entity.EvaluationPeriodSnapshot;
+import com.sara.tfgdam.domain.entity.Student;
+import com.sara.tfgdam.domain.entity.StudentEvaluationOverride;
+import com.sara.tfgdam.dto.ModuleStatisticsResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class ModuleStatisticsService {
+
+    private final CalculationService calculationService;
+    private final EvaluationClosureService evaluationClosureService;
+    private final StudentBatchExecutor studentBatchExecutor;
+
+    @Transactional(readOnly = true)
+    public ModuleStatisticsResponse getStatistics(Long moduleId) {
+        CalculationService.ModuleContext context = calculationService.buildContext(moduleId);
+        List<Student> students = calculationService.findModuleStudents(moduleId, null);
+        Map<Long, Map<Long, BigDecimal>> gradesByStudent = calculationService.buildGradesByStudent(students);
+        Map<Integer, Map<Long, BigDecimal>> reportedEvaluationGrades = findReportedEvaluationGrades(moduleId, context);
+
+        // Each chunk folds its students into one accumulator; nothing per student outlives its chunk.
+        ClassStatistics statistics = studentBatchExecutor.map(students, chunk -> {
+                    ClassStatistics partial = new ClassStatistics();
+                    for (Student student : chunk) {
+                        Map<Long, BigDecimal> grades = gradesByStudent.getOrDefault(student.getId(), Map.of());
+                        partial.add(student.getId(), grades, calculationService.computeForStudent(context, grades),
+                                reportedEvaluationGrades);
+                    }
+                    return List.of(partial);
+                }).stream()
+                .reduce(new ClassStatistics(), ClassStatistics::merge);
+
+        return ModuleStatisticsResponse.builder()
+                .moduleId(moduleId)
+                .studentCount(students.size())
+                .finalGrade(statistics.finalGrade.toDto())
+                .evaluations(context.evaluationPeriods().stream()
+                        .map(period -> ModuleStatisticsResponse.EvaluationItem.builder()
+                                .evaluationPeriod(period)
+                                .statistics(statistics.of(statistics.byEvaluation, period).toDto())
+                                .build())
+                        .toList())
+                .ras(context.ras().stream()
+                        .map(ra -> ModuleStatisticsResponse.RAItem.builder()
+                                .raId(ra.getId())
+                                .raCode(ra.getCode())
+                                .raName(ra.getName())
+                                .statistics(statistics.of(statistics.byRa, ra.getId()).toDto())
+                                .build())
+                        .toList())
+                .instruments(context.instruments().stream()
+                        .map(instrument -> ModuleStatisticsResponse.InstrumentItem.builder()
+                                .instrumentId(instrument.getId())
+                                .instrumentName(instrument.getName())
+                                .activityId(instrument.getActivity().getId())
+                                .statistics(statistics.of(statistics.byInstrument, instrument.getId()).toDto())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    // Evaluation figures follow what the reports show: a closed period's snapshot, then an imported override.
+    private Map<Integer, Map<Long, BigDecimal>> findReportedEvaluationGrades(Long moduleId,
+                                                                         CalculationService.ModuleContext context) {
+        Map<Integer, Map<Long, BigDecimal>> result = new HashMap<>();
+        for (Integer period : context.evaluationPeriods()) {
+            Map<Long, BigDecimal> byStudent = new HashMap<>();
+            for (Map.Entry<Long, StudentEvaluationOverride> entry
+                    : calculationService.findEvaluationOverrides(moduleId, period).entrySet()) {
+                byStudent.put(entry.getKey(), entry.getValue().getNumericGrade());
+            }
+            result.put(period, byStudent);
+        }
+
+        evaluationClosureService.findSnapshotsByStudent(moduleId).forEach((studentId, snapshotsByPeriod) -> {
+            for (EvaluationPeriodSnapshot snapshot : snapshotsByPeriod.values()) {
+                result.computeIfAbsent(snapshot.getClosure().getEvaluationPeriod(), k -> new HashMap<>())
+                        .put(studentId, snapshot.getNumericGrade());
+            }
+        });
+        return result;
+    }
+
+    private static final class ClassStatistics {
+
+        private final GradeStatistics finalGrade = new GradeStatistics();
+        private final Map<Integer, GradeStatistics> byEvaluation = new HashMap<>();
+        private final Map<Long, GradeStatistics> byRa = new HashMap<>();
+        private final Map<Long, GradeStatistics> byInstrument = new HashMap<>();
+
+        void add(Long studentId,
+                 Map<Long, BigDecimal> instrumentGrades,
+                 CalculationService.StudentComputation computation,
+                 Map<Integer, Map<Long, BigDecimal>> reportedEvaluationGrades) {
+            finalGrade.add(computation.finalGrade());
+            computation.raGlobalGrades().forEach((raId, grade) -> of(byRa, raId).add(grade));
+            computation.evaluationResults().forEach((period, result) -> {
+                BigDecimal reported = reportedEvaluationGrades.getOrDefault(period, Map.of()).get(studentId);
+                of(byEvaluation, period).add(reported != null ? reported : result.numericGrade());
+            });
+            instrumentGrades.forEach((instrumentId, grade) -> of(byInstrument, instrumentId).add(grade));
+        }
+
+        ClassStatistics merge(ClassStatistics other) {
+            finalGrade.merge(other.finalGrade);
+            other.byEvaluation.forEach((period, statistics) -> of(byEvaluation, period).merge(statistics));
+            other.byRa.forEach((raId, statistics) -> of(byRa, raId).merge(statistics));
+            other.byInstrument.forEach((instrumentId, statistics) -> of(byInstrument, instrumentId).merge(statistics));
+            return this;
+        }
+
+        <K> GradeStatistics of(Map<K, GradeStatistics> statistics, K key) {
+            return statistics.computeIfAbsent(key, k -> new GradeStatistics());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.sara.tfgdam.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class ModuleVersionTracker {
+
+    // Versions live in memory, so tags from a previous run must never match after a restart.
+    private final String instanceEpoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final ConcurrentMap<Long, AtomicLong> structureVersions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, AtomicLong> dataVersions = new ConcurrentHashMap<>();
+
+    public long structureVersion(Long moduleId) {
+        return current(structureVersions, moduleId);
+    }
+
+    public void structureChanged(Long moduleId) {
+        bump(structureVersions, moduleId);
+    }
+
+    // Grades, overrides, roster and materialized results; anything a report body depends on besides structure.
+    public void dataChanged(Long moduleId) {
+        bump(dataVersions, moduleId);
+    }
+
+    public String moduleETag(Long moduleId) {
+        return "\"" + instanceEpoch + "-" + moduleId
+                + "-" + current(structureVersions, moduleId)
+                + "-" + current(dataVersions, moduleId) + "\"";
+    }
+
+    private long current(ConcurrentMap<Long, AtomicLong> versions, Long moduleId) {
+        AtomicLong version = versions.get(moduleId);
+        return version == null ? 0L : version.get();
+    }
+
+    private void bump(ConcurrentMap<Long, AtomicLong> versions, Long moduleId) {
+        AtomicLong version = versions.computeIfAbsent(moduleId, ignored -> new AtomicLong());
+        version.incrementAndGet();
+
+        // A reader may rebuild from the pre-commit rows while the write transaction is still open,
+        // so the version is bumped again once the transaction completes.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    version.incrementAndGet();
+                }
+            });
+        }
+    }
+}
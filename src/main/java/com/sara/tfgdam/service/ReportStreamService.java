@@ -0,0 +1,137 @@
+package com.sara.tfgdam.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sara.tfgdam.domain.entity.EvaluationPeriodSnapshot;
+import com.sara.tfgdam.domain.entity.Student;
+import com.sara.tfgdam.domain.entity.StudentEvaluationOverride;
+import com.sara.tfgdam.dto.ModuleEvaluationReportResponse;
+import com.sara.tfgdam.exception.BusinessValidationException;
+import com.sara.tfgdam.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+@Service
+@RequiredArgsConstructor
+public class ReportStreamService {
+
+    private final CalculationService calculationService;
+    private final EvaluationClosureService evaluationClosureService;
+    private final StudentRepository studentRepository;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${sara.reports.stream-page-size:200}")
+    private int pageSize;
+
+    @Transactional(readOnly = true)
+    public StreamingResponseBody streamModuleFinalReport(Long moduleId) {
+        CalculationService.ModuleContext context = calculationService.buildContext(moduleId);
+        List<Student> students = sortedStudents(moduleId);
+
+        return stream(students, page -> calculationService.buildFinalRows(
+                context,
+                calculationService.loadGradeMatrix(context, page)
+        ));
+    }
+
+    @Transactional(readOnly = true)
+    public StreamingResponseBody streamModuleEvaluationReport(Long moduleId, Integer evaluationPeriod) {
+        ModuleEvaluationReportResponse closed = evaluationClosureService.findClosedReport(moduleId, evaluationPeriod).orElse(null);
+        if (closed != null) {
+            return writeRows(closed.getStudents());
+        }
+
+        CalculationService.ModuleContext context = calculationService.buildContext(moduleId);
+        if (!context.hasEvaluationPeriod(evaluationPeriod)) {
+            throw new BusinessValidationException("Evaluation period not configured in module: " + evaluationPeriod);
+        }
+
+        List<Student> students = sortedStudents(moduleId);
+        Map<Long, StudentEvaluationOverride> overridesByStudentId =
+                calculationService.findEvaluationOverrides(moduleId, evaluationPeriod);
+
+        return stream(students, page -> calculationService.buildEvaluationRows(
+                context,
+                evaluationPeriod,
+                calculationService.loadGradeMatrix(context, page),
+                overridesByStudentId
+        ));
+    }
+
+    @Transactional(readOnly = true)
+    public StreamingResponseBody streamStudentReports(Long moduleId, List<Long> studentIds) {
+        CalculationService.ModuleContext context = calculationService.buildContext(moduleId);
+        List<Student> students = calculationService.findModuleStudents(moduleId, studentIds);
+        Map<Long, Map<Integer, EvaluationPeriodSnapshot>> snapshotsByStudent =
+                evaluationClosureService.findSnapshotsByStudent(moduleId);
+
+        return stream(students, page -> evaluationClosureService.withClosedPeriods(
+                calculationService.buildStudentReports(context, moduleId, page),
+                snapshotsByStudent
+        ));
+    }
+
+    private StreamingResponseBody writeRows(List<?> rows) {
+        return outputStream -> {
+            for (Object row : rows) {
+                outputStream.write(objectMapper.writeValueAsBytes(row));
+                outputStream.write('\n');
+            }
+            outputStream.flush();
+        };
+    }
+
+    // Rows are written after the request transaction has ended, so only the preloaded context and
+    // students are touched outside the pages. All pages are read in one read-only transaction: with
+    // the default repeatable read every page sees the same grade snapshot, at the cost of holding a
+    // connection while the client reads the stream.
+    private StreamingResponseBody stream(List<Student> students,
+                                         Function<List<Student>, List<?>> pageMapper) {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        return outputStream -> {
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> writePages(students, pageMapper, outputStream));
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+        };
+    }
+
+    private void writePages(List<Student> students,
+                            Function<List<Student>, List<?>> pageMapper,
+                            OutputStream outputStream) {
+        try {
+            int size = Math.max(1, pageSize);
+            for (int from = 0; from < students.size(); from += size) {
+                List<Student> page = students.subList(from, Math.min(students.size(), from + size));
+                for (Object row : pageMapper.apply(page)) {
+                    outputStream.write(objectMapper.writeValueAsBytes(row));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private List<Student> sortedStudents(Long moduleId) {
+        return studentRepository.findByModuleId(moduleId).stream()
+                .sorted(Comparator.comparing(Student::getStudentCode))
+                .toList();
+    }
+}
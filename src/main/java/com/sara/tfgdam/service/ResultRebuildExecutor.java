@@ -0,0 +1,41 @@
+package com.sara.tfgdam.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+// Materialized result rebuilds run one at a time. On context close the pool stops taking work and
+// waits for the running and queued rebuilds, so none is cut off half way through its transaction.
+@Slf4j
+@Component
+class ResultRebuildExecutor {
+
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    ResultRebuildExecutor() {
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("module-results-rebuild-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(SHUTDOWN_TIMEOUT_SECONDS);
+        executor.initialize();
+    }
+
+    void execute(Long moduleId, Runnable rebuild) {
+        executor.execute(() -> {
+            try {
+                rebuild.run();
+            } catch (Throwable ex) {
+                log.error("Result rebuild for module {} failed", moduleId, ex);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
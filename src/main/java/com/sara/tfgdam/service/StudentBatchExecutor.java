@@ -0,0 +1,75 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.domain.entity.Student;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+@Component
+class StudentBatchExecutor {
+
+    private final ForkJoinPool pool;
+    private final int maxChunksPerModule;
+    private final int minStudentsPerChunk;
+
+    StudentBatchExecutor(@Value("${sara.calculation.parallelism:0}") int parallelism,
+                         @Value("${sara.calculation.max-chunks-per-module:4}") int maxChunksPerModule,
+                         @Value("${sara.calculation.min-students-per-chunk:32}") int minStudentsPerChunk) {
+        int poolSize = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = poolSize > 1 ? new ForkJoinPool(poolSize) : null;
+        this.maxChunksPerModule = Math.max(1, maxChunksPerModule);
+        this.minStudentsPerChunk = Math.max(1, minStudentsPerChunk);
+    }
+
+    // Chunk mappers must only touch the preloaded context and grades: they run outside the caller's session.
+    <R> List<R> map(List<Student> students, Function<List<Student>, List<R>> chunkMapper) {
+        int chunkCount = Math.min(maxChunksPerModule, students.size() / minStudentsPerChunk);
+        if (pool == null || chunkCount <= 1) {
+            return chunkMapper.apply(students);
+        }
+
+        int chunkSize = (students.size() + chunkCount - 1) / chunkCount;
+        List<ForkJoinTask<List<R>>> tasks = new ArrayList<>();
+        for (int from = chunkSize; from < students.size(); from += chunkSize) {
+            List<Student> chunk = students.subList(from, Math.min(students.size(), from + chunkSize));
+            tasks.add(pool.submit(() -> chunkMapper.apply(chunk)));
+        }
+
+        List<R> result = new ArrayList<>(students.size());
+        result.addAll(chunkMapper.apply(students.subList(0, Math.min(students.size(), chunkSize))));
+        for (ForkJoinTask<List<R>> task : tasks) {
+            result.addAll(task.join());
+        }
+        return result;
+    }
+
+    <T, R> List<R> mapEach(List<T> items, Function<T, R> mapper) {
+        if (pool == null || items.size() <= 1) {
+            return items.stream().map(mapper).toList();
+        }
+
+        List<ForkJoinTask<R>> tasks = new ArrayList<>(items.size());
+        for (T item : items) {
+            tasks.add(pool.submit(() -> mapper.apply(item)));
+        }
+
+        List<R> result = new ArrayList<>(items.size());
+        for (ForkJoinTask<R> task : tasks) {
+            result.add(task.join());
+        }
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
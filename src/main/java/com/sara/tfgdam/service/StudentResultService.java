@@ -0,0 +1,452 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.domain.entity.ModuleResultState;
+import com.sara.tfgdam.domain.entity.Student;
+import com.sara.tfgdam.domain.entity.StudentEvaluationOverride;
+import com.sara.tfgdam.domain.entity.StudentModuleResult;
+import com.sara.tfgdam.domain.entity.StudentResultType;
+import com.sara.tfgdam.dto.ModuleDashboardResponse;
+import com.sara.tfgdam.dto.ModuleEvaluationReportResponse;
+import com.sara.tfgdam.dto.ModuleFinalReportResponse;
+import com.sara.tfgdam.dto.ModuleStudentReportsResponse;
+import com.sara.tfgdam.dto.ReportFreshnessDto;
+import com.sara.tfgdam.dto.StudentEvaluationReportRow;
+import com.sara.tfgdam.dto.StudentFinalReportRow;
+import com.sara.tfgdam.dto.StudentReportResponse;
+import com.sara.tfgdam.exception.BusinessValidationException;
+import com.sara.tfgdam.exception.ResourceNotFoundException;
+import com.sara.tfgdam.repository.ModuleResultStateRepository;
+import com.sara.tfgdam.repository.StudentModuleResultRepository;
+import com.sara.tfgdam.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StudentResultService {
+
+    private static final String SOURCE_MATERIALIZED = "MATERIALIZED";
+    private static final String SOURCE_LIVE = "LIVE";
+    private static final Long FINAL_REFERENCE_ID = 0L;
+    private static final BigDecimal ZERO = new BigDecimal("0.00");
+
+    private final StudentModuleResultRepository studentModuleResultRepository;
+    private final ModuleResultStateRepository moduleResultStateRepository;
+    private final StudentRepository studentRepository;
+    private final CalculationService calculationService;
+    private final ModuleReadinessService moduleReadinessService;
+    private final ModulePreviewService modulePreviewService;
+    private final ModuleVersionTracker moduleVersionTracker;
+    private final EvaluationClosureService evaluationClosureService;
+    private final PlatformTransactionManager transactionManager;
+    private final ResultRebuildExecutor resultRebuildExecutor;
+
+    private final Set<Long> pendingRebuilds = ConcurrentHashMap.newKeySet();
+
+    @Transactional(readOnly = true)
+    public ModuleFinalReportResponse getModuleFinalReport(Long moduleId) {
+        ModuleResultState state = moduleResultStateRepository.findById(moduleId).orElse(null);
+        if (state == null) {
+            ModuleFinalReportResponse live = calculationService.getModuleFinalReport(moduleId);
+            scheduleRebuild(moduleId);
+            return ModuleFinalReportResponse.builder()
+                    .moduleId(live.getModuleId())
+                    .students(live.getStudents())
+                    .freshness(liveFreshness())
+                    .build();
+        }
+
+        // Stored rows outlive a configuration that broke after they were written; fail like the live path.
+        moduleReadinessService.ensureReady(moduleId);
+        List<Student> students = sortedStudents(moduleId);
+        Map<Long, StudentModuleResult> rowsByStudentId = rowsByStudentId(moduleId, StudentResultType.FINAL, FINAL_REFERENCE_ID);
+        Map<Long, CalculationService.StudentComputation> missing = computeMissing(moduleId, students, rowsByStudentId);
+
+        List<StudentFinalReportRow> rows = new ArrayList<>();
+        for (Student student : students) {
+            StudentModuleResult result = rowsByStudentId.get(student.getId());
+            BigDecimal finalGrade = result != null
+                    ? result.getGrade()
+                    : missing.get(student.getId()).finalGrade();
+
+            rows.add(StudentFinalReportRow.builder()
+                    .studentId(student.getId())
+                    .studentCode(student.getStudentCode())
+                    .studentName(student.getFullName())
+                    .finalGrade(finalGrade)
+                    .build());
+        }
+
+        return ModuleFinalReportResponse.builder()
+                .moduleId(moduleId)
+                .students(rows)
+                .freshness(materializedFreshness(state))
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public ModuleEvaluationReportResponse getModuleEvaluationReport(Long moduleId, Integer evaluationPeriod) {
+        ModuleEvaluationReportResponse closed = evaluationClosureService.findClosedReport(moduleId, evaluationPeriod).orElse(null);
+        if (closed != null) {
+            return closed;
+        }
+
+        ModuleResultState state = moduleResultStateRepository.findById(moduleId).orElse(null);
+        if (state != null) {
+            moduleReadinessService.ensureReady(moduleId);
+        }
+        Map<Long, StudentModuleResult> rowsByStudentId = state == null
+                ? Map.of()
+                : rowsByStudentId(moduleId, StudentResultType.EVALUATION, evaluationPeriod.longValue());
+
+        if (rowsByStudentId.isEmpty()) {
+            ModuleEvaluationReportResponse live = calculationService.getModuleEvaluationReport(moduleId, evaluationPeriod);
+            if (state == null) {
+                scheduleRebuild(moduleId);
+            }
+            return ModuleEvaluationReportResponse.builder()
+                    .moduleId(live.getModuleId())
+                    .evaluationPeriod(live.getEvaluationPeriod())
+                    .students(live.getStudents())
+                    .freshness(liveFreshness())
+                    .build();
+        }
+
+        List<Student> students = sortedStudents(moduleId);
+        Map<Long, StudentEvaluationOverride> overridesByStudentId =
+                calculationService.findEvaluationOverrides(moduleId, evaluationPeriod);
+        Map<Long, CalculationService.StudentComputation> missing = computeMissing(moduleId, students, rowsByStudentId);
+
+        List<StudentEvaluationReportRow> rows = new ArrayList<>();
+        for (Student student : students) {
+            StudentEvaluationOverride override = overridesByStudentId.get(student.getId());
+            if (override != null) {
+                rows.add(calculationService.toOverrideRow(student, override));
+                continue;
+            }
+
+            StudentEvaluationReportRow.StudentEvaluationReportRowBuilder row = StudentEvaluationReportRow.builder()
+                    .studentId(student.getId())
+                    .studentCode(student.getStudentCode())
+                    .studentName(student.getFullName());
+
+            StudentModuleResult result = rowsByStudentId.get(student.getId());
+            if (result != null) {
+                row.numericGrade(result.getGrade())
+                        .suggestedBulletinGrade(result.getSuggestedBulletinGrade())
+                        .allRAsPassed(Boolean.TRUE.equals(result.getAllRAsPassed()));
+            } else {
+                CalculationService.EvaluationResult computed = missing.get(student.getId())
+                        .evaluationResults().get(evaluationPeriod);
+                row.numericGrade(computed != null ? computed.numericGrade() : ZERO)
+                        .suggestedBulletinGrade(computed != null ? computed.suggestedBulletinGrade() : 1)
+                        .allRAsPassed(computed != null && computed.allRAsPassed());
+            }
+            rows.add(row.build());
+        }
+
+        return ModuleEvaluationReportResponse.builder()
+                .moduleId(moduleId)
+                .evaluationPeriod(evaluationPeriod)
+                .students(rows)
+                .freshness(materializedFreshness(state))
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public ModuleDashboardResponse getModuleDashboard(Long moduleId, boolean includePreview) {
+        ModuleResultState state = moduleResultStateRepository.findById(moduleId).orElse(null);
+
+        ModuleDashboardResponse dashboard;
+        if (state == null) {
+            dashboard = calculationService.getModuleDashboard(moduleId);
+            scheduleRebuild(moduleId);
+        } else {
+            moduleReadinessService.ensureReady(moduleId);
+            List<Student> students = sortedStudents(moduleId);
+            Map<Long, CalculationService.StudentComputation> computations = new HashMap<>(toComputations(
+                    studentModuleResultRepository.findByModuleIdAndResultTypeIn(
+                            moduleId, List.of(StudentResultType.EVALUATION, StudentResultType.FINAL))));
+            computations.values().removeIf(computation -> computation.finalGrade() == null);
+
+            List<Student> missing = students.stream()
+                    .filter(student -> !computations.containsKey(student.getId()))
+                    .toList();
+            if (!missing.isEmpty()) {
+                computations.putAll(calculationService.computeForStudents(moduleId, missing));
+            }
+
+            dashboard = calculationService.buildDashboard(moduleId, students, computations);
+        }
+
+        return ModuleDashboardResponse.builder()
+                .moduleId(moduleId)
+                .evaluationReports(evaluationClosureService.withClosedReports(moduleId, dashboard.getEvaluationReports()))
+                .finalReport(dashboard.getFinalReport())
+                .preview(includePreview ? modulePreviewService.getPreview(moduleId) : null)
+                .freshness(state == null ? liveFreshness() : materializedFreshness(state))
+                .build();
+    }
+
+    // Conditional reads call this before comparing ETags, so a student of another module is rejected
+    // instead of answered with a 304 carrying the module's tag.
+    @Transactional(readOnly = true)
+    public void checkStudentsBelongToModule(Long moduleId, List<Long> studentIds) {
+        if (studentIds != null && !studentIds.isEmpty()) {
+            calculationService.findModuleStudents(moduleId, studentIds);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public StudentReportResponse getStudentReport(Long studentId, Long moduleId) {
+        return evaluationClosureService.withClosedPeriods(calculationService.getStudentReport(studentId, moduleId));
+    }
+
+    @Transactional(readOnly = true)
+    public ModuleStudentReportsResponse getStudentReports(Long moduleId, List<Long> studentIds) {
+        List<StudentReportResponse> reports = calculationService.getStudentReports(moduleId, studentIds);
+        return ModuleStudentReportsResponse.builder()
+                .moduleId(moduleId)
+                .students(evaluationClosureService.withClosedPeriods(
+                        reports, evaluationClosureService.findSnapshotsByStudent(moduleId)))
+                .build();
+    }
+
+    @Transactional
+    public void refreshStudents(Long moduleId, Map<Long, Set<Long>> changedInstrumentIdsByStudentId) {
+        if (changedInstrumentIdsByStudentId.isEmpty()) {
+            return;
+        }
+
+        // Modules without a state row have never been materialized; the next report read builds them.
+        ModuleResultState state = moduleResultStateRepository.findForUpdate(moduleId).orElse(null);
+        if (state == null) {
+            return;
+        }
+
+        List<Student> students = studentRepository.findAllById(changedInstrumentIdsByStudentId.keySet());
+        List<StudentModuleResult> existingRows = studentModuleResultRepository
+                .findByModuleIdAndStudentIdIn(moduleId, changedInstrumentIdsByStudentId.keySet());
+
+        writeResults(moduleId, existingRows, calculationService.recomputeForStudents(
+                moduleId,
+                students,
+                state.isStale() ? Map.of() : toComputations(existingRows),
+                changedInstrumentIdsByStudentId
+        ));
+    }
+
+    @Transactional
+    public void markStale(Long moduleId) {
+        ModuleResultState state = moduleResultStateRepository.findForUpdate(moduleId).orElse(null);
+        if (state == null) {
+            return;
+        }
+
+        if (!state.isStale()) {
+            state.setStale(true);
+            state.setStaleSince(OffsetDateTime.now());
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleRebuild(moduleId);
+                }
+            });
+        } else {
+            scheduleRebuild(moduleId);
+        }
+    }
+
+    @Transactional
+    public void deleteModuleResults(Long moduleId) {
+        studentModuleResultRepository.deleteByModuleId(moduleId);
+        moduleResultStateRepository.deleteById(moduleId);
+    }
+
+    private void scheduleRebuild(Long moduleId) {
+        if (!pendingRebuilds.add(moduleId)) {
+            return;
+        }
+
+        resultRebuildExecutor.execute(moduleId, () -> {
+            pendingRebuilds.remove(moduleId);
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> rebuildModule(moduleId));
+            } catch (BusinessValidationException | ResourceNotFoundException ex) {
+                log.info("Skipping result rebuild for module {}: {}", moduleId, ex.getMessage());
+            }
+        });
+    }
+
+    private void rebuildModule(Long moduleId) {
+        ModuleResultState state = moduleResultStateRepository.findForUpdate(moduleId)
+                .orElseGet(() -> moduleResultStateRepository.save(ModuleResultState.builder()
+                        .moduleId(moduleId)
+                        .stale(true)
+                        .staleSince(OffsetDateTime.now())
+                        .build()));
+
+        List<Student> students = studentRepository.findByModuleId(moduleId);
+        writeResults(moduleId,
+                studentModuleResultRepository.findByModuleId(moduleId),
+                calculationService.computeForStudents(moduleId, students));
+
+        state.setStale(false);
+        state.setStaleSince(null);
+        state.setRefreshedAt(OffsetDateTime.now());
+        moduleVersionTracker.dataChanged(moduleId);
+    }
+
+    private void writeResults(Long moduleId,
+                              List<StudentModuleResult> existingRows,
+                              Map<Long, CalculationService.StudentComputation> computations) {
+        Map<ResultKey, StudentModuleResult> existing = new HashMap<>();
+        for (StudentModuleResult row : existingRows) {
+            existing.put(new ResultKey(row.getStudentId(), row.getResultType(), row.getReferenceId()), row);
+        }
+
+        List<StudentModuleResult> created = new ArrayList<>();
+        computations.forEach((studentId, computation) -> {
+            computation.activityGrades().forEach((activityId, grade) -> upsert(existing, created,
+                    moduleId, studentId, StudentResultType.ACTIVITY, activityId, grade, null, null));
+            computation.utRaGrades().forEach((linkId, grade) -> upsert(existing, created,
+                    moduleId, studentId, StudentResultType.UT_RA, linkId, grade, null, null));
+            computation.raGlobalGrades().forEach((raId, grade) -> upsert(existing, created,
+                    moduleId, studentId, StudentResultType.RA, raId, grade, null, null));
+            computation.evaluationResults().forEach((period, result) -> upsert(existing, created,
+                    moduleId, studentId, StudentResultType.EVALUATION, period.longValue(),
+                    result.numericGrade(), result.suggestedBulletinGrade(), result.allRAsPassed()));
+            upsert(existing, created, moduleId, studentId, StudentResultType.FINAL, FINAL_REFERENCE_ID,
+                    computation.finalGrade(), null, null);
+        });
+
+        // Whatever is left belongs to students, activities, RAs or periods that no longer exist.
+        studentModuleResultRepository.deleteAll(existing.values());
+        studentModuleResultRepository.saveAll(created);
+    }
+
+    private void upsert(Map<ResultKey, StudentModuleResult> existing,
+                        List<StudentModuleResult> created,
+                        Long moduleId,
+                        Long studentId,
+                        StudentResultType type,
+                        Long referenceId,
+                        BigDecimal grade,
+                        Integer suggestedBulletinGrade,
+                        Boolean allRAsPassed) {
+        StudentModuleResult row = existing.remove(new ResultKey(studentId, type, referenceId));
+        if (row != null) {
+            if (row.getGrade().compareTo(grade) != 0) {
+                row.setGrade(grade);
+            }
+            row.setSuggestedBulletinGrade(suggestedBulletinGrade);
+            row.setAllRAsPassed(allRAsPassed);
+            return;
+        }
+
+        created.add(StudentModuleResult.builder()
+                .moduleId(moduleId)
+                .studentId(studentId)
+                .resultType(type)
+                .referenceId(referenceId)
+                .grade(grade)
+                .suggestedBulletinGrade(suggestedBulletinGrade)
+                .allRAsPassed(allRAsPassed)
+                .build());
+    }
+
+    private Map<Long, CalculationService.StudentComputation> toComputations(List<StudentModuleResult> rows) {
+        Map<Long, List<StudentModuleResult>> rowsByStudent = rows.stream()
+                .collect(Collectors.groupingBy(StudentModuleResult::getStudentId));
+
+        Map<Long, CalculationService.StudentComputation> result = new HashMap<>();
+        rowsByStudent.forEach((studentId, studentRows) -> {
+            Map<Long, BigDecimal> activityGrades = new LinkedHashMap<>();
+            Map<Long, BigDecimal> utRaGrades = new LinkedHashMap<>();
+            Map<Long, BigDecimal> raGlobalGrades = new LinkedHashMap<>();
+            Map<Integer, CalculationService.EvaluationResult> evaluationResults = new TreeMap<>();
+            BigDecimal finalGrade = null;
+
+            for (StudentModuleResult row : studentRows) {
+                switch (row.getResultType()) {
+                    case ACTIVITY -> activityGrades.put(row.getReferenceId(), row.getGrade());
+                    case UT_RA -> utRaGrades.put(row.getReferenceId(), row.getGrade());
+                    case RA -> raGlobalGrades.put(row.getReferenceId(), row.getGrade());
+                    case EVALUATION -> evaluationResults.put(row.getReferenceId().intValue(),
+                            new CalculationService.EvaluationResult(
+                                    row.getGrade(),
+                                    row.getSuggestedBulletinGrade(),
+                                    Boolean.TRUE.equals(row.getAllRAsPassed())
+                            ));
+                    case FINAL -> finalGrade = row.getGrade();
+                }
+            }
+
+            result.put(studentId, new CalculationService.StudentComputation(
+                    activityGrades, utRaGrades, raGlobalGrades, evaluationResults, finalGrade));
+        });
+        return result;
+    }
+
+    private List<Student> sortedStudents(Long moduleId) {
+        return studentRepository.findByModuleId(moduleId).stream()
+                .sorted(Comparator.comparing(Student::getStudentCode))
+                .toList();
+    }
+
+    private Map<Long, StudentModuleResult> rowsByStudentId(Long moduleId, StudentResultType type, Long referenceId) {
+        return studentModuleResultRepository.findByModuleIdAndResultTypeAndReferenceId(moduleId, type, referenceId).stream()
+                .collect(Collectors.toMap(StudentModuleResult::getStudentId, row -> row, (first, second) -> first));
+    }
+
+    private Map<Long, CalculationService.StudentComputation> computeMissing(Long moduleId,
+                                                                          List<Student> students,
+                                                                          Map<Long, StudentModuleResult> rowsByStudentId) {
+        List<Student> missing = students.stream()
+                .filter(student -> !rowsByStudentId.containsKey(student.getId()))
+                .toList();
+        return missing.isEmpty() ? Map.of() : calculationService.computeForStudents(moduleId, missing);
+    }
+
+    private ReportFreshnessDto materializedFreshness(ModuleResultState state) {
+        return ReportFreshnessDto.builder()
+                .source(SOURCE_MATERIALIZED)
+                .stale(state.isStale())
+                .staleSince(state.getStaleSince())
+                .refreshedAt(state.getRefreshedAt())
+                .build();
+    }
+
+    private ReportFreshnessDto liveFreshness() {
+        return ReportFreshnessDto.builder()
+                .source(SOURCE_LIVE)
+                .stale(false)
+                .build();
+    }
+
+    private record ResultKey(Long studentId, StudentResultType type, Long referenceId) {
+    }
+}
@@ -2,18 +2,25 @@ package com.sara.tfgdam.validation;
 
 import com.sara.tfgdam.domain.entity.Activity;
 import com.sara.tfgdam.domain.entity.Instrument;
+import com.sara.tfgdam.domain.entity.InstrumentRA;
 import com.sara.tfgdam.domain.entity.LearningOutcomeRA;
+import com.sara.tfgdam.domain.entity.UTRALink;
 import com.sara.tfgdam.exception.BusinessValidationException;
-import com.sara.tfgdam.repository.ActivityRepository;
 import com.sara.tfgdam.repository.InstrumentRepository;
 import com.sara.tfgdam.repository.LearningOutcomeRARepository;
+import com.sara.tfgdam.repository.RADistributionTotal;
 import com.sara.tfgdam.repository.TeachingUnitUTRepository;
 import com.sara.tfgdam.repository.UTRALinkRepository;
+import com.sara.tfgdam.repository.WeightTotal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Component
@@ -22,35 +29,30 @@ public class ConfigurationValidator {
 
     private static final BigDecimal HUNDRED = new BigDecimal("100.00");
     private static final BigDecimal ZERO = new BigDecimal("0.00");
+    private static final String NO_RAS_MESSAGE = "Module has no RAs configured";
+    private static final String NO_ACTIVITIES_MESSAGE = "Module has no activities/UTs configured";
 
     private final LearningOutcomeRARepository learningOutcomeRARepository;
     private final UTRALinkRepository utraLinkRepository;
-    private final ActivityRepository activityRepository;
     private final InstrumentRepository instrumentRepository;
     private final TeachingUnitUTRepository teachingUnitUTRepository;
 
     public void validateRAWeightDoesNotExceed100(Long moduleId) {
-        BigDecimal sum = learningOutcomeRARepository.findByModuleId(moduleId).stream()
-                .map(LearningOutcomeRA::getWeightPercent)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal sum = orZero(learningOutcomeRARepository.sumWeightPercentByModuleId(moduleId));
         if (sum.compareTo(HUNDRED) > 0) {
             throw new BusinessValidationException("In module " + moduleId + ", sum of RA weights cannot exceed 100. Current=" + sum);
         }
     }
 
     public void validateRADistributionDoesNotExceed100(Long raId) {
-        BigDecimal sum = utraLinkRepository.findByLearningOutcomeId(raId).stream()
-                .map(link -> link.getPercent())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal sum = orZero(utraLinkRepository.sumPercentByLearningOutcomeId(raId));
         if (sum.compareTo(HUNDRED) > 0) {
             throw new BusinessValidationException("For RA " + raId + ", sum of UT-RA distribution cannot exceed 100. Current=" + sum);
         }
     }
 
     public void validateInstrumentWeightsDoNotExceed100(Long activityId) {
-        BigDecimal sum = instrumentRepository.findByActivityId(activityId).stream()
-                .map(Instrument::getWeightPercent)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal sum = orZero(instrumentRepository.sumWeightPercentByActivityId(activityId));
         if (sum.compareTo(HUNDRED) > 0) {
             throw new BusinessValidationException("For activity " + activityId + ", sum of instrument weights cannot exceed 100. Current=" + sum);
         }
@@ -72,57 +74,179 @@ public class ConfigurationValidator {
         }
     }
 
+    // Each rule is one aggregate query (RA weights, UT-RA percentages per RA, instrument weights per
+    // activity); a later query only runs once the earlier rule has passed.
     public void validateModuleReadyForCalculations(Long moduleId) {
-        validateRAWeightsExactly100(moduleId);
-        validateEachRADistributionExactly100(moduleId);
-        validateEachActivityInModuleInstrumentsExactly100(moduleId);
-    }
+        WeightTotal raWeights = learningOutcomeRARepository.findWeightTotalByModuleId(moduleId)
+                .orElse(new WeightTotal(moduleId, 0L, null));
+        checkRAWeightsExactly100(moduleId, raWeights.count(), orZero(raWeights.total()));
 
-    private void validateRAWeightsExactly100(Long moduleId) {
-        List<LearningOutcomeRA> ras = learningOutcomeRARepository.findByModuleId(moduleId);
-        if (ras.isEmpty()) {
-            throw new BusinessValidationException("Module has no RAs configured");
+        for (RADistributionTotal distribution : utraLinkRepository.findDistributionTotalsByModuleId(moduleId)) {
+            checkRADistributionExactly100(distribution.raId(), distribution.raCode(), orZero(distribution.total()));
+        }
+
+        List<WeightTotal> activityWeights = instrumentRepository.findWeightTotalsByModuleId(moduleId);
+        checkHasActivities(activityWeights.size());
+        for (WeightTotal activityWeight : activityWeights) {
+            checkActivityInstrumentsExactly100(activityWeight.id(), orZero(activityWeight.total()));
         }
+    }
 
-        BigDecimal sum = ras.stream()
+    public void validateModuleReadyForCalculations(Long moduleId,
+                                                   List<LearningOutcomeRA> ras,
+                                                   List<UTRALink> utRaLinks,
+                                                   List<Activity> activities,
+                                                   List<Instrument> instruments) {
+        checkRAWeightsExactly100(moduleId, ras.size(), ras.stream()
                 .map(LearningOutcomeRA::getWeightPercent)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
 
-        if (sum.compareTo(HUNDRED) != 0) {
-            throw new BusinessValidationException("In module " + moduleId + ", sum of RA weights must be exactly 100. Current=" + sum);
+        Map<Long, BigDecimal> percentByRaId = new HashMap<>();
+        for (UTRALink link : utRaLinks) {
+            percentByRaId.merge(link.getLearningOutcome().getId(), link.getPercent(), BigDecimal::add);
+        }
+        for (LearningOutcomeRA ra : ras) {
+            checkRADistributionExactly100(ra.getId(), ra.getCode(), percentByRaId.getOrDefault(ra.getId(), BigDecimal.ZERO));
+        }
+
+        checkHasActivities(activities.size());
+
+        Map<Long, BigDecimal> weightByActivityId = new HashMap<>();
+        for (Instrument instrument : instruments) {
+            weightByActivityId.merge(instrument.getActivity().getId(), instrument.getWeightPercent(), BigDecimal::add);
+        }
+        for (Activity activity : activities) {
+            checkActivityInstrumentsExactly100(activity.getId(), weightByActivityId.getOrDefault(activity.getId(), BigDecimal.ZERO));
         }
     }
 
-    private void validateEachRADistributionExactly100(Long moduleId) {
-        List<LearningOutcomeRA> ras = learningOutcomeRARepository.findByModuleId(moduleId);
+    // Every problem of the module in one pass over rows already in memory, in the order the
+    // readiness check meets them; blocking messages match the ones it throws.
+    public List<ConfigurationViolation> findViolations(Long moduleId,
+                                                       List<LearningOutcomeRA> ras,
+                                                       List<UTRALink> utRaLinks,
+                                                       List<Activity> activities,
+                                                       List<Instrument> instruments,
+                                                       List<InstrumentRA> instrumentRAs) {
+        List<ConfigurationViolation> violations = new ArrayList<>();
+
+        BigDecimal raWeightSum = ras.stream()
+                .map(LearningOutcomeRA::getWeightPercent)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (ras.isEmpty()) {
+            violations.add(new ConfigurationViolation("NO_RAS", true, "MODULE", moduleId, null, NO_RAS_MESSAGE));
+        } else if (raWeightSum.compareTo(HUNDRED) != 0) {
+            violations.add(new ConfigurationViolation("RA_WEIGHT_TOTAL", true, "MODULE", moduleId, raWeightSum,
+                    raWeightsMessage(moduleId, raWeightSum)));
+        }
+
+        Map<Long, BigDecimal> percentByRaId = new HashMap<>();
+        Map<Long, Set<Long>> allowedRaIdsByUtId = new HashMap<>();
+        for (UTRALink link : utRaLinks) {
+            percentByRaId.merge(link.getLearningOutcome().getId(), link.getPercent(), BigDecimal::add);
+            if (link.getPercent().compareTo(ZERO) > 0) {
+                allowedRaIdsByUtId.computeIfAbsent(link.getTeachingUnit().getId(), k -> new HashSet<>())
+                        .add(link.getLearningOutcome().getId());
+            }
+        }
         for (LearningOutcomeRA ra : ras) {
-            BigDecimal sum = utraLinkRepository.findByLearningOutcomeId(ra.getId()).stream()
-                    .map(link -> link.getPercent())
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal sum = percentByRaId.getOrDefault(ra.getId(), BigDecimal.ZERO);
             if (sum.compareTo(HUNDRED) != 0) {
-                throw new BusinessValidationException(
-                        "For RA " + ra.getId() + " (" + ra.getCode() + "), sum of UT-RA percentages must be exactly 100. Current=" + sum
-                );
+                violations.add(new ConfigurationViolation("RA_DISTRIBUTION", true, "RA", ra.getId(), sum,
+                        raDistributionMessage(ra.getId(), ra.getCode(), sum)));
             }
         }
-    }
 
-    private void validateEachActivityInModuleInstrumentsExactly100(Long moduleId) {
-        List<Activity> activities = activityRepository.findByModuleId(moduleId);
+        Map<Long, BigDecimal> weightByActivityId = new HashMap<>();
+        for (Instrument instrument : instruments) {
+            weightByActivityId.merge(instrument.getActivity().getId(), instrument.getWeightPercent(), BigDecimal::add);
+        }
         if (activities.isEmpty()) {
-            throw new BusinessValidationException("Module has no activities/UTs configured");
+            violations.add(new ConfigurationViolation("NO_ACTIVITIES", true, "MODULE", moduleId, null, NO_ACTIVITIES_MESSAGE));
         }
-
         for (Activity activity : activities) {
-            BigDecimal sum = instrumentRepository.findByActivityId(activity.getId()).stream()
-                    .map(Instrument::getWeightPercent)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal sum = weightByActivityId.getOrDefault(activity.getId(), BigDecimal.ZERO);
             if (sum.compareTo(HUNDRED) != 0) {
-                throw new BusinessValidationException(
-                        "For activity " + activity.getId() + ", sum of instrument weights must be exactly 100. Current=" + sum
-                );
+                violations.add(new ConfigurationViolation("ACTIVITY_INSTRUMENT_WEIGHTS", true, "ACTIVITY", activity.getId(), sum,
+                        activityInstrumentsMessage(activity.getId(), sum)));
+            }
+        }
+
+        Map<Long, List<InstrumentRA>> linksByInstrumentId = new HashMap<>();
+        for (InstrumentRA link : instrumentRAs) {
+            linksByInstrumentId.computeIfAbsent(link.getInstrument().getId(), k -> new ArrayList<>()).add(link);
+        }
+        for (Instrument instrument : instruments) {
+            List<InstrumentRA> links = linksByInstrumentId.getOrDefault(instrument.getId(), List.of());
+            if (links.isEmpty()) {
+                violations.add(new ConfigurationViolation("INSTRUMENT_WITHOUT_RA", false, "INSTRUMENT", instrument.getId(), null,
+                        "Instrument " + instrument.getId() + " has no RA associations. Link instrument-RA before adding grades."));
+            }
+
+            Set<Long> allowedRaIds = allowedRaIdsByUtId.getOrDefault(instrument.getActivity().getTeachingUnit().getId(), Set.of());
+            for (InstrumentRA link : links) {
+                Long raId = link.getLearningOutcome().getId();
+                if (!allowedRaIds.contains(raId)) {
+                    violations.add(new ConfigurationViolation("INSTRUMENT_RA_NOT_ALLOWED", false, "INSTRUMENT", instrument.getId(), null,
+                            "Instrument " + instrument.getId()
+                                    + " can only be associated to RAs with UT-RA percent > 0 in this UT. Invalid raId=" + raId));
+                }
             }
         }
+
+        for (UTRALink link : utRaLinks) {
+            if (link.getPercent().compareTo(ZERO) == 0) {
+                violations.add(new ConfigurationViolation("UT_RA_ZERO_PERCENT", false, "UT_RA_LINK", link.getId(), link.getPercent(),
+                        "UT " + link.getTeachingUnit().getId() + " is linked to RA " + link.getLearningOutcome().getId()
+                                + " with 0 percent"));
+            }
+        }
+
+        return violations;
+    }
+
+    private void checkRAWeightsExactly100(Long moduleId, long raCount, BigDecimal sum) {
+        if (raCount == 0) {
+            throw new BusinessValidationException(NO_RAS_MESSAGE);
+        }
+
+        if (sum.compareTo(HUNDRED) != 0) {
+            throw new BusinessValidationException(raWeightsMessage(moduleId, sum));
+        }
+    }
+
+    private void checkRADistributionExactly100(Long raId, String raCode, BigDecimal sum) {
+        if (sum.compareTo(HUNDRED) != 0) {
+            throw new BusinessValidationException(raDistributionMessage(raId, raCode, sum));
+        }
+    }
+
+    private void checkHasActivities(int activityCount) {
+        if (activityCount == 0) {
+            throw new BusinessValidationException(NO_ACTIVITIES_MESSAGE);
+        }
+    }
+
+    private void checkActivityInstrumentsExactly100(Long activityId, BigDecimal sum) {
+        if (sum.compareTo(HUNDRED) != 0) {
+            throw new BusinessValidationException(activityInstrumentsMessage(activityId, sum));
+        }
+    }
+
+    private static String raWeightsMessage(Long moduleId, BigDecimal sum) {
+        return "In module " + moduleId + ", sum of RA weights must be exactly 100. Current=" + sum;
+    }
+
+    private static String raDistributionMessage(Long raId, String raCode, BigDecimal sum) {
+        return "For RA " + raId + " (" + raCode + "), sum of UT-RA percentages must be exactly 100. Current=" + sum;
+    }
+
+    private static String activityInstrumentsMessage(Long activityId, BigDecimal sum) {
+        return "For activity " + activityId + ", sum of instrument weights must be exactly 100. Current=" + sum;
+    }
+
+    private BigDecimal orZero(BigDecimal sum) {
+        return sum != null ? sum : BigDecimal.ZERO;
     }
 
     public void validateUTBelongsToModule(Long moduleId, Long utId) {
@@ -0,0 +1,13 @@
+package com.sara.tfgdam.validation;
+
+import java.math.BigDecimal;
+
+// blocking violations are the ones validateModuleReadyForCalculations rejects; the rest only
+// stop grading a single instrument or leave part of the configuration without effect.
+public record ConfigurationViolation(String code,
+                                     boolean blocking,
+                                     String referenceType,
+                                     Long referenceId,
+                                     BigDecimal current,
+                                     String message) {
+}
@@ -0,0 +1,186 @@
+package com.sara.tfgdam.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sara.tfgdam.security.CustomUserDetailsService;
+import com.sara.tfgdam.security.JwtTokenService;
+import com.sara.tfgdam.security.UserPrincipal;
+import com.sara.tfgdam.service.GradeService;
+import com.sara.tfgdam.support.ModuleFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.sara.tfgdam.support.ModuleFixture.batch;
+import static com.sara.tfgdam.support.ModuleFixture.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(ModuleFixture.class)
+class ModuleControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtTokenService jwtTokenService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private ModuleFixture moduleFixture;
+
+    @Test
+    void dashboard_matchesTheSeparateReports() throws Exception {
+        ModuleFixture.ReadyModule module = gradedModule();
+        Long moduleId = module.moduleId();
+
+        JsonNode dashboard = getJson("/modules/{id}/dashboard?includePreview=true", moduleId);
+
+        assertThat(dashboard.get("moduleId").asLong()).isEqualTo(moduleId);
+        JsonNode evaluationReports = dashboard.get("evaluationReports");
+        assertThat(evaluationReports).hasSize(2);
+        for (int period = 1; period <= 2; period++) {
+            JsonNode report = getJson("/modules/{id}/reports/evaluation/" + period, moduleId);
+            assertThat(evaluationReports.get(period - 1).get("evaluationPeriod").asInt()).isEqualTo(period);
+            assertGradesEqual(evaluationReports.get(period - 1).get("students"), report.get("students"));
+        }
+        assertGradesEqual(dashboard.get("finalReport").get("students"), getJson("/modules/{id}/reports/final", moduleId).get("students"));
+        assertThat(dashboard.get("preview")).isEqualTo(getJson("/modules/{id}/preview", moduleId));
+
+        assertThat(getJson("/modules/{id}/dashboard", moduleId).get("preview").isNull()).isTrue();
+    }
+
+    @Test
+    void statistics_matchHandComputedFigures() throws Exception {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(4);
+        Long moduleId = module.moduleId();
+        gradeService.upsertGrades(batch(
+                entry(module.student(0), module.instrument(0), "4.00"),
+                entry(module.student(1), module.instrument(0), "6.00"),
+                entry(module.student(2), module.instrument(0), "9.50"),
+                entry(module.student(3), module.instrument(0), "10.00"),
+                entry(module.student(0), module.instrument(2), "5.00"),
+                entry(module.student(1), module.instrument(2), "3.00")
+        ), "test");
+
+        JsonNode statistics = getJson("/modules/{id}/statistics", moduleId);
+
+        assertThat(statistics.get("studentCount").asInt()).isEqualTo(4);
+
+        // 4, 6, 9.5 and 10: mean 7.375, population variance 24.6875 / 4.
+        JsonNode exam = instrumentStatistics(statistics, module.instrument(0));
+        assertThat(exam.get("count").asLong()).isEqualTo(4);
+        assertThat(exam.get("mean").decimalValue()).isEqualByComparingTo("7.375");
+        assertThat(exam.get("median").decimalValue()).isEqualByComparingTo("7.75");
+        assertThat(exam.get("standardDeviation").decimalValue())
+                .isEqualByComparingTo(BigDecimal.valueOf(Math.sqrt(24.6875 / 4)).setScale(4, RoundingMode.HALF_UP));
+        assertThat(exam.get("min").decimalValue()).isEqualByComparingTo("4.00");
+        assertThat(exam.get("max").decimalValue()).isEqualByComparingTo("10.00");
+        assertThat(exam.get("passPercent").decimalValue()).isEqualByComparingTo("75");
+        assertThat(exam.get("histogram")).extracting(JsonNode::asLong).containsExactly(0L, 0L, 0L, 0L, 1L, 0L, 1L, 0L, 0L, 2L);
+
+        JsonNode examUt2 = instrumentStatistics(statistics, module.instrument(2));
+        assertThat(examUt2.get("count").asLong()).isEqualTo(2);
+        assertThat(examUt2.get("mean").decimalValue()).isEqualByComparingTo("4");
+        assertThat(examUt2.get("passPercent").decimalValue()).isEqualByComparingTo("50");
+
+        JsonNode ungraded = instrumentStatistics(statistics, module.instrument(1));
+        assertThat(ungraded.get("count").asLong()).isZero();
+        assertThat(ungraded.get("mean").isNull()).isTrue();
+
+        // The final figures follow the final report, one grade per student.
+        List<BigDecimal> finalGrades = new ArrayList<>();
+        getJson("/modules/{id}/reports/final", moduleId).get("students")
+                .forEach(row -> finalGrades.add(row.get("finalGrade").decimalValue()));
+        BigDecimal sum = finalGrades.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        long passed = finalGrades.stream().filter(grade -> grade.compareTo(new BigDecimal("5")) >= 0).count();
+
+        JsonNode finalGrade = statistics.get("finalGrade");
+        assertThat(finalGrade.get("count").asLong()).isEqualTo(4);
+        assertThat(finalGrade.get("mean").decimalValue())
+                .isCloseTo(sum.divide(BigDecimal.valueOf(4), 4, RoundingMode.HALF_UP), within(new BigDecimal("0.0001")));
+        assertThat(finalGrade.get("min").decimalValue()).isEqualByComparingTo(Collections.min(finalGrades));
+        assertThat(finalGrade.get("max").decimalValue()).isEqualByComparingTo(Collections.max(finalGrades));
+        assertThat(finalGrade.get("passPercent").decimalValue()).isEqualByComparingTo(BigDecimal.valueOf(passed * 25));
+        assertThat(statistics.get("evaluations")).extracting(item -> item.get("statistics").get("count").asLong())
+                .containsExactly(4L, 4L);
+    }
+
+    private ModuleFixture.ReadyModule gradedModule() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(3);
+        gradeService.upsertGrades(batch(
+                entry(module.student(0), module.instrument(0), "7.50"),
+                entry(module.student(0), module.instrument(1), "8.00"),
+                entry(module.student(0), module.instrument(2), "6.75"),
+                entry(module.student(0), module.instrument(3), "7.25"),
+                entry(module.student(1), module.instrument(0), "4.00"),
+                entry(module.student(1), module.instrument(2), "4.50"),
+                entry(module.student(2), module.instrument(1), "9.00")
+        ), "test");
+        return module;
+    }
+
+    // Stored and live rows may carry grades with a different scale, so numbers are compared by value.
+    private void assertGradesEqual(JsonNode actual, JsonNode expected) {
+        assertThat(actual.size()).isEqualTo(expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            JsonNode expectedRow = expected.get(i);
+            JsonNode actualRow = actual.get(i);
+            assertThat(actualRow.properties()).hasSameSizeAs(expectedRow.properties());
+            expectedRow.properties().forEach(field -> {
+                JsonNode value = actualRow.get(field.getKey());
+                if (field.getValue().isNumber()) {
+                    assertThat(value.decimalValue()).isEqualByComparingTo(field.getValue().decimalValue());
+                } else {
+                    assertThat(value).isEqualTo(field.getValue());
+                }
+            });
+        }
+    }
+
+    private JsonNode instrumentStatistics(JsonNode statistics, Long instrumentId) {
+        for (JsonNode item : statistics.get("instruments")) {
+            if (item.get("instrumentId").asLong() == instrumentId) {
+                return item.get("statistics");
+            }
+        }
+        throw new AssertionError("No statistics for instrument " + instrumentId);
+    }
+
+    private JsonNode getJson(String path, Long moduleId) throws Exception {
+        String body = mockMvc.perform(get(path, moduleId).header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private String adminToken() {
+        return jwtTokenService.generateAccessToken((UserPrincipal) userDetailsService.loadUserByUsername("admin@admin.com"));
+    }
+}
@@ -0,0 +1,113 @@
+package com.sara.tfgdam.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sara.tfgdam.security.CustomUserDetailsService;
+import com.sara.tfgdam.security.JwtTokenService;
+import com.sara.tfgdam.security.UserPrincipal;
+import com.sara.tfgdam.service.CalculationService;
+import com.sara.tfgdam.service.GradeService;
+import com.sara.tfgdam.service.ReportStreamService;
+import com.sara.tfgdam.support.ModuleFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static com.sara.tfgdam.support.ModuleFixture.batch;
+import static com.sara.tfgdam.support.ModuleFixture.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(ModuleFixture.class)
+class ReportStreamControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenService jwtTokenService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private ReportStreamService reportStreamService;
+
+    @Autowired
+    private CalculationService calculationService;
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ModuleFixture moduleFixture;
+
+    @Test
+    void finalReportStream_asyncDispatchKeepsTheAuthenticatedUserAndWritesEveryPage() throws Exception {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(3);
+        gradeService.upsertGrades(batch(
+                entry(module.student(0), module.instrument(0), "7.00"),
+                entry(module.student(1), module.instrument(2), "5.50"),
+                entry(module.student(2), module.instrument(3), "9.00")
+        ), "test");
+
+        ReflectionTestUtils.setField(reportStreamService, "pageSize", 2);
+        try {
+            MvcResult started = mockMvc.perform(get("/modules/{id}/reports/final/stream", module.moduleId())
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken()))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            String body = mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+
+            List<String> expected = calculationService.getModuleFinalReport(module.moduleId()).getStudents().stream()
+                    .map(this::toJson)
+                    .toList();
+            assertThat(body.lines().toList()).isEqualTo(expected);
+        } finally {
+            ReflectionTestUtils.setField(reportStreamService, "pageSize", 200);
+        }
+    }
+
+    @Test
+    void finalReportStream_withoutTokenIsRejectedBeforeStreaming() throws Exception {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(1);
+
+        mockMvc.perform(get("/modules/{id}/reports/final/stream", module.moduleId()))
+                .andExpect(status().isUnauthorized())
+                .andExpect(request().asyncNotStarted());
+    }
+
+    private String adminToken() {
+        return jwtTokenService.generateAccessToken((UserPrincipal) userDetailsService.loadUserByUsername("admin@admin.com"));
+    }
+
+    private String toJson(Object row) {
+        try {
+            return objectMapper.writeValueAsString(row);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
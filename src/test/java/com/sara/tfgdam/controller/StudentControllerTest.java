@@ -0,0 +1,103 @@
+package com.sara.tfgdam.controller;
+
+import com.sara.tfgdam.security.CustomUserDetailsService;
+import com.sara.tfgdam.security.JwtTokenService;
+import com.sara.tfgdam.security.UserPrincipal;
+import com.sara.tfgdam.service.GradeService;
+import com.sara.tfgdam.support.ModuleFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static com.sara.tfgdam.support.ModuleFixture.batch;
+import static com.sara.tfgdam.support.ModuleFixture.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(ModuleFixture.class)
+class StudentControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenService jwtTokenService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private ModuleFixture moduleFixture;
+
+    @Test
+    void studentReport_isNotModifiedUntilAGradeOfTheModuleChanges() throws Exception {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(2);
+        gradeService.upsertGrades(batch(entry(module.student(0), module.instrument(0), "7.00")), "test");
+
+        String etag = studentReport(module.student(0), module.moduleId(), null)
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        studentReport(module.student(0), module.moduleId(), etag)
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        // Any grade of the module moves the tag, also one of another student.
+        gradeService.upsertGrades(batch(entry(module.student(1), module.instrument(2), "4.00")), "test");
+
+        String changed = studentReport(module.student(0), module.moduleId(), etag)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertThat(changed).isNotEqualTo(etag);
+    }
+
+    @Test
+    void studentReport_ofAnotherModuleIsRejectedEvenWithAMatchingTag() throws Exception {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(1);
+        ModuleFixture.ReadyModule other = moduleFixture.createReadyModule(1);
+
+        String etag = studentReport(module.student(0), module.moduleId(), null)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        studentReport(other.student(0), module.moduleId(), etag)
+                .andExpect(status().isBadRequest());
+    }
+
+    private ResultActions studentReport(Long studentId, Long moduleId, String ifNoneMatch) throws Exception {
+        var request = get("/students/{id}/report", studentId)
+                .param("moduleId", moduleId.toString())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken());
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return mockMvc.perform(request);
+    }
+
+    private String adminToken() {
+        return jwtTokenService.generateAccessToken((UserPrincipal) userDetailsService.loadUserByUsername("admin@admin.com"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.sara.tfgdam.repository;
+
+import com.sara.tfgdam.domain.entity.Grade;
+import com.sara.tfgdam.support.ModuleFixture;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(ModuleFixture.class)
+@Transactional
+class GradeBulkRepositoryTest {
+
+    @Autowired
+    private GradeRepository gradeRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private InstrumentRepository instrumentRepository;
+
+    @Autowired
+    private ModuleFixture moduleFixture;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void upsertGradeValues_insertsNewKeysAndUpdatesExistingOnesInPlace() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(2);
+        List<Long> studentIds = module.studentIds();
+
+        gradeRepository.upsertGradeValues(List.of(
+                new GradeValue(module.student(0), module.instrument(0), new BigDecimal("5.00")),
+                new GradeValue(module.student(1), module.instrument(0), new BigDecimal("6.00"))
+        ));
+        entityManager.clear();
+        Long firstGradeId = idsByKey(studentIds, module.instrumentIds()).get(key(module.student(0), module.instrument(0)));
+
+        gradeRepository.upsertGradeValues(List.of(
+                new GradeValue(module.student(0), module.instrument(0), new BigDecimal("7.50")),
+                new GradeValue(module.student(0), module.instrument(1), new BigDecimal("8.00"))
+        ));
+        entityManager.clear();
+
+        assertThat(gradeRepository.findValuesByStudentIdInAndInstrumentIdIn(studentIds, module.instrumentIds()))
+                .containsExactlyInAnyOrder(
+                        new GradeValue(module.student(0), module.instrument(0), new BigDecimal("7.50")),
+                        new GradeValue(module.student(0), module.instrument(1), new BigDecimal("8.00")),
+                        new GradeValue(module.student(1), module.instrument(0), new BigDecimal("6.00"))
+                );
+        assertThat(idsByKey(studentIds, module.instrumentIds()).get(key(module.student(0), module.instrument(0))))
+                .isEqualTo(firstGradeId);
+    }
+
+    @Test
+    void uniqueStudentInstrument_rejectsSecondRowForSameKey() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(1);
+        gradeRepository.upsertGradeValues(List.of(
+                new GradeValue(module.student(0), module.instrument(0), new BigDecimal("5.00"))));
+
+        Grade duplicate = Grade.builder()
+                .student(studentRepository.getReferenceById(module.student(0)))
+                .instrument(instrumentRepository.getReferenceById(module.instrument(0)))
+                .gradeValue(new BigDecimal("9.00"))
+                .build();
+
+        assertThatThrownBy(() -> gradeRepository.saveAndFlush(duplicate))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private Map<String, Long> idsByKey(List<Long> studentIds, List<Long> instrumentIds) {
+        return gradeRepository.findByStudentIdInAndInstrumentIdIn(studentIds, instrumentIds).stream()
+                .collect(Collectors.toMap(grade -> key(grade.getStudent().getId(), grade.getInstrument().getId()), Grade::getId));
+    }
+
+    private String key(Long studentId, Long instrumentId) {
+        return studentId + ":" + instrumentId;
+    }
+}
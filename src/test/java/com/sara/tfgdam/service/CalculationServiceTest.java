@@ -1,8 +1,17 @@
 package com.sara.tfgdam.service;
 
+import com.sara.tfgdam.domain.entity.Activity;
+import com.sara.tfgdam.domain.entity.CourseModule;
+import com.sara.tfgdam.domain.entity.Instrument;
+import com.sara.tfgdam.domain.entity.InstrumentRA;
+import com.sara.tfgdam.domain.entity.LearningOutcomeRA;
+import com.sara.tfgdam.domain.entity.Student;
+import com.sara.tfgdam.domain.entity.TeachingUnitUT;
+import com.sara.tfgdam.domain.entity.UTRALink;
 import com.sara.tfgdam.repository.ActivityRepository;
 import com.sara.tfgdam.repository.CourseModuleRepository;
 import com.sara.tfgdam.repository.GradeRepository;
+import com.sara.tfgdam.repository.GradeValue;
 import com.sara.tfgdam.repository.InstrumentRARepository;
 import com.sara.tfgdam.repository.InstrumentRepository;
 import com.sara.tfgdam.repository.LearningOutcomeRARepository;
@@ -10,12 +19,19 @@ import com.sara.tfgdam.repository.StudentRepository;
 import com.sara.tfgdam.repository.StudentEvaluationOverrideRepository;
 import com.sara.tfgdam.repository.TeachingUnitUTRepository;
 import com.sara.tfgdam.repository.UTRALinkRepository;
-import com.sara.tfgdam.validation.ConfigurationValidator;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 
 class CalculationServiceTest {
 
@@ -30,7 +46,10 @@ class CalculationServiceTest {
             (StudentRepository) null,
             (StudentEvaluationOverrideRepository) null,
             (GradeRepository) null,
-            (ConfigurationValidator) null
+            (ModuleReadinessService) null,
+            (ModuleVersionTracker) null,
+            (ModuleContextCache) null,
+            (StudentBatchExecutor) null
     );
 
     @Test
@@ -60,4 +79,241 @@ class CalculationServiceTest {
 
         assertThat(result).isEqualTo(7);
     }
+
+    @Test
+    void compiledPlan_matchesDecimalCalculationExactly() {
+        Random random = new Random(20260101L);
+
+        for (int round = 0; round < 200; round++) {
+            CalculationService.ModuleContext context = randomContext(random);
+            for (int student = 0; student < 10; student++) {
+                Map<Long, BigDecimal> grades = randomGrades(random, context);
+
+                assertThat(calculationService.computeForStudent(context, grades))
+                        .isEqualTo(calculationService.computeForStudentDecimal(context, grades));
+            }
+        }
+    }
+
+    @Test
+    void compiledPlan_whenGradeHasMoreThanTwoDecimals_fallsBackToDecimalCalculation() {
+        Random random = new Random(7L);
+        CalculationService.ModuleContext context = randomContext(random);
+        Map<Long, BigDecimal> grades = randomGrades(random, context);
+        grades.replaceAll((instrumentId, grade) -> new BigDecimal("7.125"));
+
+        assertThat(calculationService.computeForStudent(context, grades))
+                .isEqualTo(calculationService.computeForStudentDecimal(context, grades));
+    }
+
+    @Test
+    void compiledPlan_columnsMatchPerStudentEvaluation() {
+        Random random = new Random(31337L);
+
+        for (int round = 0; round < 100; round++) {
+            CalculationService.ModuleContext context = randomContext(random);
+            CompiledGradePlan plan = context.plan();
+
+            List<Student> students = new ArrayList<>();
+            List<Map<Long, BigDecimal>> gradesByRow = new ArrayList<>();
+            List<GradeValue> gradeValues = new ArrayList<>();
+            for (int row = 0; row < 1 + random.nextInt(40); row++) {
+                Student student = Student.builder().id(1000L + row).studentCode("S" + row).fullName("S" + row).build();
+                Map<Long, BigDecimal> grades = randomGrades(random, context);
+                if (row == 0) {
+                    grades.put(1L + random.nextInt(199), new BigDecimal("5.125"));
+                }
+                grades.forEach((instrumentId, value) -> gradeValues.add(new GradeValue(student.getId(), instrumentId, value)));
+                students.add(student);
+                gradesByRow.add(grades);
+            }
+
+            GradeMatrix matrix = GradeMatrix.load(plan, students, gradeValues);
+            CompiledGradePlan.ColumnResults columns = plan.evaluateColumns(matrix);
+            CompiledGradePlan.Scratch scratch = plan.newScratch();
+
+            for (int row = 0; row < students.size(); row++) {
+                if (!plan.evaluate(scratch, gradesByRow.get(row))) {
+                    assertThat(matrix.isDecimalOnly(row)).isTrue();
+                    assertThat(matrix.decimalGrades(row)).isEqualTo(gradesByRow.get(row));
+                    continue;
+                }
+
+                assertThat(matrix.isDecimalOnly(row)).isFalse();
+                assertThat(columns.finalGrades[row]).isEqualTo(scratch.finalGrade);
+                for (int i = 0; i < scratch.activityGrades.length; i++) {
+                    assertThat(columns.activityGrades[i][row]).isEqualTo(scratch.activityGrades[i]);
+                }
+                for (int i = 0; i < scratch.utRaGrades.length; i++) {
+                    assertThat(columns.utRaGrades[i][row]).isEqualTo(scratch.utRaGrades[i]);
+                }
+                for (int i = 0; i < scratch.raGrades.length; i++) {
+                    assertThat(columns.raGrades[i][row]).isEqualTo(scratch.raGrades[i]);
+                }
+                for (int i = 0; i < scratch.evaluationGrades.length; i++) {
+                    assertThat(columns.evaluationGrades[i][row]).isEqualTo(scratch.evaluationGrades[i]);
+                    assertThat(columns.evaluationPassed[i][row]).isEqualTo(scratch.evaluationPassed[i]);
+                    assertThat(columns.evaluationBulletinGrades[i][row]).isEqualTo(scratch.evaluationBulletinGrades[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void recomputeForChangedInstruments_matchesFullCalculation() {
+        Random random = new Random(424242L);
+
+        for (int round = 0; round < 200; round++) {
+            CalculationService.ModuleContext context = randomContext(random);
+            Map<Long, BigDecimal> grades = randomGrades(random, context);
+            CalculationService.StudentComputation previous = calculationService.computeForStudent(context, grades);
+
+            Set<Long> changedInstrumentIds = new HashSet<>();
+            for (int change = 0; change < 3; change++) {
+                long instrumentId = 1 + random.nextInt(199);
+                grades.put(instrumentId, BigDecimal.valueOf(random.nextInt(1001), 2));
+                changedInstrumentIds.add(instrumentId);
+            }
+
+            assertThat(calculationService.recomputeForChangedInstruments(context, previous, grades, changedInstrumentIds))
+                    .isEqualTo(calculationService.computeForStudentDecimal(context, grades));
+        }
+    }
+
+    @Test
+    void linearModel_matchesCalculationUpToRounding() {
+        Random random = new Random(777L);
+
+        for (int round = 0; round < 200; round++) {
+            CalculationService.ModuleContext context = randomContext(random);
+            Map<Long, BigDecimal> grades = randomGrades(random, context);
+            LinearGradeModel model = context.linearModel();
+            CalculationService.StudentComputation computation = calculationService.computeForStudentDecimal(context, grades);
+
+            for (LearningOutcomeRA ra : context.ras()) {
+                assertThat(model.apply(model.raCoefficients(ra.getId()), grades))
+                        .isCloseTo(computation.raGlobalGrades().get(ra.getId()).doubleValue(), within(0.001));
+            }
+
+            model.raEvaluationCoefficients().forEach((evaluationPeriod, byRa) -> byRa.forEach((raId, coefficients) ->
+                    assertThat(model.apply(coefficients, grades))
+                            .isCloseTo(calculationService.calculateRaEvaluationGradeFromInstruments(
+                                    context, evaluationPeriod, raId, grades).doubleValue(), within(0.001))));
+
+            model.evaluationCoefficients().forEach((evaluationPeriod, coefficients) ->
+                    assertThat(model.apply(coefficients, grades))
+                            .isCloseTo(computation.evaluationResults().get(evaluationPeriod).numericGrade().doubleValue(), within(0.001)));
+
+            assertThat(model.apply(model.finalCoefficients(), grades))
+                    .isCloseTo(computation.finalGrade().doubleValue(), within(0.001));
+        }
+    }
+
+    @Test
+    void gradeStatistics_mergedChunksMatchSinglePass() {
+        Random random = new Random(16);
+        GradeStatistics single = new GradeStatistics();
+        List<GradeStatistics> chunks = List.of(new GradeStatistics(), new GradeStatistics(), new GradeStatistics());
+        for (int i = 0; i < 301; i++) {
+            BigDecimal grade = BigDecimal.valueOf(random.nextInt(100001), 4);
+            single.add(grade);
+            chunks.get(random.nextInt(chunks.size())).add(grade);
+        }
+
+        GradeStatistics merged = chunks.stream().reduce(new GradeStatistics(), GradeStatistics::merge);
+        assertThat(merged.toDto()).isEqualTo(single.toDto());
+
+        GradeStatistics small = new GradeStatistics();
+        List.of("4.00", "6.00", "9.50", "10.00").forEach(grade -> small.add(new BigDecimal(grade)));
+        assertThat(small.toDto().getMedian()).isEqualByComparingTo("7.75");
+        assertThat(small.toDto().getPassPercent()).isEqualByComparingTo("75");
+        assertThat(small.toDto().getHistogram()).containsExactly(0L, 0L, 0L, 0L, 1L, 0L, 1L, 0L, 0L, 2L);
+    }
+
+    private CalculationService.ModuleContext randomContext(Random random) {
+        CourseModule module = CourseModule.builder().id(1L).name("Module").build();
+        long nextId = 1;
+
+        List<LearningOutcomeRA> ras = new ArrayList<>();
+        int raCount = 1 + random.nextInt(6);
+        for (int i = 0; i < raCount; i++) {
+            ras.add(LearningOutcomeRA.builder()
+                    .id(nextId++)
+                    .module(module)
+                    .code("RA" + (i + 1))
+                    .name("RA " + (i + 1))
+                    .weightPercent(randomPercent(random))
+                    .build());
+        }
+
+        List<TeachingUnitUT> uts = new ArrayList<>();
+        List<Activity> activities = new ArrayList<>();
+        List<UTRALink> links = new ArrayList<>();
+        List<Instrument> instruments = new ArrayList<>();
+        List<InstrumentRA> instrumentRAs = new ArrayList<>();
+
+        int utCount = 1 + random.nextInt(6);
+        for (int i = 0; i < utCount; i++) {
+            TeachingUnitUT ut = TeachingUnitUT.builder()
+                    .id(nextId++)
+                    .module(module)
+                    .name("UT" + (i + 1))
+                    .evaluationPeriod(1 + random.nextInt(3))
+                    .build();
+            uts.add(ut);
+
+            List<LearningOutcomeRA> linkedRas = new ArrayList<>();
+            for (LearningOutcomeRA ra : ras) {
+                if (random.nextInt(3) > 0) {
+                    links.add(UTRALink.builder()
+                            .id(nextId++)
+                            .teachingUnit(ut)
+                            .learningOutcome(ra)
+                            .percent(random.nextInt(5) == 0 ? new BigDecimal("0.00") : randomPercent(random))
+                            .build());
+                    linkedRas.add(ra);
+                }
+            }
+
+            if (random.nextInt(8) == 0) {
+                continue;
+            }
+
+            Activity activity = Activity.builder().id(nextId++).module(module).teachingUnit(ut).name(ut.getName()).build();
+            activities.add(activity);
+
+            int instrumentCount = random.nextInt(6);
+            for (int j = 0; j < instrumentCount; j++) {
+                Instrument instrument = Instrument.builder()
+                        .id(nextId++)
+                        .activity(activity)
+                        .name("I" + j)
+                        .weightPercent(randomPercent(random))
+                        .build();
+                instruments.add(instrument);
+
+                for (LearningOutcomeRA ra : linkedRas) {
+                    if (random.nextBoolean()) {
+                        instrumentRAs.add(InstrumentRA.builder().id(nextId++).instrument(instrument).learningOutcome(ra).build());
+                    }
+                }
+            }
+        }
+
+        return new CalculationService.ModuleContext(module, ras, uts, links, activities, instruments, instrumentRAs);
+    }
+
+    private Map<Long, BigDecimal> randomGrades(Random random, CalculationService.ModuleContext context) {
+        Map<Long, BigDecimal> grades = new HashMap<>();
+        for (long id = 1; id < 200; id++) {
+            if (random.nextInt(4) > 0) {
+                grades.put(id, BigDecimal.valueOf(random.nextInt(1001), 2));
+            }
+        }
+        return grades;
+    }
+
+    private BigDecimal randomPercent(Random random) {
+        return BigDecimal.valueOf(random.nextInt(10001), 2);
+    }
 }
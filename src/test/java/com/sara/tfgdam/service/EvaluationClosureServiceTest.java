@@ -0,0 +1,317 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.dto.CreateInstrumentRequest;
+import com.sara.tfgdam.dto.ModuleEvaluationReportResponse;
+import com.sara.tfgdam.dto.PatchInstrumentRequest;
+import com.sara.tfgdam.dto.SetInstrumentRAsRequest;
+import com.sara.tfgdam.dto.StudentEvaluationReportRow;
+import com.sara.tfgdam.dto.UpdateInstrumentRequest;
+import com.sara.tfgdam.dto.UpdateUTRALinkRequest;
+import com.sara.tfgdam.dto.UpdateUTRequest;
+import com.sara.tfgdam.dto.UpsertUTRALinkRequest;
+import com.sara.tfgdam.exception.BusinessValidationException;
+import com.sara.tfgdam.exception.ResourceNotFoundException;
+import com.sara.tfgdam.repository.UTRALinkRepository;
+import com.sara.tfgdam.support.ModuleFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.sara.tfgdam.support.ModuleFixture.batch;
+import static com.sara.tfgdam.support.ModuleFixture.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(ModuleFixture.class)
+class EvaluationClosureServiceTest {
+
+    private static final String ADMIN = "admin@admin.com";
+
+    @Autowired
+    private EvaluationClosureService evaluationClosureService;
+
+    @Autowired
+    private CalculationService calculationService;
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private ModuleSetupService moduleSetupService;
+
+    @Autowired
+    private UTRALinkRepository utraLinkRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ModuleFixture moduleFixture;
+
+    @BeforeEach
+    void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(ADMIN, null));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void closePeriod_freezesTheReportAndRejectsGradesOfThatPeriod() {
+        ModuleFixture.ReadyModule module = gradedModule();
+        List<BigDecimal> live = numericGrades(calculationService.getModuleEvaluationReport(module.moduleId(), 1));
+
+        assertThat(evaluationClosureService.closePeriod(module.moduleId(), 1).getClosedBy()).isEqualTo(ADMIN);
+
+        assertThat(evaluationClosureService.findClosedPeriods(module.moduleId())).containsExactly(1);
+        assertThat(numericGrades(evaluationClosureService.findClosedReport(module.moduleId(), 1).orElseThrow()))
+                .isEqualTo(live);
+        assertThatThrownBy(() -> gradeService.upsertGrades(batch(entry(module.student(0), module.instrument(1), "2.00")), "test"))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage("Evaluation period 1 is closed. Grades of instrument " + module.instrument(1) + " cannot be changed.");
+        // Period 2 stays open.
+        gradeService.upsertGrades(batch(entry(module.student(0), module.instrument(2), "2.00")), "test");
+
+        assertThatThrownBy(() -> evaluationClosureService.closePeriod(module.moduleId(), 1))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage("Evaluation period already closed: 1");
+    }
+
+    @Test
+    void reopenPeriod_acceptsGradesAgain() {
+        ModuleFixture.ReadyModule module = gradedModule();
+        evaluationClosureService.closePeriod(module.moduleId(), 1);
+
+        evaluationClosureService.reopenPeriod(module.moduleId(), 1);
+
+        assertThat(evaluationClosureService.findClosedPeriods(module.moduleId())).isEmpty();
+        assertThat(evaluationClosureService.findClosedReport(module.moduleId(), 1)).isEmpty();
+        gradeService.upsertGrades(batch(entry(module.student(0), module.instrument(1), "2.00")), "test");
+        assertThatThrownBy(() -> evaluationClosureService.reopenPeriod(module.moduleId(), 1))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Evaluation period is not closed: 1");
+    }
+
+    @Test
+    void closedPeriod_rejectsDeletingItsInstrumentsAndMovingItsUTs() {
+        ModuleFixture.ReadyModule module = gradedModule();
+        Long ut1Id = module.utIds().get(0);
+        Long ut2Id = module.utIds().get(1);
+        evaluationClosureService.closePeriod(module.moduleId(), 1);
+
+        assertThatThrownBy(() -> moduleSetupService.deleteInstrument(module.instrument(0)))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage("Evaluation period 1 is closed. Instrument " + module.instrument(0) + " cannot be deleted.");
+        assertThatThrownBy(() -> moduleSetupService.updateUT(ut1Id, utUpdate("UT1", 2)))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage("Evaluation period 1 is closed. UT " + ut1Id + " cannot be moved to evaluation period 2.");
+        assertThatThrownBy(() -> moduleSetupService.updateUT(ut2Id, utUpdate("UT2", 1)))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage("Evaluation period 1 is closed. UT " + ut2Id + " cannot be moved to evaluation period 1.");
+        assertThatThrownBy(() -> moduleSetupService.deleteUT(ut1Id))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage("Evaluation period 1 is closed. UT " + ut1Id + " cannot be deleted.");
+
+        // Renaming does not change any grade, and period 2 is open.
+        assertThat(moduleSetupService.updateUT(ut1Id, utUpdate("UT1 renombrada", 1)).getName()).isEqualTo("UT1 renombrada");
+        moduleSetupService.deleteInstrument(module.instrument(3));
+    }
+
+    @Test
+    void closedPeriod_rejectsWeightAndRAChangesOfItsInstrumentsAndUTs() {
+        ModuleFixture.ReadyModule module = gradedModule();
+        Long ut1Id = module.utIds().get(0);
+        Long ra1Id = module.raIds().get(0);
+        Long ut1Ra1LinkId = utraLinkRepository.findByTeachingUnitIdAndLearningOutcomeId(ut1Id, ra1Id).orElseThrow().getId();
+        Long ut2Ra1LinkId = utraLinkRepository.findByTeachingUnitIdAndLearningOutcomeId(module.utIds().get(1), ra1Id).orElseThrow().getId();
+        evaluationClosureService.closePeriod(module.moduleId(), 1);
+        String closed = "Evaluation period 1 is closed. ";
+
+        assertThatThrownBy(() -> moduleSetupService.createInstrument(ut1Id, newInstrument("Extra", "10.00")))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage(closed + "Instruments cannot be added to UT " + ut1Id + ".");
+        assertThatThrownBy(() -> moduleSetupService.updateInstrument(module.instrument(0), instrumentUpdate("Examen UT1", "50.00")))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage(closed + "Weight of instrument " + module.instrument(0) + " cannot be changed.");
+        assertThatThrownBy(() -> moduleSetupService.patchInstrument(module.instrument(1), instrumentPatch(null, "30.00")))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage(closed + "Weight of instrument " + module.instrument(1) + " cannot be changed.");
+        assertThatThrownBy(() -> moduleSetupService.setInstrumentRAs(module.instrument(1), instrumentRAs(module.raIds())))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage(closed + "RAs of instrument " + module.instrument(1) + " cannot be changed.");
+        assertThatThrownBy(() -> moduleSetupService.deleteInstrumentRA(module.instrument(0), module.raIds().get(1)))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage(closed + "RAs of instrument " + module.instrument(0) + " cannot be changed.");
+        assertThatThrownBy(() -> moduleSetupService.clearInstrumentRAs(module.instrument(0)))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage(closed + "RAs of instrument " + module.instrument(0) + " cannot be changed.");
+        assertThatThrownBy(() -> moduleSetupService.upsertUTRALink(module.moduleId(), utraLink(ut1Id, ra1Id, "40.00")))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage(closed + "RA percentages of UT " + ut1Id + " cannot be changed.");
+        assertThatThrownBy(() -> moduleSetupService.updateUTRALink(module.moduleId(), ut1Ra1LinkId, utraLinkUpdate("40.00")))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage(closed + "RA percentages of UT " + ut1Id + " cannot be changed.");
+        assertThatThrownBy(() -> moduleSetupService.deleteUTRALink(module.moduleId(), ut1Ra1LinkId))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage(closed + "RA percentages of UT " + ut1Id + " cannot be changed.");
+
+        // Renaming keeps every weight, and the UTs of period 2 stay editable.
+        moduleSetupService.updateInstrument(module.instrument(0), instrumentUpdate("Examen final UT1", "60.00"));
+        moduleSetupService.patchInstrument(module.instrument(1), instrumentPatch("Practica final UT1", null));
+        moduleSetupService.updateUTRALink(module.moduleId(), ut2Ra1LinkId, utraLinkUpdate("50.00"));
+
+        assertThat(numericGrades(evaluationClosureService.findClosedReport(module.moduleId(), 1).orElseThrow()))
+                .isEqualTo(numericGrades(calculationService.getModuleEvaluationReport(module.moduleId(), 1)));
+    }
+
+    @Test
+    void reopenPeriod_waitsForAGradeWriteInProgress() throws Exception {
+        ModuleFixture.ReadyModule module = gradedModule();
+        evaluationClosureService.closePeriod(module.moduleId(), 1);
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> write = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    gradeService.upsertGrades(batch(entry(module.student(1), module.instrument(2), "10.00")), "test");
+                    written.countDown();
+                    await(release);
+                }));
+        assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> reopen = CompletableFuture.runAsync(() ->
+                evaluationClosureService.reopenPeriod(module.moduleId(), 1));
+        Thread.sleep(300);
+        assertThat(reopen).isNotDone();
+
+        release.countDown();
+        write.get(10, TimeUnit.SECONDS);
+        reopen.get(10, TimeUnit.SECONDS);
+
+        assertThat(evaluationClosureService.findClosedPeriods(module.moduleId())).isEmpty();
+    }
+
+    @Test
+    void closePeriod_waitsForAGradeWriteInProgress() throws Exception {
+        ModuleFixture.ReadyModule module = gradedModule();
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Void> write = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    gradeService.upsertGrades(batch(entry(module.student(1), module.instrument(1), "10.00")), "test");
+                    written.countDown();
+                    await(release);
+                }));
+        assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> close = CompletableFuture.runAsync(() -> {
+            SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(ADMIN, null));
+            try {
+                evaluationClosureService.closePeriod(module.moduleId(), 1);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        });
+        Thread.sleep(300);
+        assertThat(close).isNotDone();
+
+        release.countDown();
+        write.get(10, TimeUnit.SECONDS);
+        close.get(10, TimeUnit.SECONDS);
+
+        // The snapshot was taken after the write committed.
+        assertThat(numericGrades(evaluationClosureService.findClosedReport(module.moduleId(), 1).orElseThrow()))
+                .isEqualTo(numericGrades(calculationService.getModuleEvaluationReport(module.moduleId(), 1)));
+    }
+
+    private ModuleFixture.ReadyModule gradedModule() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(2);
+        gradeService.upsertGrades(batch(
+                entry(module.student(0), module.instrument(0), "6.00"),
+                entry(module.student(0), module.instrument(1), "7.00"),
+                entry(module.student(1), module.instrument(0), "4.00"),
+                entry(module.student(1), module.instrument(1), "3.00")
+        ), "test");
+        return module;
+    }
+
+    private List<BigDecimal> numericGrades(ModuleEvaluationReportResponse report) {
+        return report.getStudents().stream().map(StudentEvaluationReportRow::getNumericGrade).toList();
+    }
+
+    private UpdateUTRequest utUpdate(String name, int evaluationPeriod) {
+        UpdateUTRequest request = new UpdateUTRequest();
+        request.setName(name);
+        request.setEvaluationPeriod(evaluationPeriod);
+        return request;
+    }
+
+    private CreateInstrumentRequest newInstrument(String name, String weightPercent) {
+        CreateInstrumentRequest request = new CreateInstrumentRequest();
+        request.setName(name);
+        request.setWeightPercent(new BigDecimal(weightPercent));
+        return request;
+    }
+
+    private UpdateInstrumentRequest instrumentUpdate(String name, String weightPercent) {
+        UpdateInstrumentRequest request = new UpdateInstrumentRequest();
+        request.setName(name);
+        request.setWeightPercent(new BigDecimal(weightPercent));
+        return request;
+    }
+
+    private PatchInstrumentRequest instrumentPatch(String name, String weightPercent) {
+        PatchInstrumentRequest request = new PatchInstrumentRequest();
+        request.setName(name);
+        request.setWeightPercent(weightPercent == null ? null : new BigDecimal(weightPercent));
+        return request;
+    }
+
+    private SetInstrumentRAsRequest instrumentRAs(List<Long> raIds) {
+        SetInstrumentRAsRequest request = new SetInstrumentRAsRequest();
+        request.setRaIds(raIds);
+        return request;
+    }
+
+    private UpsertUTRALinkRequest utraLink(Long utId, Long raId, String percent) {
+        UpsertUTRALinkRequest request = new UpsertUTRALinkRequest();
+        request.setUtId(utId);
+        request.setRaId(raId);
+        request.setPercent(new BigDecimal(percent));
+        return request;
+    }
+
+    private UpdateUTRALinkRequest utraLinkUpdate(String percent) {
+        UpdateUTRALinkRequest request = new UpdateUTRALinkRequest();
+        request.setPercent(new BigDecimal(percent));
+        return request;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.sara.tfgdam.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sara.tfgdam.domain.entity.Grade;
+import com.sara.tfgdam.dto.GradeEntryRequest;
+import com.sara.tfgdam.repository.GradeRepository;
+import com.sara.tfgdam.repository.InstrumentRARepository;
+import com.sara.tfgdam.security.AuthenticatedUserResolver;
+import com.sara.tfgdam.support.ModuleFixture;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(ModuleFixture.class)
+class GradeBulkUploadServiceTest {
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private GradeRepository gradeRepository;
+
+    @Autowired
+    private InstrumentRARepository instrumentRARepository;
+
+    @Autowired
+    private AuthenticatedUserResolver authenticatedUserResolver;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ModuleFixture moduleFixture;
+
+    @BeforeEach
+    void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("admin@admin.com", null));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void upload_reportsEveryRowInChunksAndKeepsTheValidOnes() throws IOException {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(2);
+        ModuleFixture.ReadyModule otherModule = moduleFixture.createReadyModule(1);
+        Long unlinkedInstrumentId = otherModule.instrument(3);
+        instrumentRARepository.deleteAll(instrumentRARepository.findByInstrumentId(unlinkedInstrumentId));
+
+        CountingOutputStream output = new CountingOutputStream();
+        upload(service(gradeService, 3), output,
+                line(module.student(0), module.instrument(0), "5.00"),
+                "{not json",
+                line(module.student(0), module.instrument(1), "11.00"),
+                "",
+                line(-1L, module.instrument(1), "5.00"),
+                line(module.student(1), -1L, "5.00"),
+                line(module.student(1), otherModule.instrument(0), "5.00"),
+                line(otherModule.student(0), unlinkedInstrumentId, "5.00"),
+                line(module.student(1), module.instrument(1), "6.00"));
+
+        assertThat(output.rows())
+                .extracting(row -> row.get("line").asLong(), row -> row.get("status").asText(), row -> row.path("code").asText(null))
+                .containsExactly(
+                        tuple(1L, "OK", null),
+                        tuple(2L, "ERROR", "INVALID_JSON"),
+                        tuple(3L, "ERROR", "INVALID_ROW"),
+                        tuple(5L, "ERROR", "STUDENT_NOT_FOUND"),
+                        tuple(6L, "ERROR", "INSTRUMENT_NOT_FOUND"),
+                        tuple(7L, "ERROR", "MODULE_MISMATCH"),
+                        tuple(8L, "ERROR", "INSTRUMENT_WITHOUT_RA"),
+                        tuple(9L, "OK", null)
+                );
+        assertThat(output.rows()).extracting(row -> row.path("message").asText(null))
+                .containsSequence(
+                        "gradeValue must be <= 10",
+                        "Student not found: -1",
+                        "Instrument not found: -1",
+                        "Student and instrument must belong to the same module",
+                        "Instrument " + unlinkedInstrumentId + " has no RA associations. Link instrument-RA before adding grades."
+                );
+        // Eight non-blank lines in chunks of three, each answered with one flush.
+        assertThat(output.flushes).isEqualTo(3);
+
+        // The bad rows of each chunk did not roll back the good ones.
+        assertThat(gradeRepository.findByStudentIdIn(module.studentIds()))
+                .extracting(grade -> grade.getStudent().getId(), Grade::getGradeValue)
+                .containsExactlyInAnyOrder(
+                        tuple(module.student(0), new BigDecimal("5.00")),
+                        tuple(module.student(1), new BigDecimal("6.00"))
+                );
+    }
+
+    @Test
+    void upload_failsOnlyTheEntriesOfTheChunkThatThrew() throws IOException {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(2);
+        Long failingStudentId = module.student(0);
+        GradeService failingGradeService = mock(GradeService.class);
+        when(failingGradeService.upsertValidGrades(anyList(), anyString())).thenAnswer(invocation -> {
+            List<GradeEntryRequest> entries = invocation.getArgument(0);
+            if (entries.stream().anyMatch(entry -> entry.getStudentId().equals(failingStudentId))) {
+                throw new IllegalStateException("Deadlock found when trying to get lock");
+            }
+            return gradeService.upsertValidGrades(entries, invocation.getArgument(1));
+        });
+
+        CountingOutputStream output = new CountingOutputStream();
+        upload(service(failingGradeService, 2), output,
+                line(failingStudentId, module.instrument(0), "5.00"),
+                "{not json",
+                line(module.student(1), module.instrument(0), "6.00"),
+                line(module.student(1), module.instrument(1), "7.00"));
+
+        assertThat(output.rows())
+                .extracting(row -> row.get("line").asLong(), row -> row.path("code").asText(null))
+                .containsExactly(
+                        tuple(1L, "CHUNK_FAILED"),
+                        tuple(2L, "INVALID_JSON"),
+                        tuple(3L, null),
+                        tuple(4L, null)
+                );
+        assertThat(output.rows().get(0).get("message").asText()).isEqualTo("Deadlock found when trying to get lock");
+        assertThat(gradeRepository.findByStudentId(failingStudentId)).isEmpty();
+        assertThat(gradeRepository.findByStudentId(module.student(1))).hasSize(2);
+    }
+
+    @Test
+    void upload_reportsAnOversizedLineWithoutReadingItInFull() throws IOException {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(2);
+        String first = line(module.student(0), module.instrument(0), "5.00");
+        String last = line(module.student(1), module.instrument(0), "6.00");
+        int maxLineLength = Math.max(first.length(), last.length());
+        GradeBulkUploadService service = service(gradeService, 10, maxLineLength);
+
+        CountingOutputStream output = new CountingOutputStream();
+        upload(service, output,
+                first + "\r",
+                "{\"studentId\":" + "9".repeat(100_000) + "}",
+                last);
+
+        assertThat(output.rows())
+                .extracting(row -> row.get("line").asLong(), row -> row.get("status").asText(), row -> row.path("code").asText(null))
+                .containsExactly(
+                        tuple(1L, "OK", null),
+                        tuple(2L, "ERROR", "LINE_TOO_LONG"),
+                        tuple(3L, "OK", null)
+                );
+        assertThat(output.rows().get(1).get("message").asText()).isEqualTo("Line exceeds " + maxLineLength + " characters");
+        assertThat(gradeRepository.findByStudentIdIn(module.studentIds())).hasSize(2);
+    }
+
+    private GradeBulkUploadService service(GradeService gradeService, int chunkSize) {
+        return service(gradeService, chunkSize, 4096);
+    }
+
+    private GradeBulkUploadService service(GradeService gradeService, int chunkSize, int maxLineLength) {
+        GradeBulkUploadService service = new GradeBulkUploadService(gradeService, authenticatedUserResolver, objectMapper, validator);
+        ReflectionTestUtils.setField(service, "chunkSize", chunkSize);
+        ReflectionTestUtils.setField(service, "maxLineLength", maxLineLength);
+        return service;
+    }
+
+    private void upload(GradeBulkUploadService service, CountingOutputStream output, String... lines) throws IOException {
+        byte[] body = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        service.upload(new ByteArrayInputStream(body)).writeTo(output);
+    }
+
+    private String line(Long studentId, Long instrumentId, String gradeValue) {
+        return "{\"studentId\":%d,\"instrumentId\":%d,\"gradeValue\":%s}".formatted(studentId, instrumentId, gradeValue);
+    }
+
+    private final class CountingOutputStream extends ByteArrayOutputStream {
+
+        private int flushes;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+        private List<JsonNode> rows() throws IOException {
+            List<JsonNode> rows = new ArrayList<>();
+            for (String row : toString(StandardCharsets.UTF_8).split("\n")) {
+                rows.add(objectMapper.readTree(row));
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.dto.CreateModuleRequest;
+import com.sara.tfgdam.dto.ModuleGradeChangesResponse;
+import com.sara.tfgdam.exception.BusinessValidationException;
+import com.sara.tfgdam.exception.ResourceNotFoundException;
+import com.sara.tfgdam.repository.GradeChangeCounterRepository;
+import com.sara.tfgdam.support.ModuleFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static com.sara.tfgdam.support.ModuleFixture.batch;
+import static com.sara.tfgdam.support.ModuleFixture.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(ModuleFixture.class)
+class GradeChangeServiceTest {
+
+    @Autowired
+    private GradeChangeService gradeChangeService;
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private ModuleSetupService moduleSetupService;
+
+    @Autowired
+    private GradeChangeCounterRepository gradeChangeCounterRepository;
+
+    @Autowired
+    private ModuleFixture moduleFixture;
+
+    @Test
+    void changes_logOnlyWritesThatChangeTheValue() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(2);
+
+        gradeService.upsertGrades(batch(
+                entry(module.student(0), module.instrument(0), "5.00"),
+                entry(module.student(1), module.instrument(0), "6.00")
+        ), "ana");
+        // 5.0 equals the stored 5.00, so only the second student's grade is a change.
+        gradeService.upsertGrades(batch(
+                entry(module.student(0), module.instrument(0), "5.0"),
+                entry(module.student(1), module.instrument(0), "7.50")
+        ), "luis");
+
+        ModuleGradeChangesResponse response = gradeChangeService.getChanges(module.moduleId(), 0, 100);
+
+        assertThat(response.getChanges())
+                .extracting(
+                        ModuleGradeChangesResponse.ChangeItem::getSequence,
+                        ModuleGradeChangesResponse.ChangeItem::getStudentId,
+                        ModuleGradeChangesResponse.ChangeItem::getChangedBy
+                )
+                .containsExactly(
+                        tuple(1L, module.student(0), "ana"),
+                        tuple(2L, module.student(1), "ana"),
+                        tuple(3L, module.student(1), "luis")
+                );
+        ModuleGradeChangesResponse.ChangeItem last = response.getChanges().get(2);
+        assertThat(last.getOldValue()).isEqualByComparingTo("6.00");
+        assertThat(last.getNewValue()).isEqualByComparingTo("7.50");
+        assertThat(response.getChanges().get(0).getOldValue()).isNull();
+        assertThat(response.getNextSince()).isEqualTo(3);
+        assertThat(response.isHasMore()).isFalse();
+    }
+
+    @Test
+    void changes_arePagedWithNextSinceAndHasMore() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(5);
+        for (Long studentId : module.studentIds()) {
+            gradeService.upsertGrades(batch(entry(studentId, module.instrument(1), "4.00")), "test");
+        }
+
+        ModuleGradeChangesResponse first = gradeChangeService.getChanges(module.moduleId(), 0, 2);
+        assertThat(first.getChanges()).extracting(ModuleGradeChangesResponse.ChangeItem::getSequence).containsExactly(1L, 2L);
+        assertThat(first.getNextSince()).isEqualTo(2);
+        assertThat(first.isHasMore()).isTrue();
+
+        ModuleGradeChangesResponse second = gradeChangeService.getChanges(module.moduleId(), first.getNextSince(), 3);
+        assertThat(second.getChanges()).extracting(ModuleGradeChangesResponse.ChangeItem::getSequence).containsExactly(3L, 4L, 5L);
+        assertThat(second.isHasMore()).isFalse();
+
+        // Nothing new: the client keeps its position.
+        ModuleGradeChangesResponse empty = gradeChangeService.getChanges(module.moduleId(), second.getNextSince(), 3);
+        assertThat(empty.getChanges()).isEmpty();
+        assertThat(empty.getNextSince()).isEqualTo(5);
+        assertThat(empty.isHasMore()).isFalse();
+    }
+
+    @Test
+    void changes_haveGapFreeSequencesUnderConcurrentWrites() throws Exception {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(4);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (Long studentId : module.studentIds()) {
+                writes.add(pool.submit(() -> {
+                    for (int i = 0; i < 5; i++) {
+                        gradeService.upsertGrades(batch(entry(studentId, module.instrument(0), i + ".00")), "test");
+                    }
+                }));
+            }
+            for (Future<?> write : writes) {
+                write.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(gradeChangeService.getChanges(module.moduleId(), 0, 100).getChanges())
+                .extracting(ModuleGradeChangesResponse.ChangeItem::getSequence)
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, 20).boxed().toList());
+        assertThat(gradeChangeCounterRepository.findById(module.moduleId()).orElseThrow().getLastSequence()).isEqualTo(20);
+    }
+
+    @Test
+    void counter_isCreatedWithTheModuleAndRemovedWithIt() {
+        CreateModuleRequest request = new CreateModuleRequest();
+        request.setName("Modulo con contador");
+        request.setAcademicYear("2025-2026");
+        request.setTeacherName("Profesor");
+        Long moduleId = moduleSetupService.createModule(request).getId();
+
+        assertThat(gradeChangeCounterRepository.findById(moduleId)).hasValueSatisfying(counter ->
+                assertThat(counter.getLastSequence()).isZero());
+
+        moduleSetupService.deleteModule(moduleId);
+
+        assertThat(gradeChangeCounterRepository.findById(moduleId)).isEmpty();
+    }
+
+    @Test
+    void missingCounter_isSeededFromTheExistingLog() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(3);
+        gradeService.upsertGrades(batch(
+                entry(module.student(0), module.instrument(0), "5.00"),
+                entry(module.student(1), module.instrument(0), "6.00")
+        ), "test");
+        gradeChangeCounterRepository.deleteById(module.moduleId());
+
+        gradeChangeService.createMissingCounters();
+        gradeService.upsertGrades(batch(entry(module.student(2), module.instrument(0), "7.00")), "test");
+
+        assertThat(gradeChangeService.getChanges(module.moduleId(), 0, 100).getChanges())
+                .extracting(ModuleGradeChangesResponse.ChangeItem::getSequence)
+                .containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void changes_rejectInvalidArguments() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(1);
+
+        assertThatThrownBy(() -> gradeChangeService.getChanges(-1L, 0, 10))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Module not found: -1");
+        assertThatThrownBy(() -> gradeChangeService.getChanges(module.moduleId(), -1, 10))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage("since must be >= 0");
+        assertThatThrownBy(() -> gradeChangeService.getChanges(module.moduleId(), 0, 0))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage("limit must be between 1 and 5000");
+    }
+}
@@ -0,0 +1,157 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.domain.entity.Grade;
+import com.sara.tfgdam.dto.GradeEntryRequest;
+import com.sara.tfgdam.dto.GradeIngestionMetricsResponse;
+import com.sara.tfgdam.dto.GradeIngestionTicketResponse;
+import com.sara.tfgdam.dto.ModuleGradeChangesResponse;
+import com.sara.tfgdam.repository.GradeRepository;
+import com.sara.tfgdam.repository.StudentRepository;
+import com.sara.tfgdam.security.AuthenticatedUserResolver;
+import com.sara.tfgdam.support.ModuleFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static com.sara.tfgdam.support.ModuleFixture.awaitTrue;
+import static com.sara.tfgdam.support.ModuleFixture.batch;
+import static com.sara.tfgdam.support.ModuleFixture.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(ModuleFixture.class)
+class GradeIngestionQueueTest {
+
+    private static final long WAIT_MS = 10_000;
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private GradeChangeService gradeChangeService;
+
+    @Autowired
+    private GradeRepository gradeRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private AuthenticatedUserResolver authenticatedUserResolver;
+
+    @Autowired
+    private ModuleFixture moduleFixture;
+
+    private GradeIngestionQueue queue;
+
+    @AfterEach
+    void stopQueue() throws InterruptedException {
+        SecurityContextHolder.clearContext();
+        if (queue != null) {
+            queue.shutdown();
+        }
+    }
+
+    @Test
+    void flush_writesTheLastValueOfEachKeyOnceWithItsOwnAuthor() {
+        queue = newQueue(1_000, 2_000);
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(2);
+
+        GradeIngestionTicketResponse first = submitAs("ana",
+                entry(module.student(0), module.instrument(0), "5.00"),
+                entry(module.student(1), module.instrument(0), "6.00"));
+        GradeIngestionTicketResponse second = submitAs("luis",
+                entry(module.student(0), module.instrument(0), "7.00"));
+
+        assertThat(queue.getTicket(first.getToken(), WAIT_MS).getStatus()).isEqualTo("APPLIED");
+        assertThat(queue.getTicket(second.getToken(), WAIT_MS).getStatus()).isEqualTo("APPLIED");
+
+        assertThat(gradeChangeService.getChanges(module.moduleId(), 0, 100).getChanges())
+                .extracting(
+                        ModuleGradeChangesResponse.ChangeItem::getSequence,
+                        ModuleGradeChangesResponse.ChangeItem::getStudentId,
+                        ModuleGradeChangesResponse.ChangeItem::getNewValue,
+                        ModuleGradeChangesResponse.ChangeItem::getChangedBy
+                )
+                .containsExactly(
+                        tuple(1L, module.student(0), new BigDecimal("7.00"), "luis"),
+                        tuple(2L, module.student(1), new BigDecimal("6.00"), "ana")
+                );
+
+        // Tickets complete before the flush records its latency.
+        awaitTrue(() -> queue.getMetrics().getFlushCount() == 1);
+        GradeIngestionMetricsResponse metrics = queue.getMetrics();
+        assertThat(metrics.getFlushedEntries()).isEqualTo(3);
+        assertThat(metrics.getWrittenEntries()).isEqualTo(2);
+        assertThat(metrics.getFailedFlushes()).isZero();
+        assertThat(metrics.getQueueDepth()).isZero();
+    }
+
+    @Test
+    void failedFlush_isReplayedSoOnlyTheBadSubmissionFails() {
+        queue = newQueue(1_000, 2_000);
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(2);
+        ModuleFixture.ReadyModule otherModule = moduleFixture.createReadyModule(1);
+
+        GradeIngestionTicketResponse first = submitAs("ana",
+                entry(module.student(0), module.instrument(0), "5.00"));
+        GradeIngestionTicketResponse bad = submitAs("luis",
+                entry(module.student(1), module.instrument(1), "6.00"),
+                entry(module.student(1), otherModule.instrument(0), "6.00"));
+        GradeIngestionTicketResponse last = submitAs("ana",
+                entry(module.student(0), module.instrument(0), "8.00"));
+
+        assertThat(queue.getTicket(first.getToken(), WAIT_MS).getStatus()).isEqualTo("APPLIED");
+        GradeIngestionTicketResponse failed = queue.getTicket(bad.getToken(), WAIT_MS);
+        assertThat(failed.getStatus()).isEqualTo("FAILED");
+        assertThat(failed.getError()).isEqualTo("Student and instrument must belong to the same module");
+        assertThat(queue.getTicket(last.getToken(), WAIT_MS).getStatus()).isEqualTo("APPLIED");
+
+        // The coalesced write left nothing behind: the log only has the replayed submissions, in arrival order.
+        assertThat(gradeChangeService.getChanges(module.moduleId(), 0, 100).getChanges())
+                .extracting(ModuleGradeChangesResponse.ChangeItem::getSequence, ModuleGradeChangesResponse.ChangeItem::getNewValue)
+                .containsExactly(tuple(1L, new BigDecimal("5.00")), tuple(2L, new BigDecimal("8.00")));
+        assertThat(gradeRepository.findByStudentId(module.student(0))).singleElement()
+                .extracting(Grade::getGradeValue)
+                .usingComparator(BigDecimal::compareTo)
+                .isEqualTo(new BigDecimal("8.00"));
+        assertThat(gradeRepository.findByStudentId(module.student(1))).isEmpty();
+        assertThat(queue.getMetrics().getFailedFlushes()).isEqualTo(1);
+    }
+
+    @Test
+    void flush_startsAsSoonAsTheModuleReachesMaxBatchEntries() {
+        queue = newQueue(2_000, 2);
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(2);
+
+        GradeIngestionTicketResponse first = submitAs("ana", entry(module.student(0), module.instrument(0), "5.00"));
+        assertThat(queue.getTicket(first.getToken(), 200).getStatus()).isEqualTo("PENDING");
+
+        GradeIngestionTicketResponse second = submitAs("ana", entry(module.student(1), module.instrument(0), "6.00"));
+
+        // Well before the flush delay.
+        assertThat(queue.getTicket(second.getToken(), 1_000).getStatus()).isEqualTo("APPLIED");
+        assertThat(queue.getTicket(first.getToken(), 0).getStatus()).isEqualTo("APPLIED");
+        awaitTrue(() -> queue.getMetrics().getFlushCount() == 1);
+        assertThat(gradeRepository.findByStudentIdIn(module.studentIds())).hasSize(2);
+    }
+
+    private GradeIngestionQueue newQueue(long flushDelayMs, int maxBatchEntries) {
+        return new GradeIngestionQueue(gradeService, studentRepository, authenticatedUserResolver,
+                flushDelayMs, maxBatchEntries, 600_000);
+    }
+
+    private GradeIngestionTicketResponse submitAs(String username, GradeEntryRequest... entries) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(username, null));
+        return queue.submit(batch(entries));
+    }
+}
@@ -0,0 +1,148 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.domain.entity.Grade;
+import com.sara.tfgdam.dto.GradeEntryRequest;
+import com.sara.tfgdam.exception.BusinessValidationException;
+import com.sara.tfgdam.exception.ResourceNotFoundException;
+import com.sara.tfgdam.repository.GradeRepository;
+import com.sara.tfgdam.repository.InstrumentRARepository;
+import com.sara.tfgdam.support.ModuleFixture;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.sara.tfgdam.support.ModuleFixture.batch;
+import static com.sara.tfgdam.support.ModuleFixture.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(ModuleFixture.class)
+class GradeServiceTest {
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private GradeRepository gradeRepository;
+
+    @Autowired
+    private InstrumentRARepository instrumentRARepository;
+
+    @Autowired
+    private EvaluationClosureService evaluationClosureService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ModuleFixture moduleFixture;
+
+    @Test
+    void upsertGrades_returnsOneGradePerEntryAndTheLastEntryOfAKeyWins() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(2);
+        gradeService.upsertGrades(batch(entry(module.student(0), module.instrument(0), "3.00")), "test");
+
+        List<Grade> grades = gradeService.upsertGrades(batch(
+                entry(module.student(0), module.instrument(0), "4.00"),
+                entry(module.student(1), module.instrument(2), "6.00"),
+                entry(module.student(0), module.instrument(0), "8.25")
+        ), "test");
+
+        assertThat(grades).extracting(grade -> grade.getStudent().getId(), grade -> grade.getInstrument().getId())
+                .containsExactly(
+                        tuple(module.student(0), module.instrument(0)),
+                        tuple(module.student(1), module.instrument(2)),
+                        tuple(module.student(0), module.instrument(0))
+                );
+        assertThat(grades.get(0)).isSameAs(grades.get(2));
+        assertThat(grades.get(0).getGradeValue()).isEqualByComparingTo("8.25");
+        assertThat(gradeRepository.findByStudentId(module.student(0))).singleElement()
+                .extracting(Grade::getGradeValue)
+                .usingComparator(BigDecimal::compareTo)
+                .isEqualTo(new BigDecimal("8.25"));
+    }
+
+    @Test
+    void upsertGrades_runsTheSameStatementsForOneEntryAndForAWholeClass() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(6);
+        // Warms the per-module caches (readiness, closed periods) so both measured batches start alike.
+        gradeService.upsertGrades(batch(entry(module.student(0), module.instrument(0), "5.00")), "test");
+
+        long single = preparedStatements(() ->
+                gradeService.upsertGrades(batch(entry(module.student(1), module.instrument(1), "6.00")), "test"));
+
+        List<GradeEntryRequest> entries = new ArrayList<>();
+        for (Long studentId : module.studentIds()) {
+            for (Long instrumentId : module.instrumentIds()) {
+                entries.add(entry(studentId, instrumentId, "7.00"));
+            }
+        }
+        long wholeClass = preparedStatements(() ->
+                gradeService.upsertGrades(batch(entries.toArray(GradeEntryRequest[]::new)), "test"));
+
+        assertThat(wholeClass).isEqualTo(single);
+        assertThat(gradeRepository.findByStudentIdIn(module.studentIds())).hasSize(entries.size());
+    }
+
+    @Test
+    void upsertGrades_rejectsTheWholeBatchWithTheErrorOfTheFirstBadEntry() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(1);
+        ModuleFixture.ReadyModule otherModule = moduleFixture.createReadyModule(1);
+        Long unlinkedInstrumentId = otherModule.instrument(3);
+        instrumentRARepository.deleteAll(instrumentRARepository.findByInstrumentId(unlinkedInstrumentId));
+        GradeEntryRequest valid = entry(module.student(0), module.instrument(0), "5.00");
+
+        assertThatThrownBy(() -> gradeService.upsertGrades(batch(valid, entry(-1L, module.instrument(0), "5.00")), "test"))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Student not found: -1");
+        assertThatThrownBy(() -> gradeService.upsertGrades(batch(valid, entry(module.student(0), -1L, "5.00")), "test"))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Instrument not found: -1");
+        assertThatThrownBy(() -> gradeService.upsertGrades(batch(valid, entry(module.student(0), otherModule.instrument(0), "5.00")), "test"))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage("Student and instrument must belong to the same module");
+        assertThatThrownBy(() -> gradeService.upsertGrades(batch(entry(otherModule.student(0), unlinkedInstrumentId, "5.00")), "test"))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage("Instrument " + unlinkedInstrumentId + " has no RA associations. Link instrument-RA before adding grades.");
+
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("admin@admin.com", null));
+        try {
+            evaluationClosureService.closePeriod(module.moduleId(), 1);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        assertThatThrownBy(() -> gradeService.upsertGrades(batch(entry(module.student(0), module.instrument(2), "5.00"),
+                entry(module.student(0), module.instrument(1), "5.00")), "test"))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage("Evaluation period 1 is closed. Grades of instrument " + module.instrument(1) + " cannot be changed.");
+
+        // The valid entries sent along were rolled back with the batch.
+        assertThat(gradeRepository.findByStudentId(module.student(0))).isEmpty();
+    }
+
+    private long preparedStatements(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            action.run();
+            return statistics.getPrepareStatementCount();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+}
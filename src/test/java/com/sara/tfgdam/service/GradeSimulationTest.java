@@ -0,0 +1,107 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.domain.entity.Grade;
+import com.sara.tfgdam.dto.GradeSimulationRequest;
+import com.sara.tfgdam.dto.StudentReportResponse;
+import com.sara.tfgdam.exception.BusinessValidationException;
+import com.sara.tfgdam.repository.GradeRepository;
+import com.sara.tfgdam.support.ModuleFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static com.sara.tfgdam.support.ModuleFixture.batch;
+import static com.sara.tfgdam.support.ModuleFixture.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(ModuleFixture.class)
+class GradeSimulationTest {
+
+    @Autowired
+    private CalculationService calculationService;
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private GradeRepository gradeRepository;
+
+    @Autowired
+    private ModuleVersionTracker moduleVersionTracker;
+
+    @Autowired
+    private ModuleFixture moduleFixture;
+
+    @Test
+    void simulation_overlaysHypotheticalGradesWithoutWritingThem() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(2);
+        gradeService.upsertGrades(batch(
+                entry(module.student(0), module.instrument(0), "4.00"),
+                entry(module.student(0), module.instrument(2), "3.00"),
+                entry(module.student(1), module.instrument(0), "4.00"),
+                entry(module.student(1), module.instrument(2), "9.00"),
+                entry(module.student(1), module.instrument(3), "6.50")
+        ), "test");
+        String etag = moduleVersionTracker.moduleETag(module.moduleId());
+
+        // The overlay replaces the persisted 3.00 and fills the pending project.
+        List<StudentReportResponse> simulated = calculationService.simulateGrades(module.moduleId(), simulation(
+                List.of(module.student(0)),
+                Map.of(module.instrument(2), new BigDecimal("9.00"), module.instrument(3), new BigDecimal("6.50"))
+        )).getStudents();
+
+        assertThat(simulated).hasSize(1);
+        assertThat(simulated.get(0).getStudentId()).isEqualTo(module.student(0));
+        assertThat(simulated.get(0))
+                .usingRecursiveComparison()
+                .ignoringFields("studentId")
+                .isEqualTo(calculationService.getStudentReport(module.student(1), module.moduleId()));
+
+        assertThat(gradeRepository.findByStudentId(module.student(0)))
+                .extracting(Grade::getGradeValue)
+                .usingComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .containsExactlyInAnyOrder(new BigDecimal("4.00"), new BigDecimal("3.00"));
+        assertThat(moduleVersionTracker.moduleETag(module.moduleId())).isEqualTo(etag);
+    }
+
+    @Test
+    void simulation_withoutStudentIds_coversTheWholeClass() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(3);
+
+        List<StudentReportResponse> simulated = calculationService.simulateGrades(module.moduleId(), simulation(
+                null,
+                Map.of(module.instrument(0), new BigDecimal("5.00"))
+        )).getStudents();
+
+        assertThat(simulated).extracting(StudentReportResponse::getStudentId).containsExactlyElementsOf(module.studentIds());
+    }
+
+    @Test
+    void simulation_rejectsAnInstrumentOfAnotherModule() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(1);
+        ModuleFixture.ReadyModule other = moduleFixture.createReadyModule(1);
+
+        assertThatThrownBy(() -> calculationService.simulateGrades(module.moduleId(), simulation(
+                null,
+                Map.of(other.instrument(0), new BigDecimal("5.00"))
+        )))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage("Instrument " + other.instrument(0) + " does not belong to moduleId=" + module.moduleId());
+    }
+
+    private GradeSimulationRequest simulation(List<Long> studentIds, Map<Long, BigDecimal> grades) {
+        GradeSimulationRequest request = new GradeSimulationRequest();
+        request.setStudentIds(studentIds);
+        request.setGrades(grades);
+        return request;
+    }
+}
@@ -0,0 +1,202 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.dto.ModuleMinimumGradesResponse;
+import com.sara.tfgdam.support.ModuleFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.sara.tfgdam.support.ModuleFixture.batch;
+import static com.sara.tfgdam.support.ModuleFixture.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(ModuleFixture.class)
+class MinimumGradeServiceTest {
+
+    private static final BigDecimal PASS_GRADE = new BigDecimal("5.00");
+
+    @Autowired
+    private MinimumGradeService minimumGradeService;
+
+    @Autowired
+    private CalculationService calculationService;
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ModuleFixture moduleFixture;
+
+    @Test
+    void everyInstrumentGraded_passesEveryRAAndEvaluation() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(1);
+        gradeService.upsertGrades(batch(
+                entry(module.student(0), module.instrument(0), "9.00"),
+                entry(module.student(0), module.instrument(1), "9.00"),
+                entry(module.student(0), module.instrument(2), "9.00"),
+                entry(module.student(0), module.instrument(3), "9.00")
+        ), "test");
+
+        ModuleMinimumGradesResponse.StudentItem student = solveOne(module, module.student(0));
+
+        assertThat(student.getPendingInstruments()).isZero();
+        assertThat(student.getRas()).allSatisfy(ra -> {
+            assertThat(ra.getStatus()).isEqualTo(MinimumGradeService.PASSED);
+            assertThat(ra.getRequiredGrade()).isEqualByComparingTo("0.00");
+        });
+        assertThat(student.getEvaluations()).allSatisfy(evaluation ->
+                assertThat(evaluation.getStatus()).isEqualTo(MinimumGradeService.PASSED));
+    }
+
+    @Test
+    void pendingInstruments_requireTheSmallestPassingGradeFoundByBruteForce() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(2);
+        gradeService.upsertGrades(batch(
+                entry(module.student(0), module.instrument(0), "3.00"),
+                entry(module.student(1), module.instrument(0), "6.00")
+        ), "test");
+
+        for (int i = 0; i < 2; i++) {
+            Long studentId = module.student(i);
+            ModuleMinimumGradesResponse.StudentItem student = solveOne(module, studentId);
+            assertThat(student.getPendingInstruments()).isEqualTo(3);
+
+            Map<Long, BigDecimal> graded = Map.of(module.instrument(0), new BigDecimal(i == 0 ? "3.00" : "6.00"));
+            List<Long> pending = List.of(module.instrument(1), module.instrument(2), module.instrument(3));
+
+            for (ModuleMinimumGradesResponse.RAItem ra : student.getRas()) {
+                BigDecimal expected = bruteForce(module.moduleId(), graded, pending, (context, grades) ->
+                        calculationService.calculateRaGradeFromInstruments(context, ra.getRaId(), grades));
+                assertMatches(ra, expected);
+            }
+            for (ModuleMinimumGradesResponse.EvaluationItem evaluation : student.getEvaluations()) {
+                for (ModuleMinimumGradesResponse.RAItem ra : evaluation.getRas()) {
+                    BigDecimal expected = bruteForce(module.moduleId(), graded, pending, (context, grades) ->
+                            calculationService.calculateRaEvaluationGradeFromInstruments(
+                                    context, evaluation.getEvaluationPeriod(), ra.getRaId(), grades));
+                    assertMatches(ra, expected);
+                }
+            }
+        }
+
+        // Exam UT1 = 3.00 leaves RA1 needing (5 * 100 - 60 * 3) / 40 = 8.00 in the UT1 practice for period 1.
+        ModuleMinimumGradesResponse.StudentItem first = solveOne(module, module.student(0));
+        assertThat(raItem(evaluation(first, 1).getRas(), module.raIds().get(0)).getRequiredGrade()).isEqualByComparingTo("8.00");
+        assertThat(raItem(evaluation(first, 1).getRas(), module.raIds().get(0)).getStatus()).isEqualTo(MinimumGradeService.REACHABLE);
+    }
+
+    @Test
+    void zeroGrades_makeTheirRAUnreachableAndLeaveTheOthersReachable() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(1);
+        gradeService.upsertGrades(batch(
+                entry(module.student(0), module.instrument(0), "0.00"),
+                entry(module.student(0), module.instrument(1), "0.00"),
+                entry(module.student(0), module.instrument(2), "0.00")
+        ), "test");
+
+        ModuleMinimumGradesResponse.StudentItem student = solveOne(module, module.student(0));
+
+        ModuleMinimumGradesResponse.RAItem ra1 = raItem(student.getRas(), module.raIds().get(0));
+        assertThat(ra1.getStatus()).isEqualTo(MinimumGradeService.UNREACHABLE);
+        assertThat(ra1.getRequiredGrade()).isNull();
+
+        // RA2 = 0.4 * UT1 + 0.6 * UT2, and only the UT2 project is pending: 5 / 0.6 rounds up to 8.34.
+        ModuleMinimumGradesResponse.RAItem ra2 = raItem(student.getRas(), module.raIds().get(1));
+        assertThat(ra2.getStatus()).isEqualTo(MinimumGradeService.REACHABLE);
+        assertThat(ra2.getRequiredGrade()).isEqualByComparingTo("8.34");
+
+        assertThat(student.getEvaluations()).allSatisfy(evaluation -> {
+            assertThat(evaluation.getStatus()).isEqualTo(MinimumGradeService.UNREACHABLE);
+            assertThat(evaluation.getRequiredGrade()).isNull();
+        });
+    }
+
+    @Test
+    void evaluationRequiredGrade_isTheLargestRequirementOfItsRAs() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(1);
+        gradeService.upsertGrades(batch(entry(module.student(0), module.instrument(0), "6.00")), "test");
+
+        ModuleMinimumGradesResponse.StudentItem student = solveOne(module, module.student(0));
+
+        for (ModuleMinimumGradesResponse.EvaluationItem evaluation : student.getEvaluations()) {
+            assertThat(evaluation.getStatus()).isEqualTo(MinimumGradeService.REACHABLE);
+            BigDecimal largest = evaluation.getRas().stream()
+                    .map(ModuleMinimumGradesResponse.RAItem::getRequiredGrade)
+                    .max(BigDecimal::compareTo)
+                    .orElseThrow();
+            assertThat(evaluation.getRequiredGrade()).isEqualByComparingTo(largest);
+        }
+
+        // Period 1: RA2 already passes with the exam, RA1 needs (5 * 100 - 60 * 6) / 40 = 3.50 in the practice.
+        ModuleMinimumGradesResponse.EvaluationItem firstPeriod = evaluation(student, 1);
+        assertThat(raItem(firstPeriod.getRas(), module.raIds().get(1)).getStatus()).isEqualTo(MinimumGradeService.PASSED);
+        assertThat(firstPeriod.getRequiredGrade()).isEqualByComparingTo("3.50");
+    }
+
+    private ModuleMinimumGradesResponse.StudentItem solveOne(ModuleFixture.ReadyModule module, Long studentId) {
+        List<ModuleMinimumGradesResponse.StudentItem> students =
+                minimumGradeService.getMinimumGrades(module.moduleId(), studentId).getStudents();
+        assertThat(students).hasSize(1);
+        return students.get(0);
+    }
+
+    // Smallest grade in hundredths of [0, 10] that passes when every pending instrument gets it, null when none does.
+    private BigDecimal bruteForce(Long moduleId,
+                                  Map<Long, BigDecimal> graded,
+                                  List<Long> pending,
+                                  GradeFunction grade) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            CalculationService.ModuleContext context = calculationService.buildContext(moduleId);
+            for (int hundredths = 0; hundredths <= 1000; hundredths++) {
+                BigDecimal candidate = BigDecimal.valueOf(hundredths, 2);
+                Map<Long, BigDecimal> grades = new HashMap<>(graded);
+                pending.forEach(instrumentId -> grades.put(instrumentId, candidate));
+                if (grade.apply(context, grades).compareTo(PASS_GRADE) >= 0) {
+                    return candidate;
+                }
+            }
+            return null;
+        });
+    }
+
+    private void assertMatches(ModuleMinimumGradesResponse.RAItem ra, BigDecimal expected) {
+        if (expected == null) {
+            assertThat(ra.getStatus()).isEqualTo(MinimumGradeService.UNREACHABLE);
+            assertThat(ra.getRequiredGrade()).isNull();
+            return;
+        }
+        assertThat(ra.getStatus()).isEqualTo(expected.signum() == 0 ? MinimumGradeService.PASSED : MinimumGradeService.REACHABLE);
+        assertThat(ra.getRequiredGrade()).isEqualByComparingTo(expected);
+    }
+
+    private ModuleMinimumGradesResponse.EvaluationItem evaluation(ModuleMinimumGradesResponse.StudentItem student,
+                                                                  int evaluationPeriod) {
+        return student.getEvaluations().stream()
+                .filter(evaluation -> evaluation.getEvaluationPeriod() == evaluationPeriod)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private ModuleMinimumGradesResponse.RAItem raItem(List<ModuleMinimumGradesResponse.RAItem> ras, Long raId) {
+        return ras.stream().filter(ra -> Objects.equals(ra.getRaId(), raId)).findFirst().orElseThrow();
+    }
+
+    private interface GradeFunction {
+        BigDecimal apply(CalculationService.ModuleContext context, Map<Long, BigDecimal> grades);
+    }
+}
@@ -0,0 +1,82 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.domain.entity.CourseModule;
+import com.sara.tfgdam.domain.entity.LearningOutcomeRA;
+import com.sara.tfgdam.dto.ModuleBatchReportItem;
+import com.sara.tfgdam.dto.ModuleBatchReportResponse;
+import com.sara.tfgdam.repository.CourseModuleRepository;
+import com.sara.tfgdam.repository.LearningOutcomeRARepository;
+import com.sara.tfgdam.support.ModuleFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static com.sara.tfgdam.support.ModuleFixture.batch;
+import static com.sara.tfgdam.support.ModuleFixture.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(ModuleFixture.class)
+class ModuleBatchReportServiceTest {
+
+    @Autowired
+    private ModuleBatchReportService moduleBatchReportService;
+
+    @Autowired
+    private CalculationService calculationService;
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private CourseModuleRepository courseModuleRepository;
+
+    @Autowired
+    private LearningOutcomeRARepository learningOutcomeRARepository;
+
+    @Autowired
+    private ModuleFixture moduleFixture;
+
+    @Test
+    void finalReports_moduleNotReadyGetsAnErrorWithoutFailingTheOthers() {
+        String academicYear = "batch-" + UUID.randomUUID();
+        ModuleFixture.ReadyModule ready = moduleInYear(academicYear);
+        ModuleFixture.ReadyModule broken = moduleInYear(academicYear);
+        gradeService.upsertGrades(batch(
+                entry(ready.student(0), ready.instrument(0), "8.00"),
+                entry(ready.student(1), ready.instrument(2), "3.25")
+        ), "test");
+
+        LearningOutcomeRA ra1 = learningOutcomeRARepository.findById(broken.raIds().get(0)).orElseThrow();
+        ra1.setWeightPercent(new BigDecimal("50.00"));
+        learningOutcomeRARepository.save(ra1);
+
+        ModuleBatchReportResponse response = moduleBatchReportService.getFinalReports(academicYear, null);
+
+        assertThat(response.getModules()).containsOnlyKeys(ready.moduleId(), broken.moduleId());
+
+        ModuleBatchReportItem readyItem = response.getModules().get(ready.moduleId());
+        assertThat(readyItem.getError()).isNull();
+        assertThat(readyItem.getStudents())
+                .isEqualTo(calculationService.getModuleFinalReport(ready.moduleId()).getStudents());
+
+        ModuleBatchReportItem brokenItem = response.getModules().get(broken.moduleId());
+        assertThat(brokenItem.getStudents()).isNull();
+        assertThat(brokenItem.getError())
+                .isEqualTo("In module " + broken.moduleId() + ", sum of RA weights must be exactly 100. Current=90.00");
+    }
+
+    private ModuleFixture.ReadyModule moduleInYear(String academicYear) {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(2);
+        CourseModule courseModule = courseModuleRepository.findById(module.moduleId()).orElseThrow();
+        courseModule.setAcademicYear(academicYear);
+        courseModuleRepository.save(courseModule);
+        return module;
+    }
+}
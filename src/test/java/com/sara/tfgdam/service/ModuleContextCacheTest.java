@@ -0,0 +1,86 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.dto.ModuleEvaluationReportResponse;
+import com.sara.tfgdam.dto.PatchInstrumentRequest;
+import com.sara.tfgdam.dto.StudentEvaluationReportRow;
+import com.sara.tfgdam.support.ModuleFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.sara.tfgdam.support.ModuleFixture.batch;
+import static com.sara.tfgdam.support.ModuleFixture.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(ModuleFixture.class)
+class ModuleContextCacheTest {
+
+    @Autowired
+    private CalculationService calculationService;
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private ModuleSetupService moduleSetupService;
+
+    @Autowired
+    private ModuleFixture moduleFixture;
+
+    @Test
+    void structureEdit_isSeenByTheNextRead() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(1);
+        grade(module);
+        CalculationService.ModuleContext cached = calculationService.buildContext(module.moduleId());
+        assertThat(calculationService.buildContext(module.moduleId())).isSameAs(cached);
+        List<BigDecimal> before = periodOneGrades(module);
+
+        swapPeriodOneWeights(module);
+
+        CalculationService.ModuleContext reloaded = calculationService.buildContext(module.moduleId());
+        assertThat(reloaded).isNotSameAs(cached);
+        assertThat(calculationService.buildContext(module.moduleId())).isSameAs(reloaded);
+
+        // Edited before any grade or read, so its context is only ever built with the new weights.
+        ModuleFixture.ReadyModule reference = moduleFixture.createReadyModule(1);
+        swapPeriodOneWeights(reference);
+        grade(reference);
+
+        List<BigDecimal> after = periodOneGrades(module);
+        assertThat(after).isNotEqualTo(before);
+        assertThat(after).isEqualTo(periodOneGrades(reference));
+    }
+
+    private void grade(ModuleFixture.ReadyModule module) {
+        gradeService.upsertGrades(batch(
+                entry(module.student(0), module.instrument(0), "8.00"),
+                entry(module.student(0), module.instrument(1), "4.00"),
+                entry(module.student(0), module.instrument(2), "6.00"),
+                entry(module.student(0), module.instrument(3), "6.00")
+        ), "test");
+    }
+
+    // Period 1 instruments go from 60/40 to 40/60.
+    private void swapPeriodOneWeights(ModuleFixture.ReadyModule module) {
+        moduleSetupService.patchInstrument(module.instrument(0), weightPatch("40.00"));
+        moduleSetupService.patchInstrument(module.instrument(1), weightPatch("60.00"));
+    }
+
+    private List<BigDecimal> periodOneGrades(ModuleFixture.ReadyModule module) {
+        ModuleEvaluationReportResponse report = calculationService.getModuleEvaluationReport(module.moduleId(), 1);
+        return report.getStudents().stream().map(StudentEvaluationReportRow::getNumericGrade).toList();
+    }
+
+    private PatchInstrumentRequest weightPatch(String weightPercent) {
+        PatchInstrumentRequest request = new PatchInstrumentRequest();
+        request.setWeightPercent(new BigDecimal(weightPercent));
+        return request;
+    }
+}
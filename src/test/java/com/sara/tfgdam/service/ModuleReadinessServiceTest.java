@@ -0,0 +1,200 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.domain.entity.CourseModule;
+import com.sara.tfgdam.domain.entity.Instrument;
+import com.sara.tfgdam.domain.entity.LearningOutcomeRA;
+import com.sara.tfgdam.domain.entity.UTRALink;
+import com.sara.tfgdam.dto.ModuleReadinessResponse;
+import com.sara.tfgdam.dto.ModuleViolationsResponse;
+import com.sara.tfgdam.dto.UpdateRARequest;
+import com.sara.tfgdam.exception.BusinessValidationException;
+import com.sara.tfgdam.exception.ResourceNotFoundException;
+import com.sara.tfgdam.repository.CourseModuleRepository;
+import com.sara.tfgdam.repository.InstrumentRepository;
+import com.sara.tfgdam.repository.LearningOutcomeRARepository;
+import com.sara.tfgdam.repository.UTRALinkRepository;
+import com.sara.tfgdam.support.ModuleFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static com.sara.tfgdam.support.ModuleFixture.batch;
+import static com.sara.tfgdam.support.ModuleFixture.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(ModuleFixture.class)
+class ModuleReadinessServiceTest {
+
+    @Autowired
+    private ModuleReadinessService moduleReadinessService;
+
+    @Autowired
+    private ModuleSetupService moduleSetupService;
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private CourseModuleRepository courseModuleRepository;
+
+    @Autowired
+    private LearningOutcomeRARepository learningOutcomeRARepository;
+
+    @Autowired
+    private UTRALinkRepository utraLinkRepository;
+
+    @Autowired
+    private InstrumentRepository instrumentRepository;
+
+    @Autowired
+    private ModuleFixture moduleFixture;
+
+    @Test
+    void readiness_isServedFromTheCacheWhileTheStructureIsUnchanged() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(1);
+
+        ModuleReadinessResponse first = moduleReadinessService.getReadiness(module.moduleId());
+        assertThat(first.isReady()).isTrue();
+        assertThat(first.getViolations()).isEmpty();
+
+        // Grade writes do not touch the structure, so the cached status survives them.
+        gradeService.upsertGrades(batch(entry(module.student(0), module.instrument(0), "6.00")), "test");
+
+        assertThat(moduleReadinessService.getReadiness(module.moduleId())).isSameAs(first);
+    }
+
+    @Test
+    void readiness_isRecheckedAfterAStructureChange() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(1);
+        ModuleReadinessResponse ready = moduleReadinessService.getReadiness(module.moduleId());
+
+        moduleSetupService.updateRA(module.raIds().get(0), raUpdate("RA1", "50.00"));
+
+        ModuleReadinessResponse notReady = moduleReadinessService.getReadiness(module.moduleId());
+        assertThat(notReady).isNotSameAs(ready);
+        assertThat(notReady.isReady()).isFalse();
+        assertThat(notReady.getViolations()).singleElement().asString().contains("Current=90.00");
+        assertThatThrownBy(() -> moduleReadinessService.ensureReady(module.moduleId()))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage(notReady.getViolations().get(0));
+        assertThatThrownBy(() -> gradeService.upsertGrades(batch(entry(module.student(0), module.instrument(0), "6.00")), "test"))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage(notReady.getViolations().get(0));
+
+        moduleSetupService.updateRA(module.raIds().get(0), raUpdate("RA1", "60.00"));
+
+        assertThat(moduleReadinessService.getReadiness(module.moduleId()).isReady()).isTrue();
+    }
+
+    @Test
+    void readiness_ofAnUnknownModuleIsNotFound() {
+        assertThatThrownBy(() -> moduleReadinessService.getReadiness(-1L))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Module not found: -1");
+    }
+
+    @Test
+    void violations_ofAReadyModuleAreEmpty() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(1);
+
+        ModuleViolationsResponse response = moduleReadinessService.getViolations(module.moduleId());
+
+        assertThat(response.isReady()).isTrue();
+        assertThat(response.getViolations()).isEmpty();
+    }
+
+    @Test
+    void violations_reportEveryProblemOfTheModuleAtOnce() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(1);
+        Long ra1Id = module.raIds().get(0);
+        Long ra2Id = module.raIds().get(1);
+        Long ut2Id = module.utIds().get(1);
+
+        LearningOutcomeRA ra1 = learningOutcomeRARepository.findById(ra1Id).orElseThrow();
+        ra1.setWeightPercent(new BigDecimal("50.00"));
+        learningOutcomeRARepository.save(ra1);
+
+        UTRALink ut2Ra2 = utraLinkRepository.findByTeachingUnitModuleId(module.moduleId()).stream()
+                .filter(link -> link.getTeachingUnit().getId().equals(ut2Id) && link.getLearningOutcome().getId().equals(ra2Id))
+                .findFirst()
+                .orElseThrow();
+        ut2Ra2.setPercent(new BigDecimal("0.00"));
+        utraLinkRepository.save(ut2Ra2);
+
+        Instrument practice = instrumentRepository.findById(module.instrument(1)).orElseThrow();
+        practice.setWeightPercent(new BigDecimal("30.00"));
+        instrumentRepository.save(practice);
+        Long activity1Id = practice.getActivity().getId();
+
+        Instrument project = instrumentRepository.findById(module.instrument(3)).orElseThrow();
+        Instrument unlinked = instrumentRepository.save(Instrument.builder()
+                .activity(project.getActivity())
+                .name("Sin RA")
+                .weightPercent(new BigDecimal("0.00"))
+                .build());
+
+        ModuleViolationsResponse response = moduleReadinessService.getViolations(module.moduleId());
+
+        assertThat(response.isReady()).isFalse();
+        assertThat(response.getViolations())
+                .extracting(
+                        ModuleViolationsResponse.ViolationItem::getCode,
+                        ModuleViolationsResponse.ViolationItem::isBlocking,
+                        ModuleViolationsResponse.ViolationItem::getReferenceType,
+                        ModuleViolationsResponse.ViolationItem::getReferenceId
+                )
+                .containsExactly(
+                        tuple("RA_WEIGHT_TOTAL", true, "MODULE", module.moduleId()),
+                        tuple("RA_DISTRIBUTION", true, "RA", ra2Id),
+                        tuple("ACTIVITY_INSTRUMENT_WEIGHTS", true, "ACTIVITY", activity1Id),
+                        tuple("INSTRUMENT_RA_NOT_ALLOWED", false, "INSTRUMENT", module.instrument(3)),
+                        tuple("INSTRUMENT_WITHOUT_RA", false, "INSTRUMENT", unlinked.getId()),
+                        tuple("UT_RA_ZERO_PERCENT", false, "UT_RA_LINK", ut2Ra2.getId())
+                );
+        assertThat(response.getViolations())
+                .extracting(ModuleViolationsResponse.ViolationItem::getCurrent)
+                .usingComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .containsExactly(
+                        new BigDecimal("90.00"),
+                        new BigDecimal("40.00"),
+                        new BigDecimal("90.00"),
+                        null,
+                        null,
+                        new BigDecimal("0.00")
+                );
+    }
+
+    @Test
+    void violations_ofAnEmptyModuleReportMissingRAsAndActivities() {
+        CourseModule empty = courseModuleRepository.save(CourseModule.builder()
+                .name("Modulo vacio")
+                .academicYear("2025-2026")
+                .build());
+
+        ModuleViolationsResponse response = moduleReadinessService.getViolations(empty.getId());
+
+        assertThat(response.isReady()).isFalse();
+        assertThat(response.getViolations())
+                .extracting(ModuleViolationsResponse.ViolationItem::getCode, ModuleViolationsResponse.ViolationItem::getMessage)
+                .containsExactly(
+                        tuple("NO_RAS", "Module has no RAs configured"),
+                        tuple("NO_ACTIVITIES", "Module has no activities/UTs configured")
+                );
+    }
+
+    private UpdateRARequest raUpdate(String code, String weight) {
+        UpdateRARequest request = new UpdateRARequest();
+        request.setCode(code);
+        request.setName(code);
+        request.setWeightPercent(new BigDecimal(weight));
+        return request;
+    }
+}
@@ -0,0 +1,103 @@
+package com.sara.tfgdam.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sara.tfgdam.dto.StudentReportResponse;
+import com.sara.tfgdam.exception.BusinessValidationException;
+import com.sara.tfgdam.exception.ResourceNotFoundException;
+import com.sara.tfgdam.support.ModuleFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.sara.tfgdam.support.ModuleFixture.batch;
+import static com.sara.tfgdam.support.ModuleFixture.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(ModuleFixture.class)
+class StudentReportsTest {
+
+    @Autowired
+    private StudentResultService studentResultService;
+
+    @Autowired
+    private ReportStreamService reportStreamService;
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ModuleFixture moduleFixture;
+
+    @Test
+    void batchReports_matchTheSingleStudentReports() throws Exception {
+        ModuleFixture.ReadyModule module = gradedModule();
+        List<Long> requested = List.of(module.student(2), module.student(0));
+
+        List<StudentReportResponse> reports = studentResultService.getStudentReports(module.moduleId(), requested).getStudents();
+
+        assertThat(reports).usingRecursiveFieldByFieldElementComparator().containsExactly(
+                studentResultService.getStudentReport(module.student(2), module.moduleId()),
+                studentResultService.getStudentReport(module.student(0), module.moduleId())
+        );
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        reportStreamService.streamStudentReports(module.moduleId(), requested).writeTo(streamed);
+        assertThat(streamed.toString(StandardCharsets.UTF_8).lines().toList())
+                .isEqualTo(reports.stream().map(this::toJson).toList());
+    }
+
+    @Test
+    void batchReports_rejectAStudentOfAnotherModule() {
+        ModuleFixture.ReadyModule module = gradedModule();
+        ModuleFixture.ReadyModule other = moduleFixture.createReadyModule(1);
+        List<Long> requested = List.of(module.student(0), other.student(0));
+
+        assertThatThrownBy(() -> studentResultService.getStudentReports(module.moduleId(), requested))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage("Student does not belong to moduleId=" + module.moduleId());
+        // The streamed variant checks before the response starts, so the client gets the error status.
+        assertThatThrownBy(() -> reportStreamService.streamStudentReports(module.moduleId(), requested))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage("Student does not belong to moduleId=" + module.moduleId());
+    }
+
+    @Test
+    void batchReports_rejectAnUnknownStudent() {
+        ModuleFixture.ReadyModule module = gradedModule();
+
+        assertThatThrownBy(() -> studentResultService.getStudentReports(module.moduleId(), List.of(-1L)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Student not found: -1");
+    }
+
+    private ModuleFixture.ReadyModule gradedModule() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(3);
+        gradeService.upsertGrades(batch(
+                entry(module.student(0), module.instrument(0), "7.00"),
+                entry(module.student(0), module.instrument(3), "4.00"),
+                entry(module.student(2), module.instrument(1), "8.50"),
+                entry(module.student(2), module.instrument(2), "5.00")
+        ), "test");
+        return module;
+    }
+
+    private String toJson(Object row) {
+        try {
+            return objectMapper.writeValueAsString(row);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
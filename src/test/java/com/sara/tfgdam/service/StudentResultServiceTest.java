@@ -0,0 +1,145 @@
+package com.sara.tfgdam.service;
+
+import com.sara.tfgdam.domain.entity.ModuleResultState;
+import com.sara.tfgdam.dto.ModuleFinalReportResponse;
+import com.sara.tfgdam.dto.StudentFinalReportRow;
+import com.sara.tfgdam.dto.UpdateRARequest;
+import com.sara.tfgdam.exception.BusinessValidationException;
+import com.sara.tfgdam.repository.ModuleResultStateRepository;
+import com.sara.tfgdam.support.ModuleFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.sara.tfgdam.support.ModuleFixture.awaitTrue;
+import static com.sara.tfgdam.support.ModuleFixture.batch;
+import static com.sara.tfgdam.support.ModuleFixture.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(ModuleFixture.class)
+class StudentResultServiceTest {
+
+    @Autowired
+    private StudentResultService studentResultService;
+
+    @Autowired
+    private CalculationService calculationService;
+
+    @Autowired
+    private GradeService gradeService;
+
+    @Autowired
+    private ModuleSetupService moduleSetupService;
+
+    @Autowired
+    private ModuleResultStateRepository moduleResultStateRepository;
+
+    @Autowired
+    private ModuleFixture moduleFixture;
+
+    @Test
+    void firstRead_servesLiveReportAndRebuildsInTheBackground() {
+        ModuleFixture.ReadyModule module = gradedModule();
+
+        ModuleFinalReportResponse first = studentResultService.getModuleFinalReport(module.moduleId());
+        assertThat(first.getFreshness().getSource()).isEqualTo("LIVE");
+
+        awaitFresh(module.moduleId());
+        ModuleFinalReportResponse materialized = studentResultService.getModuleFinalReport(module.moduleId());
+        assertThat(materialized.getFreshness().getSource()).isEqualTo("MATERIALIZED");
+        assertThat(materialized.getFreshness().isStale()).isFalse();
+        assertThat(materialized.getFreshness().getRefreshedAt()).isNotNull();
+        assertThat(finalGrades(materialized)).isEqualTo(finalGrades(calculationService.getModuleFinalReport(module.moduleId())));
+    }
+
+    @Test
+    void gradeWrite_refreshesMaterializedRowsOfTheStudent() {
+        ModuleFixture.ReadyModule module = materializedModule();
+
+        gradeService.upsertGrades(batch(entry(module.student(0), module.instrument(2), "2.00")), "test");
+
+        ModuleFinalReportResponse report = studentResultService.getModuleFinalReport(module.moduleId());
+        assertThat(report.getFreshness().getSource()).isEqualTo("MATERIALIZED");
+        assertThat(report.getFreshness().isStale()).isFalse();
+        assertThat(finalGrades(report)).isEqualTo(finalGrades(calculationService.getModuleFinalReport(module.moduleId())));
+    }
+
+    @Test
+    void structureChange_marksResultsStaleAndMaterializedReadsFailLikeLiveOnesUntilReady() {
+        ModuleFixture.ReadyModule module = materializedModule();
+        Long moduleId = module.moduleId();
+
+        // RA weights adding up to 90 make the module not ready, so the scheduled rebuild is skipped.
+        moduleSetupService.updateRA(module.raIds().get(0), raUpdate("RA1", "50.00"));
+
+        ModuleResultState state = moduleResultStateRepository.findById(moduleId).orElseThrow();
+        assertThat(state.isStale()).isTrue();
+        assertThat(state.getStaleSince()).isNotNull();
+        String notReady = catchThrowable(() -> calculationService.getModuleFinalReport(moduleId)).getMessage();
+        assertThat(notReady).isNotBlank();
+        assertThatThrownBy(() -> studentResultService.getModuleFinalReport(moduleId))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage(notReady);
+        assertThatThrownBy(() -> studentResultService.getModuleEvaluationReport(moduleId, 1))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage(notReady);
+        assertThatThrownBy(() -> studentResultService.getModuleDashboard(moduleId, false))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage(notReady);
+
+        moduleSetupService.updateRA(module.raIds().get(0), raUpdate("RA1", "60.00"));
+
+        awaitFresh(moduleId);
+        ModuleFinalReportResponse rebuilt = studentResultService.getModuleFinalReport(moduleId);
+        assertThat(rebuilt.getFreshness().getSource()).isEqualTo("MATERIALIZED");
+        assertThat(rebuilt.getFreshness().isStale()).isFalse();
+        assertThat(rebuilt.getFreshness().getStaleSince()).isNull();
+    }
+
+    private ModuleFixture.ReadyModule gradedModule() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(2);
+        gradeService.upsertGrades(batch(
+                entry(module.student(0), module.instrument(0), "7.50"),
+                entry(module.student(0), module.instrument(1), "8.00"),
+                entry(module.student(0), module.instrument(2), "6.75"),
+                entry(module.student(0), module.instrument(3), "7.25"),
+                entry(module.student(1), module.instrument(0), "4.00"),
+                entry(module.student(1), module.instrument(2), "4.50")
+        ), "test");
+        return module;
+    }
+
+    private ModuleFixture.ReadyModule materializedModule() {
+        ModuleFixture.ReadyModule module = gradedModule();
+        studentResultService.getModuleFinalReport(module.moduleId());
+        awaitFresh(module.moduleId());
+        return module;
+    }
+
+    private void awaitFresh(Long moduleId) {
+        awaitTrue(() -> moduleResultStateRepository.findById(moduleId)
+                .map(state -> !state.isStale())
+                .orElse(false));
+    }
+
+    private List<BigDecimal> finalGrades(ModuleFinalReportResponse report) {
+        return report.getStudents().stream().map(StudentFinalReportRow::getFinalGrade).toList();
+    }
+
+    private UpdateRARequest raUpdate(String code, String weight) {
+        UpdateRARequest request = new UpdateRARequest();
+        request.setCode(code);
+        request.setName(code);
+        request.setWeightPercent(new BigDecimal(weight));
+        return request;
+    }
+}
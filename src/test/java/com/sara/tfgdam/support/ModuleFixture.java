@@ -0,0 +1,163 @@
+package com.sara.tfgdam.support;
+
+import com.sara.tfgdam.domain.entity.Activity;
+import com.sara.tfgdam.domain.entity.CourseModule;
+import com.sara.tfgdam.domain.entity.GradeChangeCounter;
+import com.sara.tfgdam.domain.entity.Instrument;
+import com.sara.tfgdam.domain.entity.InstrumentRA;
+import com.sara.tfgdam.domain.entity.LearningOutcomeRA;
+import com.sara.tfgdam.domain.entity.Student;
+import com.sara.tfgdam.domain.entity.TeachingUnitUT;
+import com.sara.tfgdam.domain.entity.UTRALink;
+import com.sara.tfgdam.dto.GradeBatchRequest;
+import com.sara.tfgdam.dto.GradeEntryRequest;
+import com.sara.tfgdam.repository.ActivityRepository;
+import com.sara.tfgdam.repository.CourseModuleRepository;
+import com.sara.tfgdam.repository.GradeChangeCounterRepository;
+import com.sara.tfgdam.repository.InstrumentRARepository;
+import com.sara.tfgdam.repository.InstrumentRepository;
+import com.sara.tfgdam.repository.LearningOutcomeRARepository;
+import com.sara.tfgdam.repository.StudentRepository;
+import com.sara.tfgdam.repository.TeachingUnitUTRepository;
+import com.sara.tfgdam.repository.UTRALinkRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+// Same shape as the demo module: RA1 60% / RA2 40%, UT1 in period 1 and UT2 in period 2,
+// two instruments per UT, every instrument linked to at least one RA.
+@TestComponent
+@RequiredArgsConstructor
+public class ModuleFixture {
+
+    private final CourseModuleRepository courseModuleRepository;
+    private final GradeChangeCounterRepository gradeChangeCounterRepository;
+    private final LearningOutcomeRARepository learningOutcomeRARepository;
+    private final TeachingUnitUTRepository teachingUnitUTRepository;
+    private final UTRALinkRepository utraLinkRepository;
+    private final ActivityRepository activityRepository;
+    private final InstrumentRepository instrumentRepository;
+    private final InstrumentRARepository instrumentRARepository;
+    private final StudentRepository studentRepository;
+
+    public ReadyModule createReadyModule(int studentCount) {
+        CourseModule module = courseModuleRepository.save(CourseModule.builder()
+                .name("Modulo de prueba")
+                .academicYear("2025-2026")
+                .build());
+        gradeChangeCounterRepository.save(GradeChangeCounter.builder().moduleId(module.getId()).lastSequence(0).build());
+
+        LearningOutcomeRA ra1 = saveRA(module, "RA1", "60.00");
+        LearningOutcomeRA ra2 = saveRA(module, "RA2", "40.00");
+
+        TeachingUnitUT ut1 = teachingUnitUTRepository.save(TeachingUnitUT.builder()
+                .module(module).name("UT1").evaluationPeriod(1).build());
+        TeachingUnitUT ut2 = teachingUnitUTRepository.save(TeachingUnitUT.builder()
+                .module(module).name("UT2").evaluationPeriod(2).build());
+
+        saveLink(ut1, ra1, "50.00");
+        saveLink(ut2, ra1, "50.00");
+        saveLink(ut1, ra2, "40.00");
+        saveLink(ut2, ra2, "60.00");
+
+        Activity activity1 = activityRepository.save(Activity.builder().module(module).teachingUnit(ut1).name("UT1").build());
+        Activity activity2 = activityRepository.save(Activity.builder().module(module).teachingUnit(ut2).name("UT2").build());
+
+        Instrument exam1 = saveInstrument(activity1, "Examen UT1", "60.00", ra1, ra2);
+        Instrument practice1 = saveInstrument(activity1, "Practica UT1", "40.00", ra1);
+        Instrument exam2 = saveInstrument(activity2, "Examen UT2", "70.00", ra1);
+        Instrument project2 = saveInstrument(activity2, "Proyecto UT2", "30.00", ra2);
+
+        List<Long> studentIds = new ArrayList<>();
+        for (int i = 1; i <= studentCount; i++) {
+            studentIds.add(studentRepository.save(Student.builder()
+                    .module(module)
+                    .studentCode("A%03d".formatted(i))
+                    .fullName("Alumno " + i)
+                    .build()).getId());
+        }
+
+        return new ReadyModule(
+                module.getId(),
+                List.of(ra1.getId(), ra2.getId()),
+                List.of(ut1.getId(), ut2.getId()),
+                List.of(exam1.getId(), practice1.getId(), exam2.getId(), project2.getId()),
+                studentIds
+        );
+    }
+
+    public static GradeEntryRequest entry(Long studentId, Long instrumentId, String gradeValue) {
+        GradeEntryRequest entry = new GradeEntryRequest();
+        entry.setStudentId(studentId);
+        entry.setInstrumentId(instrumentId);
+        entry.setGradeValue(new BigDecimal(gradeValue));
+        return entry;
+    }
+
+    public static GradeBatchRequest batch(GradeEntryRequest... entries) {
+        GradeBatchRequest request = new GradeBatchRequest();
+        request.setGrades(List.of(entries));
+        return request;
+    }
+
+    // For work that finishes on a background thread.
+    public static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within 10 seconds");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(ex);
+            }
+        }
+    }
+
+    private LearningOutcomeRA saveRA(CourseModule module, String code, String weight) {
+        return learningOutcomeRARepository.save(LearningOutcomeRA.builder()
+                .module(module)
+                .code(code)
+                .name(code)
+                .weightPercent(new BigDecimal(weight))
+                .build());
+    }
+
+    private void saveLink(TeachingUnitUT ut, LearningOutcomeRA ra, String percent) {
+        utraLinkRepository.save(UTRALink.builder().teachingUnit(ut).learningOutcome(ra).percent(new BigDecimal(percent)).build());
+    }
+
+    private Instrument saveInstrument(Activity activity, String name, String weight, LearningOutcomeRA... ras) {
+        Instrument instrument = instrumentRepository.save(Instrument.builder()
+                .activity(activity)
+                .name(name)
+                .weightPercent(new BigDecimal(weight))
+                .build());
+        for (LearningOutcomeRA ra : ras) {
+            instrumentRARepository.save(InstrumentRA.builder().instrument(instrument).learningOutcome(ra).build());
+        }
+        return instrument;
+    }
+
+    // Instruments are ordered UT1 exam, UT1 practice, UT2 exam, UT2 project.
+    public record ReadyModule(Long moduleId,
+                              List<Long> raIds,
+                              List<Long> utIds,
+                              List<Long> instrumentIds,
+                              List<Long> studentIds) {
+
+        public Long instrument(int index) {
+            return instrumentIds.get(index);
+        }
+
+        public Long student(int index) {
+            return studentIds.get(index);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.sara.tfgdam.validation;
+
+import com.sara.tfgdam.domain.entity.Activity;
+import com.sara.tfgdam.domain.entity.CourseModule;
+import com.sara.tfgdam.domain.entity.LearningOutcomeRA;
+import com.sara.tfgdam.domain.entity.TeachingUnitUT;
+import com.sara.tfgdam.domain.entity.UTRALink;
+import com.sara.tfgdam.exception.BusinessValidationException;
+import com.sara.tfgdam.repository.ActivityRepository;
+import com.sara.tfgdam.repository.CourseModuleRepository;
+import com.sara.tfgdam.repository.InstrumentRepository;
+import com.sara.tfgdam.repository.LearningOutcomeRARepository;
+import com.sara.tfgdam.repository.TeachingUnitUTRepository;
+import com.sara.tfgdam.repository.UTRALinkRepository;
+import com.sara.tfgdam.support.ModuleFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(ModuleFixture.class)
+@Transactional
+class ConfigurationValidatorTest {
+
+    @Autowired
+    private ConfigurationValidator configurationValidator;
+
+    @Autowired
+    private CourseModuleRepository courseModuleRepository;
+
+    @Autowired
+    private LearningOutcomeRARepository learningOutcomeRARepository;
+
+    @Autowired
+    private TeachingUnitUTRepository teachingUnitUTRepository;
+
+    @Autowired
+    private UTRALinkRepository utraLinkRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private InstrumentRepository instrumentRepository;
+
+    @Autowired
+    private ModuleFixture moduleFixture;
+
+    @Test
+    void readyModule_passes() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(1);
+
+        assertThatCode(() -> configurationValidator.validateModuleReadyForCalculations(module.moduleId()))
+                .doesNotThrowAnyException();
+        assertThatCode(() -> validateInMemory(module.moduleId()))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void raWeightsNotAddingUpTo100_reportsTheSum() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(1);
+        LearningOutcomeRA ra1 = learningOutcomeRARepository.findById(module.raIds().get(0)).orElseThrow();
+        ra1.setWeightPercent(new BigDecimal("50.00"));
+
+        assertReadinessMessage(module.moduleId(),
+                "In module " + module.moduleId() + ", sum of RA weights must be exactly 100. Current=90.00");
+    }
+
+    @Test
+    void raWithoutUTRALinks_reportsZeroDistribution() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(1);
+        LearningOutcomeRA ra3 = learningOutcomeRARepository.save(LearningOutcomeRA.builder()
+                .module(courseModuleRepository.getReferenceById(module.moduleId()))
+                .code("RA3")
+                .name("RA3")
+                .weightPercent(new BigDecimal("0.00"))
+                .build());
+
+        assertReadinessMessage(module.moduleId(),
+                "For RA " + ra3.getId() + " (RA3), sum of UT-RA percentages must be exactly 100. Current=0");
+    }
+
+    @Test
+    void activityWithoutInstruments_reportsZeroWeight() {
+        ModuleFixture.ReadyModule module = moduleFixture.createReadyModule(1);
+        CourseModule courseModule = courseModuleRepository.getReferenceById(module.moduleId());
+        TeachingUnitUT ut3 = teachingUnitUTRepository.save(TeachingUnitUT.builder()
+                .module(courseModule).name("UT3").evaluationPeriod(1).build());
+        Activity activity = activityRepository.save(Activity.builder()
+                .module(courseModule).teachingUnit(ut3).name("UT3").build());
+
+        assertReadinessMessage(module.moduleId(),
+                "For activity " + activity.getId() + ", sum of instrument weights must be exactly 100. Current=0");
+    }
+
+    @Test
+    void moduleWithoutRAs_isRejected() {
+        CourseModule module = courseModuleRepository.save(CourseModule.builder().name("Vacio").academicYear("2025-2026").build());
+
+        assertReadinessMessage(module.getId(), "Module has no RAs configured");
+    }
+
+    @Test
+    void moduleWithoutActivities_isRejected() {
+        CourseModule module = courseModuleRepository.save(CourseModule.builder().name("Sin UTs").academicYear("2025-2026").build());
+        LearningOutcomeRA ra = learningOutcomeRARepository.save(LearningOutcomeRA.builder()
+                .module(module).code("RA1").name("RA1").weightPercent(new BigDecimal("100.00")).build());
+        TeachingUnitUT ut = teachingUnitUTRepository.save(TeachingUnitUT.builder()
+                .module(module).name("UT1").evaluationPeriod(1).build());
+        utraLinkRepository.save(UTRALink.builder().teachingUnit(ut).learningOutcome(ra).percent(new BigDecimal("100.00")).build());
+
+        assertReadinessMessage(module.getId(), "Module has no activities/UTs configured");
+    }
+
+    // The batch report validates rows already in memory; both overloads must give the same message.
+    private void assertReadinessMessage(Long moduleId, String message) {
+        assertThatThrownBy(() -> configurationValidator.validateModuleReadyForCalculations(moduleId))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage(message);
+        assertThatThrownBy(() -> validateInMemory(moduleId))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage(message);
+    }
+
+    private void validateInMemory(Long moduleId) {
+        List<Long> moduleIds = List.of(moduleId);
+        List<Long> utIds = teachingUnitUTRepository.findByModuleIdIn(moduleIds).stream().map(TeachingUnitUT::getId).toList();
+        List<Activity> activities = activityRepository.findByModuleIdIn(moduleIds);
+        configurationValidator.validateModuleReadyForCalculations(
+                moduleId,
+                learningOutcomeRARepository.findByModuleIdIn(moduleIds),
+                utIds.isEmpty() ? List.of() : utraLinkRepository.findByTeachingUnitIdIn(utIds),
+                activities,
+                activities.isEmpty() ? List.of() : instrumentRepository.findByActivityIdIn(activities.stream().map(Activity::getId).toList())
+        );
+    }
+}